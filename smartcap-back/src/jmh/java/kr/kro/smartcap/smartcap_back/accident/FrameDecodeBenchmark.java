@@ -0,0 +1,112 @@
+package kr.kro.smartcap.smartcap_back.accident;
+
+import kr.kro.smartcap.smartcap_back.accident.video.AccidentFrameReader;
+import kr.kro.smartcap.smartcap_back.accident.video.ClipMemoryTracker;
+import kr.kro.smartcap.smartcap_back.accident.video.ParallelFrameDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 사고 영상 1건(압축 프레임 묶음)의 JPEG 디코딩 시간 (스레드 수별)
+ *
+ * 기본은 1280x720 프레임 80장(10초, 8fps)을 합성해서 사용한다.
+ * 실제 장비에서 받은 Redis 값(zlib 압축 그대로)을 파일로 저장해 두었다면 경로를 넘긴다.
+ * ./gradlew jmh -PjmhIncludes=FrameDecodeBenchmark -Daccident.frames.blob=/path/to/clip.bin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class FrameDecodeBenchmark {
+
+    private static final int SYNTHETIC_FRAMES = 80;
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private byte[] blob;
+    private ParallelFrameDecoder decoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String path = System.getProperty("accident.frames.blob");
+        blob = path != null ? Files.readAllBytes(Path.of(path)) : syntheticBlob();
+        decoder = new ParallelFrameDecoder(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        decoder.close();
+    }
+
+    @Benchmark
+    public int decodeClip(Blackhole bh) throws IOException {
+        try (AccidentFrameReader reader = new AccidentFrameReader(
+                new InflaterInputStream(new ByteArrayInputStream(blob)))) {
+            return decoder.decode(reader, new ClipMemoryTracker(), (frame, image) -> bh.consume(image));
+        }
+    }
+
+    /**
+     * 장비 전송 형식(little endian: 프레임 수, [타임스탬프, 크기, JPEG]...)을 zlib 으로 압축한 데이터
+     */
+    private static byte[] syntheticBlob() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        raw.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(SYNTHETIC_FRAMES).array());
+
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < SYNTHETIC_FRAMES; i++) {
+            byte[] jpeg = syntheticJpeg(random, i);
+            raw.write(ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(timestamp + i * 125L)
+                    .putInt(jpeg.length)
+                    .array());
+            raw.write(jpeg);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+            raw.writeTo(out);
+        }
+        return compressed.toByteArray();
+    }
+
+    // 단색 화면은 디코딩이 너무 가벼우므로 노이즈와 도형으로 카메라 영상과 비슷한 크기를 만든다
+    private static byte[] syntheticJpeg(Random random, int index) throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < HEIGHT; y += 4) {
+            for (int x = 0; x < WIDTH; x += 4) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(100 + index * 10, 200, 200, 150);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
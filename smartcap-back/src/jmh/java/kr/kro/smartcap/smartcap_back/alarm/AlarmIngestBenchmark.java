@@ -0,0 +1,163 @@
+package kr.kro.smartcap.smartcap_back.alarm;
+
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.service.AlarmIngestScript;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.service.DashboardSnapshot;
+import kr.kro.smartcap.smartcap_back.event.service.EventService;
+import kr.kro.smartcap.smartcap_back.stats.service.RedisStatService;
+import kr.kro.smartcap.smartcap_back.stats.service.StatCounterBuffer;
+import kr.kro.smartcap.smartcap_back.stats.service.StatKeyLifecycle;
+import kr.kro.smartcap.smartcap_back.stats.sse.StatSseEmitterManager;
+import kr.kro.smartcap.smartcap_back.stats.sse.StatUpdateCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알람 적재 처리량 비교 (events/sec)
+ * - legacy : 기존 processAlarm 경로 (HGETALL, GET, RPUSH, EXPIRE, 통계별 HINCRBY/EXISTS/EXPIRE)
+ * - script : Lua 스크립트 1회 왕복 + 통계는 메모리 버퍼 (주기마다 파이프라인으로 반영)
+ *
+ * 실제 Redis가 필요하다. 운영 데이터와 섞이지 않도록 별도 DB(기본 15)를 사용한다.
+ * ./gradlew jmh -PjmhIncludes=AlarmIngestBenchmark -Dredis.host=127.0.0.1 -Dredis.port=6379
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class AlarmIngestBenchmark {
+
+    private static final int DEVICE_ID = 9999;
+    private static final long SITE_ID = 9999L;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisTemplate<String, Object> objectRedisTemplate;
+    private RedisStatService redisStatService;
+    private StatCounterBuffer statCounterBuffer;
+    private ThreadPoolTaskExecutor statFlushExecutor;
+    private AlarmIngestScript alarmIngestScript;
+    private String listKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "127.0.0.1"),
+                Integer.getInteger("redis.port", 6379));
+        config.setDatabase(Integer.getInteger("redis.database", 15));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        objectRedisTemplate = new RedisTemplate<>();
+        objectRedisTemplate.setConnectionFactory(connectionFactory);
+        objectRedisTemplate.setKeySerializer(new StringRedisSerializer());
+        objectRedisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        objectRedisTemplate.afterPropertiesSet();
+
+        StatUpdateCoalescer coalescer = new StatUpdateCoalescer(new StatSseEmitterManager());
+        statFlushExecutor = new ThreadPoolTaskExecutor();
+        statFlushExecutor.setCorePoolSize(1);
+        statFlushExecutor.setMaxPoolSize(1);
+        statFlushExecutor.setQueueCapacity(1);
+        statFlushExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        statFlushExecutor.initialize();
+        RedisKeyIndex redisKeyIndex = new RedisKeyIndex(stringRedisTemplate);
+        StatKeyLifecycle statKeyLifecycle = new StatKeyLifecycle(stringRedisTemplate, redisKeyIndex,
+                Duration.ofDays(4), Duration.ofDays(120), Duration.ZERO, 1000);
+        DashboardSnapshot dashboardSnapshot = new DashboardSnapshot(
+                new EventService(stringRedisTemplate, redisKeyIndex), statKeyLifecycle, new ObjectMapper(), false);
+        statCounterBuffer = new StatCounterBuffer(stringRedisTemplate, coalescer, dashboardSnapshot, statKeyLifecycle,
+                statFlushExecutor, 1000);
+        redisStatService = new RedisStatService(stringRedisTemplate, statCounterBuffer, redisKeyIndex);
+        alarmIngestScript = new AlarmIngestScript(stringRedisTemplate);
+
+        stringRedisTemplate.opsForHash().putAll("gps " + DEVICE_ID, Map.of("lat", "37.501263", "lng", "127.039615"));
+        stringRedisTemplate.opsForValue().set("current:weather", "맑음");
+        listKey = String.format("alarm:%d:%s", SITE_ID, LocalDate.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        statCounterBuffer.stop();
+        statFlushExecutor.shutdown();
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> keys = new HashSet<>(Set.of(
+                "gps " + DEVICE_ID,
+                "current:weather",
+                listKey,
+                redisStatService.hourKey(now),
+                redisStatService.dayKey(now),
+                redisStatService.monthKey(now),
+                KeyFamily.ALARM.indexKey(LocalDate.now().toString())));
+        stringRedisTemplate.delete(keys);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Object legacy() {
+        AlarmHistoryRedisDto dto = newAlarm();
+
+        Map<Object, Object> gpsMap = stringRedisTemplate.opsForHash().entries("gps " + DEVICE_ID);
+        if (!gpsMap.isEmpty()) {
+            dto.setLat(Double.parseDouble(gpsMap.get("lat").toString()));
+            dto.setLng(Double.parseDouble(gpsMap.get("lng").toString()));
+        }
+        String weather = stringRedisTemplate.opsForValue().get("current:weather");
+        dto.setWeather(weather != null && !weather.isEmpty() ? weather : "맑음");
+
+        objectRedisTemplate.opsForList().rightPush(listKey, dto);
+        objectRedisTemplate.expire(listKey, Duration.ofDays(2));
+
+        // 통계별 HINCRBY/EXISTS/EXPIRE (기존 processStat)
+        LocalDateTime createdAt = dto.getCreatedAt().toLocalDateTime();
+        String field = redisStatService.formatField(dto.getRecognizedType(), dto.getAlarmType());
+        for (String key : new String[]{redisStatService.hourKey(createdAt), redisStatService.dayKey(createdAt),
+                redisStatService.monthKey(createdAt)}) {
+            stringRedisTemplate.opsForHash().increment(key, field, 1);
+            if (Boolean.FALSE.equals(stringRedisTemplate.hasKey(key))) {
+                stringRedisTemplate.expire(key, Duration.ofDays(4));
+            }
+        }
+        return dto;
+    }
+
+    @Benchmark
+    public Object script() {
+        AlarmHistoryRedisDto dto = newAlarm();
+        Object result = alarmIngestScript.ingest(DEVICE_ID, listKey, dto);
+        redisStatService.incrementStats(dto.getCreatedAt().toLocalDateTime(), dto.getRecognizedType(), dto.getAlarmType());
+        return result;
+    }
+
+    private AlarmHistoryRedisDto newAlarm() {
+        AlarmHistoryRedisDto dto = new AlarmHistoryRedisDto();
+        dto.setConstructionSitesId(SITE_ID);
+        dto.setAlarmType("1");
+        dto.setRecognizedType("건설 자재");
+        dto.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
+        return dto;
+    }
+}
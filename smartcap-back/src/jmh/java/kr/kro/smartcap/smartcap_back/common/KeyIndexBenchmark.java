@@ -0,0 +1,108 @@
+package kr.kro.smartcap.smartcap_back.common;
+
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 오늘 날짜 알람 리스트 키 조회 지연 시간 (전체 키 수별)
+ * - keys  : KEYS alarm:*:{today} (기존 방식, 전체 키 수에 비례)
+ * - scan  : SCAN 커서 (다른 요청은 막지 않지만 전체 키 수에 비례)
+ * - index : 키 인덱스 sorted set 조회 (전체 키 수와 무관)
+ *
+ * 실제 Redis가 필요하며, 측정 전후로 대상 DB(기본 15)를 비운다. 운영 DB를 지정하지 말 것.
+ * ./gradlew jmh -PjmhIncludes=KeyIndexBenchmark -Dredis.host=127.0.0.1 -Dredis.port=6379
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyIndexBenchmark {
+
+    private static final int SITES = 20;
+    private static final int BATCH = 10_000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int keyCount;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisKeyIndex redisKeyIndex;
+    private String today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "127.0.0.1"),
+                Integer.getInteger("redis.port", 6379));
+        config.setDatabase(Integer.getInteger("redis.database", 15));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisKeyIndex = new RedisKeyIndex(redisTemplate);
+        today = LocalDate.now().toString();
+
+        flush();
+
+        // 오늘 알람 리스트 키 SITES 개 + 나머지는 지난 날짜/다른 종류 키
+        for (int site = 0; site < SITES; site++) {
+            String key = "alarm:" + site + ":" + today;
+            redisTemplate.opsForList().rightPush(key, "{}");
+            redisKeyIndex.register(KeyFamily.ALARM, key, Duration.ofDays(2));
+        }
+        for (int from = SITES; from < keyCount; from += BATCH) {
+            int start = from;
+            int end = Math.min(keyCount, from + BATCH);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (int i = start; i < end; i++) {
+                    conn.set(i % 2 == 0 ? "alarm:" + i + ":2000-01-01" : "device:" + i + ":image:0", "x");
+                }
+                return null;
+            });
+        }
+
+        redisKeyIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        flush();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Set<String> keys() {
+        return redisTemplate.keys("alarm:*:" + today);
+    }
+
+    @Benchmark
+    public Set<String> scan() {
+        return redisKeyIndex.scan("alarm:*:" + today);
+    }
+
+    @Benchmark
+    public Set<String> index() {
+        return redisKeyIndex.keys(KeyFamily.ALARM, today);
+    }
+
+    private void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+}
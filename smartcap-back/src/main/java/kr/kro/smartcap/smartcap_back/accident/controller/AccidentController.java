@@ -2,9 +2,10 @@ package kr.kro.smartcap.smartcap_back.accident.controller;
 
 import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryDto;
 import kr.kro.smartcap.smartcap_back.accident.service.AccidentProcessingService;
-import kr.kro.smartcap.smartcap_back.common.util.AlarmCategoryMapper;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class AccidentController {
 
     private final AccidentProcessingService accidentProcessingService;
+    private final IngestPipeline ingestPipeline;
 
     @PostMapping("/{deviceId}/notify")
     public ResponseEntity<?> notifyAccident(
@@ -23,15 +25,19 @@ public class AccidentController {
     ) {
         log.info("Received accident data: {}", dto);
         try {
-            String alarmType = AlarmCategoryMapper.map(dto.getAccidentType()).getCode();
-            if(!alarmType.equals("3")){
+            // 검증 후 적재 파이프라인에 등록만 하고 바로 응답 (저장/영상/통계/SSE 는 비동기 처리)
+            boolean accepted = ingestPipeline.submit(accidentProcessingService.createIngestEvent(deviceId, dto));
+            if (!accepted) {
                 return ResponseEntity
-                        .badRequest()
-                        .body("Invalid data received");
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Accident queue is full, retry later");
             }
-            accidentProcessingService.processAccident(deviceId, dto);
-            log.info("Accident data saved successfully for deviceId: {}", deviceId);
-            return ResponseEntity.ok("Accident data saved successfully");
+            log.info("Accident data accepted for deviceId: {}", deviceId);
+            return ResponseEntity.accepted().body("Accident data accepted");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Invalid data received");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to process accident: " + e.getMessage());
         }
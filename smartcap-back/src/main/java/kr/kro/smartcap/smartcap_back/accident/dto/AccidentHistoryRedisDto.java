@@ -6,6 +6,8 @@ import java.sql.Timestamp;
 
 @Data
 public class AccidentHistoryRedisDto {
+    // 적재 시 발급한 이벤트 ID (이전 데이터는 null)
+    private Long accidentId;
     private Long constructionSitesId;
     private String accidentType;
     private String weather;
@@ -0,0 +1,18 @@
+package kr.kro.smartcap.smartcap_back.accident.dto;
+
+import java.sql.Timestamp;
+
+/**
+ * 지도 화면용 사고 조회 결과 (엔티티 대신 필요한 컬럼만 조회, 영상은 LEFT JOIN)
+ */
+public interface AccidentMapRow {
+    Long getAccidentId();
+    Long getConstructionSitesId();
+    String getAccidentType();
+    String getWeather();
+    Timestamp getCreatedAt();
+    Double getLng();             // GPS 없으면 null
+    Double getLat();
+    Long getAccidentVideoId();   // 영상 없으면 null
+    String getVideoUrl();
+}
@@ -7,16 +7,17 @@ import org.locationtech.jts.geom.Point;
 import java.sql.Timestamp;
 import java.time.Instant;
 import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
 
 
 @Getter
 @Setter
 @Entity
 @Table(name = "accident_history")
-public class AccidentHistory {
+public class AccidentHistory implements Persistable<Long> {
 
+    // 적재 시 EventIdAllocator 로 발급한 ID (DB 에서 생성하지 않음)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "accident_id")
     private Long accidentId;
 
@@ -36,6 +37,26 @@ public class AccidentHistory {
     @Column(name = "created_at", nullable = false)
     private Timestamp createdAt;
 
+    // ID 를 직접 넣으므로 save() 가 SELECT 후 merge 하지 않고 바로 INSERT 하도록 새 행 여부를 따로 관리
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return accidentId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
     @PrePersist
     public void onPrePersist() {
         if (createdAt == null) {
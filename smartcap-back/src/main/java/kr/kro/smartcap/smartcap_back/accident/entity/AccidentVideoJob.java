@@ -0,0 +1,60 @@
+package kr.kro.smartcap.smartcap_back.accident.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "accident_video_jobs")
+public class AccidentVideoJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "accident_id", nullable = false)
+    private Long accidentId;
+
+    @Column(name = "device_id", nullable = false)
+    private Integer deviceId;
+
+    @Column(name = "redis_key")
+    private String redisKey;      // 압축된 프레임 데이터가 저장된 Redis 키
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AccidentVideoJobStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Timestamp updatedAt;
+
+    @PrePersist
+    public void onPrePersist() {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = now;
+        }
+        updatedAt = now;
+    }
+}
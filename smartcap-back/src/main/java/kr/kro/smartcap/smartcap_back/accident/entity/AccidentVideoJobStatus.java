@@ -0,0 +1,11 @@
+package kr.kro.smartcap.smartcap_back.accident.entity;
+
+/**
+ * 사고 영상 생성 작업 상태
+ */
+public enum AccidentVideoJobStatus {
+    QUEUED,     // 대기 (재시도 대기 포함)
+    RENDERING,  // 영상 생성/업로드 중
+    UPLOADED,   // 업로드 및 accident_videos 기록 완료
+    FAILED      // 최대 재시도 횟수 초과
+}
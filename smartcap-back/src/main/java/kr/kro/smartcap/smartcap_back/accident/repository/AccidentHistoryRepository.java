@@ -1,10 +1,15 @@
 package kr.kro.smartcap.smartcap_back.accident.repository;
 
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentMapRow;
 import kr.kro.smartcap.smartcap_back.accident.entity.AccidentHistory;
+import kr.kro.smartcap.smartcap_back.event.dto.MapCellRow;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBucketRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +24,126 @@ public interface AccidentHistoryRepository extends JpaRepository<AccidentHistory
 
     @Query("SELECT MIN(a.createdAt) FROM AccidentHistory a")
     Optional<LocalDateTime> findEarliestCreatedAt();
+
+    /**
+     * 지도용 사고 목록 ([since, until) 기간, 영역(envelope) 안, 최신순, (createdAt, accidentId) 기준 키셋 페이지)
+     * 사고당 영상은 가장 먼저 등록된 1건만 붙인다.
+     */
+    @Query(value = """
+    SELECT a.accident_id AS accidentId,
+           a.construction_sites_id AS constructionSitesId,
+           a.accident_type AS accidentType,
+           a.weather AS weather,
+           a.created_at AS createdAt,
+           ST_X(a.gps) AS lng,
+           ST_Y(a.gps) AS lat,
+           v.accident_video_id AS accidentVideoId,
+           v.video_url AS videoUrl
+    FROM accident_history a
+    LEFT JOIN LATERAL (
+        SELECT av.accident_video_id, av.video_url
+        FROM accident_videos av
+        WHERE av.accident_id = a.accident_id
+        ORDER BY av.accident_video_id
+        LIMIT 1
+    ) v ON TRUE
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND (a.created_at, a.accident_id) < (:afterAt, :afterId)
+      AND a.gps && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+    ORDER BY a.created_at DESC, a.accident_id DESC
+    LIMIT :limit
+""", nativeQuery = true)
+    List<AccidentMapRow> findMapRows(Timestamp since, Timestamp until, Timestamp afterAt, long afterId,
+                                      double minLng, double minLat, double maxLng, double maxLat, int limit);
+
+    @Query("SELECT COALESCE(MAX(a.accidentId), 0) FROM AccidentHistory a")
+    long findMaxAccidentId();
+
+    // 자정 적재 재실행 시 이미 저장된 행 건너뛰기
+    @Query("SELECT a.accidentId FROM AccidentHistory a WHERE a.accidentId IN :ids")
+    List<Long> findExistingAccidentIds(Collection<Long> ids);
+
+    /**
+     * 통계 재생성: [since, until) 기간을 unit(hour, day, month) 단위로 자른 구간별, 사고 종류별 건수 (알람 타입 "3")
+     */
+    @Query(value = """
+    SELECT date_trunc(:unit, a.created_at) AS bucket,
+           a.accident_type AS recognizedType,
+           '3' AS alarmType,
+           COUNT(*) AS cnt
+    FROM accident_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+    GROUP BY 1, 2
+""", nativeQuery = true)
+    List<StatBucketRow> aggregateStatBuckets(String unit, Timestamp since, Timestamp until);
+
+    /**
+     * 기간별 통계 조회: aggregateStatBuckets 와 같고 현장 하나만 (unit 에 minute 포함)
+     */
+    @Query(value = """
+    SELECT date_trunc(:unit, a.created_at) AS bucket,
+           a.accident_type AS recognizedType,
+           '3' AS alarmType,
+           COUNT(*) AS cnt
+    FROM accident_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND a.construction_sites_id = :siteId
+    GROUP BY 1, 2
+""", nativeQuery = true)
+    List<StatBucketRow> aggregateSiteStatBuckets(String unit, Timestamp since, Timestamp until, Long siteId);
+
+    /**
+     * 지도 변경분: afterId 이후 새로 등록된 사고 (accidentId 오름차순)
+     */
+    @Query(value = """
+    SELECT a.accident_id AS accidentId,
+           a.construction_sites_id AS constructionSitesId,
+           a.accident_type AS accidentType,
+           a.weather AS weather,
+           a.created_at AS createdAt,
+           ST_X(a.gps) AS lng,
+           ST_Y(a.gps) AS lat,
+           v.accident_video_id AS accidentVideoId,
+           v.video_url AS videoUrl
+    FROM accident_history a
+    LEFT JOIN LATERAL (
+        SELECT av.accident_video_id, av.video_url
+        FROM accident_videos av
+        WHERE av.accident_id = a.accident_id
+        ORDER BY av.accident_video_id
+        LIMIT 1
+    ) v ON TRUE
+    WHERE a.accident_id > :afterId
+      AND a.created_at >= :since
+      AND a.created_at < :until
+      AND a.gps && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+    ORDER BY a.accident_id
+    LIMIT :limit
+""", nativeQuery = true)
+    List<AccidentMapRow> findMapRowsAddedAfter(long afterId, Timestamp since, Timestamp until,
+                                               double minLng, double minLat, double maxLng, double maxLat, int limit);
+
+    /**
+     * 지도 격자 집계 (날짜 x cell 도 단위 격자 칸 x 종류별 건수)
+     */
+    @Query(value = """
+    SELECT CAST(a.created_at AS date) AS day,
+           CAST(floor(ST_X(a.gps) / :cell) AS bigint) AS cellX,
+           CAST(floor(ST_Y(a.gps) / :cell) AS bigint) AS cellY,
+           '3' AS alarmType,
+           a.accident_type AS recognizedType,
+           COUNT(*) AS cnt,
+           SUM(ST_X(a.gps)) AS sumLng,
+           SUM(ST_Y(a.gps)) AS sumLat
+    FROM accident_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND a.gps && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+    GROUP BY 1, 2, 3, 5
+""", nativeQuery = true)
+    List<MapCellRow> aggregateMapCells(Timestamp since, Timestamp until, double cell,
+                                       double minLng, double minLat, double maxLng, double maxLat);
 }
@@ -0,0 +1,51 @@
+package kr.kro.smartcap.smartcap_back.accident.repository;
+
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJob;
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface AccidentVideoJobRepository extends JpaRepository<AccidentVideoJob, Long> {
+
+    // 실행 시각이 된 대기 작업 조회
+    List<AccidentVideoJob> findTop20ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            AccidentVideoJobStatus status, Timestamp now);
+
+    // QUEUED → RENDERING 선점 (동시에 두 워커가 같은 작업을 실행하지 않도록 조건부 UPDATE)
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE AccidentVideoJob j
+    SET j.status = kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus.RENDERING,
+        j.attempts = j.attempts + 1,
+        j.updatedAt = :now
+    WHERE j.jobId = :jobId
+      AND j.status = kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus.QUEUED
+""")
+    int claim(Long jobId, Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE AccidentVideoJob j
+    SET j.status = :status, j.lastError = :lastError, j.nextAttemptAt = :nextAttemptAt, j.updatedAt = :now
+    WHERE j.jobId = :jobId
+""")
+    int updateStatus(Long jobId, AccidentVideoJobStatus status, String lastError, Timestamp nextAttemptAt, Timestamp now);
+
+    // 서버 재시작 시 RENDERING 상태로 남은 작업을 다시 대기 상태로 되돌림
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE AccidentVideoJob j
+    SET j.status = kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus.QUEUED,
+        j.updatedAt = :now
+    WHERE j.status = kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus.RENDERING
+""")
+    int requeueInterrupted(Timestamp now);
+}
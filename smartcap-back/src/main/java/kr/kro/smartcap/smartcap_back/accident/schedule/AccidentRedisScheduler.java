@@ -3,6 +3,13 @@ package kr.kro.smartcap.smartcap_back.accident.schedule;
 import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryRedisDto;
 import kr.kro.smartcap.smartcap_back.accident.entity.AccidentHistory;
 import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.common.codec.RedisEventCodec;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.service.MapClusterService;
+import kr.kro.smartcap.smartcap_back.event.service.MapSnapshot;
+import kr.kro.smartcap.smartcap_back.ingest.id.EventIdAllocator;
+import kr.kro.smartcap.smartcap_back.stats.service.StatRollupService;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -10,12 +17,15 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -23,54 +33,105 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class AccidentRedisScheduler {
 
-    private final RedisTemplate<String, Object> objectRedisTemplate;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
     private final AccidentHistoryRepository accidentHistoryRepository;
+    private final MapClusterService mapClusterService;
+    private final MapSnapshot mapSnapshot;
+    private final EventIdAllocator eventIdAllocator;
+    private final StatRollupService statRollupService;
 
     private static final Logger logger = LoggerFactory.getLogger(AccidentRedisScheduler.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // IN 절 바인드 변수 수 제한(32767) 아래로 나눠 조회
+    private static final int EXISTING_ID_CHUNK = 1000;
 
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
     @Scheduled(cron = "0 0 0 * * *") // 매일 자정
     public void processAccidentDataFromRedis() {
         String yesterday = LocalDate.now().minusDays(1).format(formatter);
-        String pattern = "accident:*:" + yesterday;
-
-        Set<String> keys = objectRedisTemplate.keys(pattern);
-        if (keys == null || keys.isEmpty()) {
-            logger.info("[사고] 어제 날짜 Redis 데이터 없음. pattern={}", pattern);
+        Set<String> keys = redisKeyIndex.keys(KeyFamily.ACCIDENT, yesterday);
+        if (keys.isEmpty()) {
+            logger.info("[사고] 어제 날짜 Redis 데이터 없음. date={}", yesterday);
+            statRollupService.rollupFlushedDay(LocalDate.parse(yesterday, formatter));
             return;
         }
 
         for (String key : keys) {
-            Long size = objectRedisTemplate.opsForList().size(key);
+            Long size = redisTemplate.opsForList().size(key);
             logger.info("[사고] Redis key: {}, 항목 수: {}", key, size);
 
-            List<Object> list = objectRedisTemplate.opsForList().range(key, 0, -1);
-            if (list != null) {
-                for (Object obj : list) {
-                    try {
-                        AccidentHistoryRedisDto dto = (AccidentHistoryRedisDto) obj;
-
-                        AccidentHistory entity = new AccidentHistory();
-                        entity.setConstructionSitesId(dto.getConstructionSitesId());
-                        entity.setAccidentType(dto.getAccidentType());
-                        entity.setWeather(dto.getWeather());
-                        entity.setCreatedAt(dto.getCreatedAt());
-
-                        // GPS 세팅 (lat/lng → Point)
-                        Point point = geometryFactory.createPoint(new Coordinate(dto.getLng(), dto.getLat()));
-                        entity.setGps(point);
-
-                        accidentHistoryRepository.save(entity);
-
-                    } catch (ClassCastException e) {
-                        logger.warn("[사고] 캐스팅 실패: {}", e.getMessage());
-                    } catch (Exception e) {
-                        logger.error("[사고] 저장 중 예외 발생: {}", e.getMessage(), e);
-                    }
+            List<byte[]> list = redisTemplate.opsForList().range(key, 0, -1);
+            if (list == null) {
+                continue;
+            }
+
+            List<AccidentHistoryRedisDto> accidents = new ArrayList<>(list.size());
+            for (byte[] payload : list) {
+                try {
+                    accidents.add((AccidentHistoryRedisDto) RedisEventCodec.decode(payload));
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    logger.warn("[사고] 디코딩 실패: {}", e.getMessage());
+                }
+            }
+
+            // 다시 실행해도 이미 저장된 ID 는 건너뛴다
+            Set<Long> existing = findExistingIds(accidents);
+            int skipped = 0;
+            for (AccidentHistoryRedisDto dto : accidents) {
+                if (dto.getAccidentId() != null && existing.contains(dto.getAccidentId())) {
+                    skipped++;
+                    continue;
+                }
+                try {
+                    AccidentHistory entity = new AccidentHistory();
+                    entity.setAccidentId(dto.getAccidentId() != null ? dto.getAccidentId() : eventIdAllocator.next());
+                    entity.setConstructionSitesId(dto.getConstructionSitesId());
+                    entity.setAccidentType(dto.getAccidentType());
+                    entity.setWeather(dto.getWeather());
+                    entity.setCreatedAt(dto.getCreatedAt());
+
+                    // GPS 세팅 (lat/lng → Point)
+                    Point point = geometryFactory.createPoint(new Coordinate(dto.getLng(), dto.getLat()));
+                    entity.setGps(point);
+
+                    accidentHistoryRepository.save(entity);
+                    existing.add(entity.getAccidentId());
+
+                } catch (DataIntegrityViolationException e) {
+                    // 조회 이후 다른 실행이 먼저 저장한 경우
+                    skipped++;
+                    logger.info("[사고] 이미 저장된 행 건너뜀: accidentId={}", dto.getAccidentId());
+                } catch (Exception e) {
+                    logger.error("[사고] 저장 중 예외 발생: {}", e.getMessage(), e);
                 }
             }
+            if (skipped > 0) {
+                logger.info("[사고] 이미 저장된 {}건 건너뜀: key={}", skipped, key);
+            }
+        }
+
+        // 전날 통계 집계 테이블 갱신
+        statRollupService.rollupFlushedDay(LocalDate.parse(yesterday, formatter));
+
+        // 적재 전에 집계된 지도 클러스터 캐시 무효화, 지도 스냅샷은 DB 기준으로 다시 생성
+        mapClusterService.evictDay(LocalDate.parse(yesterday, formatter));
+        mapSnapshot.rebuild();
+    }
+
+    private Set<Long> findExistingIds(List<AccidentHistoryRedisDto> accidents) {
+        List<Long> ids = new ArrayList<>(accidents.size());
+        for (AccidentHistoryRedisDto dto : accidents) {
+            if (dto.getAccidentId() != null) {
+                ids.add(dto.getAccidentId());
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += EXISTING_ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + EXISTING_ID_CHUNK));
+            existing.addAll(accidentHistoryRepository.findExistingAccidentIds(chunk));
         }
+        return existing;
     }
 }
@@ -0,0 +1,57 @@
+package kr.kro.smartcap.smartcap_back.accident.service;
+
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryDto;
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentHistory;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestEvent;
+
+/**
+ * 사고 1건의 적재 단계별 처리
+ */
+class AccidentIngestEvent implements IngestEvent {
+
+    private final AccidentProcessingService service;
+    private final int deviceId;
+    private final AccidentHistoryDto request;
+
+    private AccidentHistory accident;
+
+    AccidentIngestEvent(AccidentProcessingService service, int deviceId, AccidentHistoryDto request) {
+        this.service = service;
+        this.deviceId = deviceId;
+        this.request = request;
+    }
+
+    @Override
+    public void validate() {
+        service.validate(request);
+    }
+
+    @Override
+    public void enrich() {
+        accident = service.toEntity(deviceId, request);
+    }
+
+    @Override
+    public void persist() {
+        accident = service.persist(deviceId, accident, request);
+    }
+
+    @Override
+    public void updateStats() {
+        service.updateStats(accident);
+    }
+
+    @Override
+    public void fanOut() {
+        service.notifyClients(accident);
+        service.updateMap(accident);
+    }
+
+    @Override
+    public String describe() {
+        return "accident(deviceId=" + deviceId
+                + ", siteId=" + request.getConstructionSitesId()
+                + ", accidentType=" + request.getAccidentType()
+                + ", accidentId=" + (accident != null ? accident.getAccidentId() : null) + ")";
+    }
+}
@@ -2,12 +2,14 @@ package kr.kro.smartcap.smartcap_back.accident.service;
 
 import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryDto;
 import kr.kro.smartcap.smartcap_back.accident.entity.AccidentHistory;
-import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideo;
 import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
 import kr.kro.smartcap.smartcap_back.accident.sse.AccidentSseEmitterHandler;
 import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
 import kr.kro.smartcap.smartcap_back.common.dto.CategoryInfo;
 import kr.kro.smartcap.smartcap_back.common.util.AlarmCategoryMapper;
+import kr.kro.smartcap.smartcap_back.event.service.MapSnapshot;
+import kr.kro.smartcap.smartcap_back.ingest.id.EventIdAllocator;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestEvent;
 import kr.kro.smartcap.smartcap_back.stats.service.RedisStatService;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
@@ -18,7 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -29,20 +31,37 @@ import java.util.Map;
 public class AccidentProcessingService {
 
     private final AccidentHistoryRepository accidentHistoryRepository;
-    private final AccidentVideoService accidentVideoService;
+    private final AccidentVideoJobService accidentVideoJobService;
     // RedisTemplate for GPS data (assumed String type for simplicity)
     private final RedisTemplate<String, String> redisTemplate;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
     private final RedisStatService redisStatService;
     private final AccidentSseEmitterHandler accidentSseEmitterHandler;
+    private final MapSnapshot mapSnapshot;
+    private final EventIdAllocator eventIdAllocator;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Logger logger = LoggerFactory.getLogger(AccidentProcessingService.class);
 
     private static final String WEATHER_KEY = "current:weather";
 
-    @Transactional
-    public void processAccident(int deviceId, AccidentHistoryDto dto) {
+    /**
+     * 적재 파이프라인에 등록할 사고 이벤트 생성
+     */
+    public IngestEvent createIngestEvent(int deviceId, AccidentHistoryDto dto) {
+        return new AccidentIngestEvent(this, deviceId, dto);
+    }
+
+    void validate(AccidentHistoryDto dto) {
+        String alarmType = AlarmCategoryMapper.map(dto.getAccidentType()).getCode();
+        if (!alarmType.equals("3")) {
+            throw new IllegalArgumentException("Invalid data received");
+        }
+    }
+
+    AccidentHistory toEntity(int deviceId, AccidentHistoryDto dto) {
         AccidentHistory accidentHistory = new AccidentHistory();
+        accidentHistory.setAccidentId(eventIdAllocator.next());
         accidentHistory.setConstructionSitesId(dto.getConstructionSitesId());
 
         CategoryInfo info = AlarmCategoryMapper.map(dto.getAccidentType());
@@ -68,33 +87,48 @@ public class AccidentProcessingService {
         }
 
         setWeatherFromRedis(accidentHistory);
+        return accidentHistory;
+    }
 
-        AccidentHistory savedHistory = accidentHistoryRepository.save(accidentHistory);
-        logger.info("AccidentHistory saved: accidentId={}, constructionSitesId={}",
-                savedHistory.getAccidentId(), savedHistory.getConstructionSitesId());
-
-        
-        // Redis에 이미지가 있으면 영상 생성 및 DB 기록
-
-//        AccidentVideo accidentVideo = accidentVideoService.createAccidentVideo(deviceId, savedHistory.getAccidentId());
-        //TODO: 시연 코드(삭제 해야하는 부분)
-        AccidentVideo accidentVideo = accidentVideoService.createAccidentVideoV2(deviceId, savedHistory.getAccidentId(), dto.getRedisKey());
-        if (accidentVideo != null) {
-            logger.info("AccidentVideo saved in DB: accidentVideoId={}, videoUrl={}",
-                    accidentVideo.getAccidentVideoId(), accidentVideo.getVideoUrl());
-        } else {
-            logger.info("AccidentHistory saved without AccidentVideo.");
+    /**
+     * 사고 이력과 영상 생성 작업을 한 트랜잭션으로 저장
+     * 둘 중 하나라도 실패하면 모두 롤백되므로 파이프라인 재시도 시 처음부터 다시 저장한다.
+     * (파이프라인 이벤트는 프록시가 아닌 이 객체를 직접 호출하므로 @Transactional 대신 TransactionTemplate 사용)
+     */
+    AccidentHistory persist(int deviceId, AccidentHistory accidentHistory, AccidentHistoryDto dto) {
+        try {
+            return transactionTemplate.execute(status -> {
+                AccidentHistory savedHistory = accidentHistoryRepository.save(accidentHistory);
+                logger.info("AccidentHistory saved: accidentId={}, constructionSitesId={}",
+                        savedHistory.getAccidentId(), savedHistory.getConstructionSitesId());
+                // 영상 생성은 백그라운드 작업으로 처리 (커밋 후 실행, 완료 시 accident_video_ready 이벤트 전송)
+                accidentVideoJobService.enqueue(deviceId, savedHistory.getAccidentId(), dto.getRedisKey());
+                return savedHistory;
+            });
+        } catch (RuntimeException e) {
+            // 롤백되었으므로 재시도 때 merge 가 아니라 다시 INSERT 하도록 새 행으로 되돌림
+            accidentHistory.setNewEntity(true);
+            throw e;
         }
+    }
 
+    void updateStats(AccidentHistory accidentHistory) {
         // 레디스 통계 업데이트
         redisStatService.incrementStats(
                 accidentHistory.getCreatedAt().toLocalDateTime(),
                 accidentHistory.getAccidentType(),
                 "3"
         );
+    }
+
+    void notifyClients(AccidentHistory savedHistory) {
+        // SSE 전송 (영상은 아직 생성 전)
+        accidentSseEmitterHandler.sendAccidentToClients(savedHistory, null);
+    }
 
-        // SSE 전송
-        accidentSseEmitterHandler.sendAccidentToClients(savedHistory, accidentVideo);
+    void updateMap(AccidentHistory savedHistory) {
+        // 지도 스냅샷 반영
+        mapSnapshot.addAccident(savedHistory);
     }
 
     private void setWeatherFromRedis(AccidentHistory accidentHistory) {
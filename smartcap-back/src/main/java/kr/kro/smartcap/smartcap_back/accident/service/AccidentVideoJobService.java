@@ -0,0 +1,176 @@
+package kr.kro.smartcap.smartcap_back.accident.service;
+
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideo;
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJob;
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideoJobStatus;
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentVideoJobRepository;
+import kr.kro.smartcap.smartcap_back.accident.sse.AccidentSseEmitterHandler;
+import kr.kro.smartcap.smartcap_back.event.service.MapSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 사고 영상 생성 작업 관리
+ *
+ * 사고 저장 시 accident_video_jobs 에 QUEUED 작업을 남기고 즉시 반환한다.
+ * 작업은 전용 스레드 풀(accidentVideoExecutor)에서 DB 트랜잭션 없이 실행되며,
+ * 실패하면 지연 후 재시도하고 최대 횟수를 넘기면 FAILED 로 남긴다.
+ * 영상이 준비되면 accident_video_ready SSE 이벤트를 전송한다.
+ */
+@Slf4j
+@Service
+public class AccidentVideoJobService {
+
+    private final AccidentVideoJobRepository accidentVideoJobRepository;
+    private final AccidentVideoService accidentVideoService;
+    private final AccidentSseEmitterHandler accidentSseEmitterHandler;
+    private final MapSnapshot mapSnapshot;
+    private final ThreadPoolTaskExecutor accidentVideoExecutor;
+
+    @Value("${accident.video.job.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${accident.video.job.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    public AccidentVideoJobService(AccidentVideoJobRepository accidentVideoJobRepository,
+                                   AccidentVideoService accidentVideoService,
+                                   AccidentSseEmitterHandler accidentSseEmitterHandler,
+                                   MapSnapshot mapSnapshot,
+                                   @Qualifier("accidentVideoExecutor") ThreadPoolTaskExecutor accidentVideoExecutor) {
+        this.accidentVideoJobRepository = accidentVideoJobRepository;
+        this.accidentVideoService = accidentVideoService;
+        this.accidentSseEmitterHandler = accidentSseEmitterHandler;
+        this.mapSnapshot = mapSnapshot;
+        this.accidentVideoExecutor = accidentVideoExecutor;
+    }
+
+    /**
+     * 영상 생성 작업 등록. 트랜잭션 안에서 호출되면 커밋 후 실행을 요청한다.
+     */
+    public AccidentVideoJob enqueue(int deviceId, Long accidentId, String redisKey) {
+        AccidentVideoJob job = new AccidentVideoJob();
+        job.setAccidentId(accidentId);
+        job.setDeviceId(deviceId);
+        job.setRedisKey(redisKey);
+        job.setStatus(AccidentVideoJobStatus.QUEUED);
+        AccidentVideoJob saved = accidentVideoJobRepository.save(job);
+        log.info("Accident video job queued: jobId={}, accidentId={}", saved.getJobId(), accidentId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(saved.getJobId());
+                }
+            });
+        } else {
+            dispatch(saved.getJobId());
+        }
+        return saved;
+    }
+
+    /**
+     * 실행 시각이 된 대기 작업을 주기적으로 실행 (즉시 실행이 거절되었거나 재시도 대기 중인 작업)
+     */
+    @Scheduled(fixedDelayString = "${accident.video.job.poll-interval:5000}")
+    public void dispatchDueJobs() {
+        List<AccidentVideoJob> dueJobs = accidentVideoJobRepository
+                .findTop20ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        AccidentVideoJobStatus.QUEUED, Timestamp.from(Instant.now()));
+        for (AccidentVideoJob job : dueJobs) {
+            if (!dispatch(job.getJobId())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 서버가 작업 도중 종료되었던 경우 RENDERING 상태 작업을 다시 대기 상태로 되돌림
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueInterruptedJobs() {
+        int requeued = accidentVideoJobRepository.requeueInterrupted(Timestamp.from(Instant.now()));
+        if (requeued > 0) {
+            log.info("Requeued {} interrupted accident video jobs", requeued);
+        }
+    }
+
+    private boolean dispatch(Long jobId) {
+        try {
+            accidentVideoExecutor.execute(() -> run(jobId));
+            return true;
+        } catch (TaskRejectedException e) {
+            // 풀이 가득 찬 경우 QUEUED 상태로 두고 다음 폴링에서 실행
+            log.debug("Accident video executor is busy, job {} stays queued", jobId);
+            return false;
+        }
+    }
+
+    private void run(Long jobId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (accidentVideoJobRepository.claim(jobId, now) == 0) {
+            return; // 이미 다른 워커가 실행 중이거나 완료됨
+        }
+
+        AccidentVideoJob job = accidentVideoJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        String error;
+        try {
+            AccidentVideo video = accidentVideoService.createAccidentVideoV2(
+                    job.getDeviceId(), job.getAccidentId(), job.getRedisKey());
+            if (video != null) {
+                accidentVideoJobRepository.updateStatus(jobId, AccidentVideoJobStatus.UPLOADED,
+                        null, job.getNextAttemptAt(), Timestamp.from(Instant.now()));
+                log.info("Accident video job uploaded: jobId={}, accidentId={}, videoUrl={}",
+                        jobId, job.getAccidentId(), video.getVideoUrl());
+                accidentSseEmitterHandler.sendAccidentVideoReady(video);
+                mapSnapshot.updateVideo(video.getAccidentId(), video.getAccidentVideoId(), video.getVideoUrl());
+                return;
+            }
+            error = "No video produced (missing or undecodable frame data)";
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("Accident video job {} failed on attempt {}: {}", jobId, job.getAttempts(), e.getMessage(), e);
+        }
+
+        fail(job, error);
+    }
+
+    private void fail(AccidentVideoJob job, String error) {
+        Instant now = Instant.now();
+        String truncated = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+
+        if (job.getAttempts() >= maxAttempts) {
+            accidentVideoJobRepository.updateStatus(job.getJobId(), AccidentVideoJobStatus.FAILED,
+                    truncated, Timestamp.from(now), Timestamp.from(now));
+            log.warn("Accident video job failed permanently: jobId={}, accidentId={}, attempts={}, error={}",
+                    job.getJobId(), job.getAccidentId(), job.getAttempts(), truncated);
+            return;
+        }
+
+        // 재시도 간격은 시도 횟수에 비례해서 늘림
+        Instant nextAttemptAt = now.plus(Duration.ofSeconds(retryDelaySeconds * job.getAttempts()));
+        accidentVideoJobRepository.updateStatus(job.getJobId(), AccidentVideoJobStatus.QUEUED,
+                truncated, Timestamp.from(nextAttemptAt), Timestamp.from(now));
+        log.info("Accident video job {} will retry at {} (attempt {}/{})",
+                job.getJobId(), nextAttemptAt, job.getAttempts(), maxAttempts);
+    }
+}
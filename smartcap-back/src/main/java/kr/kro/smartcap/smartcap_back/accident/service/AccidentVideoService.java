@@ -2,10 +2,19 @@ package kr.kro.smartcap.smartcap_back.accident.service;
 
 import kr.kro.smartcap.smartcap_back.accident.entity.AccidentVideo;
 import kr.kro.smartcap.smartcap_back.accident.repository.AccidentVideoRepository;
-import kr.kro.smartcap.smartcap_back.common.util.S3Uploader;
+import kr.kro.smartcap.smartcap_back.accident.video.AccidentFrame;
+import kr.kro.smartcap.smartcap_back.accident.video.AccidentFrameReader;
+import kr.kro.smartcap.smartcap_back.accident.video.ClipBuffer;
+import kr.kro.smartcap.smartcap_back.accident.video.ClipMemoryTracker;
+import kr.kro.smartcap.smartcap_back.accident.video.ClipMode;
+import kr.kro.smartcap.smartcap_back.accident.video.MjpegAviWriter;
+import kr.kro.smartcap.smartcap_back.accident.video.ParallelFrameDecoder;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.common.storage.ObjectStorage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jcodec.api.awt.AWTSequenceEncoder;
+import org.jcodec.common.model.Rational;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -13,16 +22,14 @@ import org.springframework.stereotype.Service;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,16 +38,22 @@ public class AccidentVideoService {
 
     private final RedisTemplate<String, byte[]> redisTemplate;
     private final AccidentVideoRepository accidentVideoRepository;
-    private final S3Uploader s3Uploader;
+    private final ObjectStorage objectStorage;
+    private final ParallelFrameDecoder parallelFrameDecoder;
+    private final RedisKeyIndex redisKeyIndex;
 
-    @Value("${s3.bucket-name}")
-    private String bucketName;
+    private static final int FPS = 8;
 
-    @Value("${s3.folder}")
+    // 영상 출력 방식 (H264: 작은 파일, 브라우저 재생 / MJPEG: 디코딩/재인코딩 없이 빠른 생성, 내보내기 전용)
+    @Value("${accident.video.mode:H264}")
+    private ClipMode clipMode;
+
+    // 저장소 내 영상 경로 접두사
+    @Value("${s3.folder:}")
     private String s3Folder;
 
     /**
-     * Redis에 저장된 이미지들을 모아 영상 생성, S3 업로드, DB(accident_videos) 기록.
+     * Redis에 저장된 이미지들을 모아 영상 생성, 저장소 업로드, DB(accident_videos) 기록.
      * 이미지 키가 없거나 유효 이미지가 하나도 없으면 null 반환.
      *
      * @param deviceId   디바이스 ID
@@ -48,10 +61,10 @@ public class AccidentVideoService {
      * @return AccidentVideo 엔티티, 없으면 null
      */
     public AccidentVideo createAccidentVideo(int deviceId, Long accidentId) {
-        // 1) Redis에서 이미지 키 조회
+        // 1) Redis에서 이미지 키 조회 (장비가 직접 쓰는 키라 인덱스가 없으므로 SCAN)
         String pattern = "device:" + deviceId + ":image:*";
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (keys == null || keys.isEmpty()) {
+        Set<String> keys = redisKeyIndex.scan(pattern);
+        if (keys.isEmpty()) {
             return null;
         }
 
@@ -59,57 +72,51 @@ public class AccidentVideoService {
         List<String> sortedKeys = new ArrayList<>(keys);
         sortedKeys.sort((k1, k2) -> Long.compare(parseTimestamp(k1), parseTimestamp(k2)));
 
-        // 3) Redis에서 이미지 데이터를 읽어 BufferedImage 목록으로 변환
-        List<BufferedImage> frames = new ArrayList<>();
-        for (String key : sortedKeys) {
-            byte[] imageBytes = redisTemplate.opsForValue().get(key);
-            if (imageBytes == null) continue;
-            try {
-                BufferedImage img = ImageIO.read(new ByteArrayInputStream(imageBytes));
-                if (img != null) {
-                    frames.add(img);
+        // 3) 이미지를 한 장씩 읽어 바로 인코딩 (AWTSequenceEncoder, fps 8)
+        ClipBuffer out = new ClipBuffer();
+        int encoded = 0;
+        try {
+            AWTSequenceEncoder encoder = null;
+            for (String key : sortedKeys) {
+                byte[] imageBytes = redisTemplate.opsForValue().get(key);
+                if (imageBytes == null) continue;
+                BufferedImage img;
+                try {
+                    img = ImageIO.read(new ByteArrayInputStream(imageBytes));
+                } catch (Exception e) {
+                    // Redis 관련 로그는 남기지 않음
+                    continue;
                 }
-            } catch (Exception e) {
-                // Redis 관련 로그는 남기지 않음
-            }
-        }
-        if (frames.isEmpty()) {
-            return null;
-        }
+                if (img == null) continue;
 
-        // 4) 영상 생성: AWTSequenceEncoder 사용 (fps 8)
-        String localVideoPath = "temp_device_" + deviceId + ".mp4";
-        try {
-            File outFile = new File(localVideoPath);
-            AWTSequenceEncoder encoder = AWTSequenceEncoder.createSequenceEncoder(outFile, 8);
-            for (BufferedImage frame : frames) {
-                encoder.encodeImage(frame);
+                if (encoder == null) {
+                    encoder = new AWTSequenceEncoder(out, Rational.R(FPS, 1));
+                }
+                encoder.encodeImage(img);
+                encoded++;
+            }
+            if (encoder != null) {
+                encoder.finish();
             }
-            encoder.finish();
         } catch (Exception e) {
             throw new RuntimeException("Failed to encode video with JCodec", e);
         }
+        if (encoded == 0) {
+            return null;
+        }
 
-        // 5) S3에 영상 파일 업로드
-        String s3Key = s3Folder + "device_" + deviceId + "_" + Instant.now().toEpochMilli() + ".mp4";
-        String s3Url = s3Uploader.uploadFile(new File(localVideoPath), bucketName, s3Key);
-
-        // 6) DB에 AccidentVideo 기록
-        AccidentVideo accidentVideo = new AccidentVideo();
-        accidentVideo.setAccidentId(accidentId);
-        accidentVideo.setVideoUrl(s3Url);
-        AccidentVideo saved = accidentVideoRepository.save(accidentVideo);
-
-        // 7) 임시 영상 파일 삭제
-        new File(localVideoPath).delete();
-
-        return saved;
+        // 4) 저장소에 영상 업로드 후 DB에 AccidentVideo 기록
+        return upload(deviceId, accidentId, out, ClipMode.H264);
     }
 
     /**
-     * Redis에 저장된 압축된 이미지 데이터를 해제하여 영상 생성, S3 업로드, DB(accident_videos) 기록.
+     * Redis에 저장된 압축된 이미지 데이터를 해제하여 영상 생성, 저장소 업로드, DB(accident_videos) 기록.
      * Redis 키가 없거나 유효 이미지가 하나도 없으면 null 반환.
      *
+     * 압축 해제 → 프레임 파싱 → 디코딩 → 인코딩을 스트림으로 이어서 처리하므로 클립 전체를 메모리에 올리지 않는다.
+     * H264 모드에서 한 시점에 메모리에 올라가는 디코딩 프레임은 최대 4 × decode-parallelism + 1 장이다.
+     * (디코딩 중 2 × parallelism, 타임스탬프 재정렬 대기 2 × parallelism + 1, ParallelFrameDecoder 참고)
+     *
      * @param deviceId   디바이스 ID
      * @param accidentId 사고 기록 PK
      * @param redisKey   Redis에 저장된 압축 데이터 키
@@ -123,124 +130,113 @@ public class AccidentVideoService {
             return null;
         }
 
-        // 2) zlib 압축 해제
-        byte[] decompressedData;
-        try {
-            decompressedData = decompressZlib(compressedData);
-        } catch (Exception e) {
-            log.error("Failed to decompress data from Redis: {}", e.getMessage(), e);
-            return null;
-        }
-
-        // 3) 바이너리 데이터 파싱 - 이미 JPEG로 인코딩된 프레임 데이터 추출
-        List<BufferedImage> frames = new ArrayList<>();
-        try {
-            frames = extractFramesFromBinaryData(decompressedData);
+        // 2) 압축 해제하면서 프레임 단위로 영상 생성 (H264: 디코딩 후 재인코딩, MJPEG: 원본 JPEG 그대로)
+        // 영상은 임시 파일 없이 메모리에 만든 뒤 바로 업로드한다
+        ClipBuffer out = new ClipBuffer();
+        ClipMemoryTracker memory = new ClipMemoryTracker();
+        long startedAt = System.nanoTime();
+        int encoded;
+        try (AccidentFrameReader reader = new AccidentFrameReader(
+                new InflaterInputStream(new ByteArrayInputStream(compressedData)))) {
+            log.info("Extracting {} frames from binary data", reader.getFrameCount());
+            encoded = clipMode == ClipMode.MJPEG
+                    ? muxFrames(reader, out, memory)
+                    : encodeFrames(reader, out, memory);
         } catch (Exception e) {
-            log.error("Failed to extract frames from binary data: {}", e.getMessage(), e);
+            log.error("Failed to create video from Redis data: {}", e.getMessage(), e);
             return null;
         }
 
-        if (frames.isEmpty()) {
+        if (encoded == 0) {
             log.warn("No valid frames extracted from Redis data");
             return null;
         }
+        log.info("Created {} video with {} frames for device {} in {} ms (compressed input {} KB, video {} KB, peak frame memory {} KB)",
+                clipMode, encoded, deviceId, (System.nanoTime() - startedAt) / 1_000_000,
+                compressedData.length / 1024, out.size() / 1024, memory.getPeakBytes() / 1024);
+
+        // 3) 저장소에 영상 업로드 후 DB에 AccidentVideo 기록
+        return upload(deviceId, accidentId, out, clipMode);
+    }
 
-        // 4) 영상 생성: AWTSequenceEncoder 사용 (fps 8)
-        String localVideoPath = "temp_device_" + deviceId + ".mp4";
+    /**
+     * 완성된 영상을 저장소에 올리고 accident_videos 에 기록한다.
+     * 업로드 실패는 예외로 던져 영상 작업이 재시도되도록 한다.
+     */
+    private AccidentVideo upload(int deviceId, Long accidentId, ClipBuffer clip, ClipMode mode) {
+        // 같은 기기의 사고가 동시에 처리되어도 겹치지 않도록 사고 ID 를 포함
+        String key = s3Folder + "device_" + deviceId + "_" + accidentId + "_" + Instant.now().toEpochMilli()
+                + mode.getExtension();
+        String videoUrl;
         try {
-            File outFile = new File(localVideoPath);
-            AWTSequenceEncoder encoder = AWTSequenceEncoder.createSequenceEncoder(outFile, 8);
-            for (BufferedImage frame : frames) {
-                encoder.encodeImage(frame);
-            }
-            encoder.finish();
-            log.info("Created video with {} frames for device {}", frames.size(), deviceId);
-        } catch (Exception e) {
-            log.error("Failed to encode video with JCodec: {}", e.getMessage(), e);
-            return null;
+            videoUrl = objectStorage.put(key, clip.contents(), mode.getContentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to upload accident video: " + key, e);
         }
+        log.info("Uploaded video: {}", videoUrl);
 
-        // 5) S3에 영상 파일 업로드
-        String s3Key = s3Folder + "device_" + deviceId + "_" + Instant.now().toEpochMilli() + ".mp4";
-        String s3Url = s3Uploader.uploadFile(new File(localVideoPath), bucketName, s3Key);
-
-        log.info("Uploaded video to S3: {}", s3Url);
-
-        // 6) DB에 AccidentVideo 기록
         AccidentVideo accidentVideo = new AccidentVideo();
         accidentVideo.setAccidentId(accidentId);
-        accidentVideo.setVideoUrl(s3Url);
-        AccidentVideo saved = accidentVideoRepository.save(accidentVideo);
-
-        // 7) 임시 영상 파일 삭제
-        new File(localVideoPath).delete();
-
-        return saved;
+        accidentVideo.setVideoUrl(videoUrl);
+        return accidentVideoRepository.save(accidentVideo);
     }
 
     /**
-     * zlib으로 압축된 데이터 해제
+     * 프레임을 병렬로 JPEG 디코딩하고, 타임스탬프 순으로 인코더에 넘긴다.
+     *
+     * @return 인코딩된 프레임 수
      */
-    private byte[] decompressZlib(byte[] compressedData) throws DataFormatException {
-        Inflater inflater = new Inflater();
-        inflater.setInput(compressedData);
-
-        // 충분히 큰 버퍼 할당 (필요에 따라 조정)
-        byte[] buffer = new byte[100 * 1024 * 1024]; // 100MB
-        int decompressedLength = inflater.inflate(buffer);
-        inflater.end();
+    private int encodeFrames(AccidentFrameReader reader, ClipBuffer out, ClipMemoryTracker memory) throws IOException {
+        AWTSequenceEncoder[] encoder = new AWTSequenceEncoder[1];
+        int encoded = parallelFrameDecoder.decode(reader, memory, (frame, img) -> {
+            if (encoder[0] == null) {
+                encoder[0] = new AWTSequenceEncoder(out, Rational.R(FPS, 1));
+            }
+            encoder[0].encodeImage(img);
+        });
 
-        // 실제 크기에 맞게 배열 복사
-        byte[] result = new byte[decompressedLength];
-        System.arraycopy(buffer, 0, result, 0, decompressedLength);
-        return result;
+        if (encoder[0] != null) {
+            encoder[0].finish();
+        }
+        log.info("Successfully extracted {} frames out of {}", encoded, reader.getFrameCount());
+        return encoded;
     }
 
     /**
-     * 바이너리 데이터에서 프레임 추출
-     * 형식:
-     * - 4바이트: 프레임 수
-     * - 각 프레임마다:
-     *   - 8바이트: 타임스탬프
-     *   - 4바이트: 프레임 데이터 크기
-     *   - N바이트: JPEG 인코딩된 프레임 데이터
+     * 프레임을 디코딩하지 않고 원본 JPEG 그대로 MJPEG AVI 에 담는다.
+     * H264 경로와 같은 크기의 재정렬 대기열로 타임스탬프 순서를 바로잡는다.
+     *
+     * @return 기록된 프레임 수
      */
-    private List<BufferedImage> extractFramesFromBinaryData(byte[] data) throws IOException {
-        List<BufferedImage> frames = new ArrayList<>();
-        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
-
-        // 프레임 수 읽기
-        int frameCount = buffer.getInt();
-        log.info("Extracting {} frames from binary data", frameCount);
-
-        // 각 프레임 처리
-        for (int i = 0; i < frameCount; i++) {
-            try {
-                // 타임스탬프 읽기 (8바이트)
-                long timestamp = buffer.getLong();
-
-                // 프레임 크기 읽기 (4바이트)
-                int frameSize = buffer.getInt();
-
-                // 프레임 데이터 읽기
-                byte[] frameData = new byte[frameSize];
-                buffer.get(frameData);
-
-                // JPEG 이미지로 디코딩
-                BufferedImage img = ImageIO.read(new ByteArrayInputStream(frameData));
-                if (img != null) {
-                    frames.add(img);
-                } else {
-                    log.warn("Failed to decode frame #{}: null image returned", i);
+    private int muxFrames(AccidentFrameReader reader, ClipBuffer out, ClipMemoryTracker memory) throws IOException {
+        int window = parallelFrameDecoder.getReorderWindow();
+        PriorityQueue<AccidentFrame> reorder = new PriorityQueue<>(window + 1, AccidentFrame.PLAYBACK_ORDER);
+        try (MjpegAviWriter writer = new MjpegAviWriter(out, FPS)) {
+            AccidentFrame frame;
+            while ((frame = reader.next()) != null) {
+                memory.acquire(frame.size());
+                reorder.add(frame);
+                if (reorder.size() > window) {
+                    writeFrame(writer, reorder.poll(), memory);
                 }
-            } catch (Exception e) {
-                log.warn("Error processing frame #{}: {}", i, e.getMessage());
             }
+            while (!reorder.isEmpty()) {
+                writeFrame(writer, reorder.poll(), memory);
+            }
+            writer.finish();
+            log.info("Successfully extracted {} frames out of {}", writer.getFrameCount(), reader.getFrameCount());
+            return writer.getFrameCount();
         }
+    }
 
-        log.info("Successfully extracted {} frames out of {}", frames.size(), frameCount);
-        return frames;
+    private void writeFrame(MjpegAviWriter writer, AccidentFrame frame, ClipMemoryTracker memory) throws IOException {
+        try {
+            if (!writer.writeFrame(frame.getJpeg())) {
+                log.warn("Skipping frame #{}: not a valid JPEG", frame.getIndex());
+            }
+        } finally {
+            memory.release(frame.size());
+        }
     }
 
     /**
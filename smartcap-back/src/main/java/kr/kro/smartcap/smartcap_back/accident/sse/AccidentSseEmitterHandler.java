@@ -107,6 +107,45 @@ public class AccidentSseEmitterHandler {
         }
     }
 
+    /**
+     * 사고 영상 생성 완료 알림 (accident 이벤트 이후 별도로 전송)
+     */
+    public void sendAccidentVideoReady(AccidentVideo video) {
+        if (emitters.isEmpty()) {
+            logger.info("No active SSE connections to notify for accident video");
+            return;
+        }
+
+        try {
+            Map<String, Object> response = new ConcurrentHashMap<>();
+            response.put("accident_id", video.getAccidentId());
+            response.put("accident_video_id", video.getAccidentVideoId());
+            response.put("video_url", video.getVideoUrl());
+            String videoJson = objectMapper.writeValueAsString(response);
+
+            int successCount = 0;
+            for (Map.Entry<String, SseEmitter> entry : emitters.entrySet()) {
+                String clientId = entry.getKey();
+                SseEmitter emitter = entry.getValue();
+
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("accident_video_ready")
+                            .data(videoJson, MediaType.APPLICATION_JSON));
+                    successCount++;
+                } catch (IOException e) {
+                    logger.error("Error sending accident video notification to client {}: {}", clientId, e.getMessage());
+                    emitter.complete();
+                    emitters.remove(clientId);
+                }
+            }
+
+            logger.info("Accident video notification sent to {}/{} clients", successCount, emitters.size());
+        } catch (Exception e) {
+            logger.error("Error preparing accident video notification: {}", e.getMessage(), e);
+        }
+    }
+
     // 사고 엔티티를 프론트엔드에 적합한 응답 형식으로 변환
     private Map<String, Object> convertToResponse(AccidentHistory accident, AccidentVideo video) {
         Map<String, Object> response = new ConcurrentHashMap<>();
@@ -162,9 +201,11 @@ public class AccidentSseEmitterHandler {
         if (video != null) {
             response.put("accident_video_id", video.getAccidentVideoId());
             response.put("video_url", video.getVideoUrl());
+            response.put("video_status", "ready");
         } else {
-            // 비디오 없을 경우 더미 URL 제공
+            // 비디오 생성 전이면 더미 URL 제공 (생성 완료 시 accident_video_ready 이벤트로 전달)
             response.put("video_url", "https://example.com/no-video-available.mp4");
+            response.put("video_status", "pending");
         }
 
         // 하드코딩된 추가 데이터
@@ -0,0 +1,33 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * 사고 영상 원본 프레임 (JPEG 인코딩 상태 그대로)
+ */
+@Getter
+public class AccidentFrame {
+
+    /**
+     * 재생 순서 (촬영 시각, 같으면 전송 순서)
+     */
+    public static final Comparator<AccidentFrame> PLAYBACK_ORDER = Comparator
+            .comparingLong(AccidentFrame::getTimestamp)
+            .thenComparingInt(AccidentFrame::getIndex);
+
+    private final int index;        // 전송 순서
+    private final long timestamp;   // 촬영 시각
+    private final byte[] jpeg;      // JPEG 바이트
+
+    public AccidentFrame(int index, long timestamp, byte[] jpeg) {
+        this.index = index;
+        this.timestamp = timestamp;
+        this.jpeg = jpeg;
+    }
+
+    public int size() {
+        return jpeg.length;
+    }
+}
@@ -0,0 +1,78 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 압축 해제 스트림에서 프레임을 하나씩 읽는다. (전체 데이터를 메모리에 풀어두지 않음)
+ * 형식 (little endian):
+ * - 4바이트: 프레임 수
+ * - 각 프레임마다:
+ *   - 8바이트: 타임스탬프
+ *   - 4바이트: 프레임 데이터 크기
+ *   - N바이트: JPEG 인코딩된 프레임 데이터
+ */
+@Slf4j
+public class AccidentFrameReader implements Closeable {
+
+    // 비정상 헤더로 거대한 배열을 할당하지 않도록 프레임 크기 상한
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    private final DataInputStream in;
+    private final byte[] header = new byte[12];
+    private final int frameCount;
+    private int readCount = 0;
+
+    public AccidentFrameReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] countBytes = new byte[4];
+        this.in.readFully(countBytes);
+        this.frameCount = ByteBuffer.wrap(countBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (frameCount < 0) {
+            throw new IOException("Invalid frame count: " + frameCount);
+        }
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 다음 프레임. 모두 읽었거나 데이터가 중간에 끝나면 null.
+     */
+    public AccidentFrame next() throws IOException {
+        if (readCount >= frameCount) {
+            return null;
+        }
+
+        try {
+            in.readFully(header);
+            ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            long timestamp = buffer.getLong();
+            int frameSize = buffer.getInt();
+            if (frameSize < 0 || frameSize > MAX_FRAME_BYTES) {
+                throw new IOException("Invalid size " + frameSize + " for frame #" + readCount);
+            }
+
+            byte[] jpeg = new byte[frameSize];
+            in.readFully(jpeg);
+            return new AccidentFrame(readCount++, timestamp, jpeg);
+        } catch (EOFException e) {
+            log.warn("Frame data ended early: read {} of {} frames", readCount, frameCount);
+            readCount = frameCount;
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,110 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import org.jcodec.common.io.SeekableByteChannel;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+
+/**
+ * 영상 인코더 출력용 메모리 채널
+ * MP4/AVI 작성기는 마지막에 헤더를 고쳐 쓰기 위해 앞으로 되돌아가므로 임시 파일 대신 위치 이동이 가능한 버퍼를 쓴다.
+ * 기기별 임시 파일을 공유하지 않으므로 같은 기기의 영상이 동시에 만들어져도 섞이지 않는다.
+ * 같은 이유로 인코딩 중에 저장소로 흘려 보내지 않고, 완성된 뒤 contents() 로 한 번에 업로드한다.
+ * 영상 1개의 크기는 프레임 수(수십~수백 장)에 비례하는 수 MB 수준이라 메모리에 두어도 부담이 작다.
+ */
+public class ClipBuffer implements SeekableByteChannel {
+
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    private int position = 0;
+    private boolean open = true;
+
+    @Override
+    public int read(ByteBuffer dst) throws ClosedChannelException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        int length = Math.min(dst.remaining(), size - position);
+        dst.put(data, position, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws ClosedChannelException {
+        ensureOpen();
+        int length = src.remaining();
+        ensureCapacity(position + length);
+        src.get(data, position, length);
+        position += length;
+        size = Math.max(size, position);
+        return length;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public ClipBuffer setPosition(long newPosition) {
+        if (newPosition < 0 || newPosition > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid position: " + newPosition);
+        }
+        position = (int) newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public ClipBuffer truncate(long newSize) {
+        if (newSize < size) {
+            size = (int) Math.max(0, newSize);
+            position = Math.min(position, size);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * 닫아도 내용은 남는다. (인코더가 채널을 닫은 뒤 업로드에 사용)
+     */
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    /**
+     * 지금까지 쓴 내용 (복사 없이 내부 배열을 감싼다)
+     */
+    public ByteBuffer contents() {
+        return ByteBuffer.wrap(data, 0, size).asReadOnlyBuffer();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required < 0) {
+            throw new IllegalStateException("Clip exceeds 2 GB");
+        }
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 영상 1건 생성 중 프레임 데이터(JPEG 바이트 + 디코딩된 이미지)가 차지하는 메모리 추적
+ */
+public class ClipMemoryTracker {
+
+    private final AtomicLong current = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+
+    public void acquire(long bytes) {
+        long now = current.addAndGet(bytes);
+        peak.accumulateAndGet(now, Math::max);
+    }
+
+    public void release(long bytes) {
+        current.addAndGet(-bytes);
+    }
+
+    public long getPeakBytes() {
+        return peak.get();
+    }
+
+    /**
+     * 디코딩된 이미지의 픽셀 버퍼 크기
+     */
+    public static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
@@ -0,0 +1,29 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+/**
+ * 사고 영상 출력 방식 (accident.video.mode)
+ *
+ * 브라우저 video 태그는 Motion-JPEG 을 어떤 컨테이너로도 재생하지 못하므로
+ * 지도 상세 모달에서 바로 재생되는 것은 H264 뿐이다. MJPEG 은 내보내기 전용으로,
+ * 프론트엔드는 .avi 영상을 재생 대신 다운로드 링크로 보여준다.
+ */
+public enum ClipMode {
+    H264(".mp4", "video/mp4"),          // JPEG 디코딩 후 H.264 재인코딩 (파일 작음, 느림, 브라우저 재생 가능)
+    MJPEG(".avi", "video/x-msvideo");   // 원본 JPEG 그대로 AVI 에 담음 (디코딩 없음, 빠름, 내보내기 전용)
+
+    private final String extension;
+    private final String contentType;
+
+    ClipMode(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
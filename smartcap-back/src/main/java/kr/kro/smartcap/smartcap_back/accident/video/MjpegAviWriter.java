@@ -0,0 +1,221 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import org.jcodec.common.io.SeekableByteChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JPEG 프레임을 디코딩 없이 그대로 담는 MJPEG AVI 작성기
+ *
+ * 파일 구조:
+ * RIFF 'AVI '
+ *   LIST 'hdrl' (avih, LIST 'strl' (strh, strf))
+ *   LIST 'movi' ('00dc' 프레임...)
+ *   idx1
+ *
+ * 헤더 값(크기, 프레임 수)은 마지막에 알 수 있으므로 자리만 비워두고 finish() 에서 채운다.
+ */
+public class MjpegAviWriter implements Closeable {
+
+    private static final int AVIF_HASINDEX = 0x10;
+    private static final int AVIIF_KEYFRAME = 0x10;
+
+    private static final int HDRL_SIZE = 4 + (8 + 56) + (8 + 4 + (8 + 56) + (8 + 40));
+    private static final int HEADER_SIZE = 12 + (8 + HDRL_SIZE) + 12;
+    // idx1 오프셋 기준: 'movi' fourcc 위치
+    private static final int MOVI_FOURCC_OFFSET = HEADER_SIZE - 4;
+
+    private final SeekableByteChannel channel;
+    private final int fps;
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+    private final ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long position = HEADER_SIZE;
+    private int frameCount = 0;
+    private int maxFrameSize = 0;
+    private int width = 0;
+    private int height = 0;
+    private boolean finished = false;
+
+    public MjpegAviWriter(SeekableByteChannel channel, int fps) throws IOException {
+        this.channel = channel;
+        this.fps = fps;
+        channel.setPosition(HEADER_SIZE);
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * JPEG 프레임 1장 추가. JPEG 가 아니거나 크기를 읽을 수 없으면 false.
+     */
+    public boolean writeFrame(byte[] jpeg) throws IOException {
+        int[] size = readJpegSize(jpeg);
+        if (size == null) {
+            return false;
+        }
+        if (frameCount == 0) {
+            width = size[0];
+            height = size[1];
+        }
+
+        long chunkOffset = position;
+        chunkHeader.clear();
+        chunkHeader.put(fourcc("00dc")).putInt(jpeg.length).flip();
+        writeFully(chunkHeader);
+        writeFully(ByteBuffer.wrap(jpeg));
+        position += 8 + jpeg.length;
+        if ((jpeg.length & 1) == 1) {
+            // RIFF 청크는 짝수 길이로 맞춘다
+            writeFully(ByteBuffer.wrap(new byte[1]));
+            position++;
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        entry.put(fourcc("00dc"))
+                .putInt(AVIIF_KEYFRAME)
+                .putInt((int) (chunkOffset - MOVI_FOURCC_OFFSET))
+                .putInt(jpeg.length);
+        index.write(entry.array());
+
+        frameCount++;
+        maxFrameSize = Math.max(maxFrameSize, jpeg.length);
+        return true;
+    }
+
+    /**
+     * 인덱스(idx1)를 쓰고 헤더를 채운다.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        long moviEnd = position;
+        ByteBuffer idxHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        idxHeader.put(fourcc("idx1")).putInt(index.size()).flip();
+        writeFully(idxHeader);
+        writeFully(ByteBuffer.wrap(index.toByteArray()));
+        long fileEnd = moviEnd + 8 + index.size();
+
+        channel.setPosition(0);
+        writeFully(buildHeader(fileEnd, moviEnd));
+    }
+
+    private ByteBuffer buildHeader(long fileEnd, long moviEnd) {
+        int microSecPerFrame = 1_000_000 / fps;
+        ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        b.put(fourcc("RIFF")).putInt((int) (fileEnd - 8)).put(fourcc("AVI "));
+        b.put(fourcc("LIST")).putInt(HDRL_SIZE).put(fourcc("hdrl"));
+
+        // avih (MainAVIHeader)
+        b.put(fourcc("avih")).putInt(56);
+        b.putInt(microSecPerFrame);
+        b.putInt(maxFrameSize * fps);      // dwMaxBytesPerSec
+        b.putInt(0);                       // dwPaddingGranularity
+        b.putInt(AVIF_HASINDEX);
+        b.putInt(frameCount);              // dwTotalFrames
+        b.putInt(0);                       // dwInitialFrames
+        b.putInt(1);                       // dwStreams
+        b.putInt(maxFrameSize);            // dwSuggestedBufferSize
+        b.putInt(width).putInt(height);
+        b.putInt(0).putInt(0).putInt(0).putInt(0);
+
+        b.put(fourcc("LIST")).putInt(4 + (8 + 56) + (8 + 40)).put(fourcc("strl"));
+
+        // strh (AVIStreamHeader)
+        b.put(fourcc("strh")).putInt(56);
+        b.put(fourcc("vids")).put(fourcc("MJPG"));
+        b.putInt(0);                       // dwFlags
+        b.putShort((short) 0).putShort((short) 0);
+        b.putInt(0);                       // dwInitialFrames
+        b.putInt(1).putInt(fps);           // dwScale, dwRate
+        b.putInt(0);                       // dwStart
+        b.putInt(frameCount);              // dwLength
+        b.putInt(maxFrameSize);            // dwSuggestedBufferSize
+        b.putInt(-1);                      // dwQuality
+        b.putInt(0);                       // dwSampleSize
+        b.putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height);
+
+        // strf (BITMAPINFOHEADER)
+        b.put(fourcc("strf")).putInt(40);
+        b.putInt(40);
+        b.putInt(width).putInt(height);
+        b.putShort((short) 1).putShort((short) 24);
+        b.put(fourcc("MJPG"));
+        b.putInt(width * height * 3);
+        b.putInt(0).putInt(0).putInt(0).putInt(0);
+
+        b.put(fourcc("LIST")).putInt((int) (moviEnd - MOVI_FOURCC_OFFSET)).put(fourcc("movi"));
+
+        b.flip();
+        return b;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static byte[] fourcc(String code) {
+        return code.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * JPEG SOF 마커에서 가로/세로 크기를 읽는다. JPEG 가 아니면 null.
+     */
+    static int[] readJpegSize(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return null;
+        }
+
+        int i = 2;
+        while (i + 4 <= jpeg.length) {
+            if ((jpeg[i] & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = jpeg[i + 1] & 0xFF;
+            if (marker == 0xFF) {
+                // 채움 바이트
+                i++;
+                continue;
+            }
+            if (marker == 0xD8 || (marker >= 0xD0 && marker <= 0xD7) || marker == 0x01) {
+                i += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // SOF 보다 스캔이 먼저 나오면 잘못된 JPEG
+                return null;
+            }
+
+            int length = ((jpeg[i + 2] & 0xFF) << 8) | (jpeg[i + 3] & 0xFF);
+            boolean sof = marker >= 0xC0 && marker <= 0xCF
+                    && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (sof) {
+                if (i + 9 > jpeg.length) {
+                    return null;
+                }
+                int height = ((jpeg[i + 5] & 0xFF) << 8) | (jpeg[i + 6] & 0xFF);
+                int width = ((jpeg[i + 7] & 0xFF) << 8) | (jpeg[i + 8] & 0xFF);
+                return width > 0 && height > 0 ? new int[]{width, height} : null;
+            }
+            i += 2 + length;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JPEG 프레임 병렬 디코더
+ * - 전용 스레드 풀(parallelism 개)에서 디코딩하므로 영상 작업이 적재 스레드를 잠식하지 않는다.
+ * - 디코딩 결과는 타임스탬프 순으로 다시 정렬한 뒤 sink 로 넘긴다.
+ * - 동시에 메모리에 올라가는 디코딩 프레임은 디코딩 중 window(2 × parallelism) 장과
+ *   재정렬 대기 window + 1 장을 합쳐 최대 2 × window + 1 장이다.
+ */
+@Slf4j
+public class ParallelFrameDecoder implements AutoCloseable {
+
+    /**
+     * 디코딩된 프레임을 받는 쪽 (인코더)
+     */
+    @FunctionalInterface
+    public interface FrameSink {
+        void accept(AccidentFrame frame, BufferedImage image) throws IOException;
+    }
+
+    private static final Comparator<Decoded> ORDER =
+            Comparator.comparing((Decoded d) -> d.frame, AccidentFrame.PLAYBACK_ORDER);
+
+    private final int parallelism;
+    private final int window;
+    private final ExecutorService pool;
+
+    public ParallelFrameDecoder(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        // 작업자마다 2장씩 미리 디코딩 (앞 프레임이 늦게 끝나도 작업자가 놀지 않도록)
+        this.window = this.parallelism * 2;
+        this.pool = Executors.newFixedThreadPool(this.parallelism, new DecodeThreadFactory());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 재정렬 대기열 크기. 다른 출력 방식(MJPEG)도 같은 거리만큼 순서를 바로잡도록 공유한다.
+     */
+    public int getReorderWindow() {
+        return window;
+    }
+
+    /**
+     * reader 의 프레임을 모두 디코딩해 타임스탬프 순으로 sink 에 전달한다.
+     * 디코딩에 실패한 프레임은 건너뛴다.
+     *
+     * @return sink 로 전달된 프레임 수
+     */
+    public int decode(AccidentFrameReader reader, ClipMemoryTracker memory, FrameSink sink) throws IOException {
+        Deque<Future<Decoded>> inFlight = new ArrayDeque<>(window);
+        PriorityQueue<Decoded> reorder = new PriorityQueue<>(window + 1, ORDER);
+        int delivered = 0;
+
+        try {
+            AccidentFrame frame;
+            while ((frame = reader.next()) != null) {
+                memory.acquire(frame.size());
+                AccidentFrame submitted = frame;
+                inFlight.addLast(pool.submit(() -> decodeFrame(submitted, memory)));
+
+                if (inFlight.size() >= window) {
+                    reorder.add(await(inFlight.removeFirst()));
+                }
+                // 전송 순서가 조금 어긋난 프레임은 window 안에서 바로잡힌다
+                if (reorder.size() > window) {
+                    delivered += deliver(reorder.poll(), memory, sink);
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                reorder.add(await(inFlight.removeFirst()));
+            }
+            while (!reorder.isEmpty()) {
+                delivered += deliver(reorder.poll(), memory, sink);
+            }
+            return delivered;
+        } finally {
+            // 인코딩 실패 등으로 중단된 경우 남은 디코딩 작업 정리
+            for (Future<Decoded> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Decoded decodeFrame(AccidentFrame frame, ClipMemoryTracker memory) {
+        try {
+            // ImageIO 기본 설정은 스트림을 임시 파일에 캐시하므로 메모리 캐시를 직접 지정
+            BufferedImage image = ImageIO.read(
+                    new MemoryCacheImageInputStream(new ByteArrayInputStream(frame.getJpeg())));
+            if (image == null) {
+                log.warn("Failed to decode frame #{}: null image returned", frame.getIndex());
+                return new Decoded(frame, null, 0);
+            }
+            long imageBytes = ClipMemoryTracker.sizeOf(image);
+            memory.acquire(imageBytes);
+            return new Decoded(frame, image, imageBytes);
+        } catch (IOException e) {
+            log.warn("Error processing frame #{}: {}", frame.getIndex(), e.getMessage());
+            return new Decoded(frame, null, 0);
+        }
+    }
+
+    private int deliver(Decoded decoded, ClipMemoryTracker memory, FrameSink sink) throws IOException {
+        try {
+            if (decoded.image == null) {
+                return 0;
+            }
+            sink.accept(decoded.frame, decoded.image);
+            return 1;
+        } finally {
+            memory.release(decoded.imageBytes);
+            memory.release(decoded.frame.size());
+        }
+    }
+
+    private Decoded await(Future<Decoded> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding frames", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Frame decoding failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static class Decoded {
+        private final AccidentFrame frame;
+        private final BufferedImage image;
+        private final long imageBytes;
+
+        private Decoded(AccidentFrame frame, BufferedImage image, long imageBytes) {
+            this.frame = frame;
+            this.image = image;
+            this.imageBytes = imageBytes;
+        }
+    }
+
+    private static class DecodeThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "accident-frame-decode-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package kr.kro.smartcap.smartcap_back.alarm.controller;
 
 import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryDto;
-import kr.kro.smartcap.smartcap_back.alarm.entity.AlarmHistory;
 import kr.kro.smartcap.smartcap_back.alarm.service.AlarmProcessingService;
-import kr.kro.smartcap.smartcap_back.common.util.AlarmCategoryMapper;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestPipeline;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 public class AlarmController {
 
     private final AlarmProcessingService alarmProcessingService;
+    private final IngestPipeline ingestPipeline;
 
     @PostMapping("/{deviceId}/notify")
     public ResponseEntity<?> notifyAlarm(
@@ -23,17 +22,21 @@ public class AlarmController {
             @RequestBody AlarmHistoryDto dto
     ) {
         try {
-            String alarmType = AlarmCategoryMapper.map(dto.getAlarmType()).getCode();
-            if(alarmType.equals("3")||alarmType.equals("-1")){
+            // 검증 후 적재 파이프라인에 등록만 하고 바로 응답 (저장/통계/SSE 는 비동기 처리)
+            boolean accepted = ingestPipeline.submit(alarmProcessingService.createIngestEvent(deviceId, dto));
+            if (!accepted) {
                 return ResponseEntity
-                        .badRequest()
-                        .body("Invalid data received");
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Alarm queue is full, retry later");
             }
-            alarmProcessingService.processAlarm(deviceId, dto);
 
-            return ResponseEntity.ok("Accident data saved successfully");
+            return ResponseEntity.accepted().body("Alarm data accepted");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body("Invalid data received");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to process alarm: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
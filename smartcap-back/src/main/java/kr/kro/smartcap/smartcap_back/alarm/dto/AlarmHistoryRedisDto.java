@@ -5,6 +5,8 @@ import java.sql.Timestamp;
 
 @Data
 public class AlarmHistoryRedisDto {
+    // 적재 시 발급한 이벤트 ID (자정 적재 시 alarm_history.alarm_id 로 그대로 저장, 이전 데이터는 null)
+    private Long alarmId;
     private Long constructionSitesId;
     private String alarmType;
     private String recognizedType;
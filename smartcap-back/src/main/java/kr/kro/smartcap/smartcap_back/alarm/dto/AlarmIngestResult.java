@@ -0,0 +1,18 @@
+package kr.kro.smartcap.smartcap_back.alarm.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 알람 적재 스크립트 실행 결과 (보강된 값 + 추가된 리스트 위치)
+ */
+@Getter
+@Builder
+public class AlarmIngestResult {
+    private String weather;
+    private double lat;
+    private double lng;
+    private boolean gpsFound;
+    private String listKey;      // 알람을 추가한 리스트 키
+    private long listLength;     // 추가 후 리스트 길이 (추가한 알람 위치 = listLength - 1)
+}
@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.alarm.dto;
+
+import java.sql.Timestamp;
+
+/**
+ * 지도 화면용 알람 조회 결과 (엔티티 대신 필요한 컬럼만 조회)
+ */
+public interface AlarmMapRow {
+    Long getAlarmId();
+    Long getConstructionSitesId();
+    String getAlarmType();
+    String getRecognizedType();
+    String getWeather();
+    Timestamp getCreatedAt();
+    Double getLng();             // GPS 없으면 null
+    Double getLat();
+}
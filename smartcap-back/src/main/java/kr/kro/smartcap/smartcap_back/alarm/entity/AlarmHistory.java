@@ -5,6 +5,7 @@ import kr.kro.smartcap.smartcap_back.accident.entity.PointType;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
 import org.locationtech.jts.geom.Point;
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -13,10 +14,10 @@ import java.time.Instant;
 @Setter
 @Entity
 @Table(name = "alarm_history")
-public class AlarmHistory {
+public class AlarmHistory implements Persistable<Long> {
 
+    // 적재 시 EventIdAllocator 로 발급한 ID (DB 에서 생성하지 않음)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "alarm_id")
     private Long alarmId;
 
@@ -39,6 +40,26 @@ public class AlarmHistory {
     @Column(name = "created_at", nullable = false)
     private Timestamp createdAt;
 
+    // ID 를 직접 넣으므로 save() 가 SELECT 후 merge 하지 않고 바로 INSERT 하도록 새 행 여부를 따로 관리
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return alarmId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
     @PrePersist
     public void onPrePersist() {
         if (createdAt == null) {
@@ -1,10 +1,15 @@
 package kr.kro.smartcap.smartcap_back.alarm.repository;
 
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmMapRow;
 import kr.kro.smartcap.smartcap_back.alarm.entity.AlarmHistory;
+import kr.kro.smartcap.smartcap_back.event.dto.MapCellRow;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBucketRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,9 +30,91 @@ public interface AlarmHistoryRepository extends JpaRepository<AlarmHistory, Long
     @Query("SELECT MIN(a.createdAt) FROM AlarmHistory a")
     Optional<LocalDateTime> findEarliestCreatedAt();
 
+    @Query("SELECT COALESCE(MAX(a.alarmId), 0) FROM AlarmHistory a")
+    long findMaxAlarmId();
+
+    // 자정 적재 재실행 시 이미 저장된 행 건너뛰기
+    @Query("SELECT a.alarmId FROM AlarmHistory a WHERE a.alarmId IN :ids")
+    List<Long> findExistingAlarmIds(Collection<Long> ids);
+
+    /**
+     * 통계 재생성: [since, until) 기간을 unit(hour, day, month) 단위로 자른 구간별, 종류별 건수
+     */
+    @Query(value = """
+    SELECT date_trunc(:unit, a.created_at) AS bucket,
+           a.recognized_type AS recognizedType,
+           a.alarm_type AS alarmType,
+           COUNT(*) AS cnt
+    FROM alarm_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+    GROUP BY 1, 2, 3
+""", nativeQuery = true)
+    List<StatBucketRow> aggregateStatBuckets(String unit, Timestamp since, Timestamp until);
+
+    /**
+     * 기간별 통계 조회: aggregateStatBuckets 와 같고 현장 하나만 (unit 에 minute 포함)
+     */
+    @Query(value = """
+    SELECT date_trunc(:unit, a.created_at) AS bucket,
+           a.recognized_type AS recognizedType,
+           a.alarm_type AS alarmType,
+           COUNT(*) AS cnt
+    FROM alarm_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND a.construction_sites_id = :siteId
+    GROUP BY 1, 2, 3
+""", nativeQuery = true)
+    List<StatBucketRow> aggregateSiteStatBuckets(String unit, Timestamp since, Timestamp until, Long siteId);
+
     @Query("""
     SELECT a FROM AlarmHistory a
     WHERE a.createdAt >= :sevenDaysAgo
 """)
     List<AlarmHistory> findAllFromLast7Days(LocalDateTime sevenDaysAgo);
-}
\ No newline at end of file
+
+    /**
+     * 지도용 알람 목록 ([since, until) 기간, 영역(envelope) 안, 최신순, (createdAt, alarmId) 기준 키셋 페이지)
+     */
+    @Query(value = """
+    SELECT a.alarm_id AS alarmId,
+           a.construction_sites_id AS constructionSitesId,
+           a.alarm_type AS alarmType,
+           a.recognized_type AS recognizedType,
+           a.weather AS weather,
+           a.created_at AS createdAt,
+           ST_X(a.gps) AS lng,
+           ST_Y(a.gps) AS lat
+    FROM alarm_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND (a.created_at, a.alarm_id) < (:afterAt, :afterId)
+      AND a.gps && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+    ORDER BY a.created_at DESC, a.alarm_id DESC
+    LIMIT :limit
+""", nativeQuery = true)
+    List<AlarmMapRow> findMapRows(Timestamp since, Timestamp until, Timestamp afterAt, long afterId,
+                                   double minLng, double minLat, double maxLng, double maxLat, int limit);
+
+    /**
+     * 지도 격자 집계 (날짜 x cell 도 단위 격자 칸 x 종류별 건수)
+     */
+    @Query(value = """
+    SELECT CAST(a.created_at AS date) AS day,
+           CAST(floor(ST_X(a.gps) / :cell) AS bigint) AS cellX,
+           CAST(floor(ST_Y(a.gps) / :cell) AS bigint) AS cellY,
+           a.alarm_type AS alarmType,
+           a.recognized_type AS recognizedType,
+           COUNT(*) AS cnt,
+           SUM(ST_X(a.gps)) AS sumLng,
+           SUM(ST_Y(a.gps)) AS sumLat
+    FROM alarm_history a
+    WHERE a.created_at >= :since
+      AND a.created_at < :until
+      AND a.gps && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+    GROUP BY 1, 2, 3, 4, 5
+""", nativeQuery = true)
+    List<MapCellRow> aggregateMapCells(Timestamp since, Timestamp until, double cell,
+                                       double minLng, double minLat, double maxLng, double maxLat);
+}
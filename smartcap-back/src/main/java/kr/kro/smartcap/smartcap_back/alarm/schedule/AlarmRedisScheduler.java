@@ -3,6 +3,14 @@ package kr.kro.smartcap.smartcap_back.alarm.schedule;
 import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
 import kr.kro.smartcap.smartcap_back.alarm.entity.AlarmHistory;
 import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import kr.kro.smartcap.smartcap_back.common.codec.RedisEventCodec;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.service.MapClusterService;
+import kr.kro.smartcap.smartcap_back.event.service.MapSnapshot;
+import kr.kro.smartcap.smartcap_back.event.service.StatRangeService;
+import kr.kro.smartcap.smartcap_back.ingest.id.EventIdAllocator;
+import kr.kro.smartcap.smartcap_back.stats.service.StatRollupService;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -10,12 +18,15 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -23,56 +34,110 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class AlarmRedisScheduler {
 
-    private final RedisTemplate<String, Object> objectRedisTemplate;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
     private final AlarmHistoryRepository alarmHistoryRepository;
+    private final MapClusterService mapClusterService;
+    private final MapSnapshot mapSnapshot;
+    private final StatRangeService statRangeService;
+    private final EventIdAllocator eventIdAllocator;
+    private final StatRollupService statRollupService;
 
     private static final Logger logger = LoggerFactory.getLogger(AlarmRedisScheduler.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // IN 절 바인드 변수 수 제한(32767) 아래로 나눠 조회
+    private static final int EXISTING_ID_CHUNK = 1000;
 
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
     @Scheduled(cron = "0 0 0 * * *") // 매일 자정 실행
     public void processAlarmDataFromRedis() {
         String yesterday = LocalDate.now().minusDays(1).format(formatter);
-        String pattern = "alarm:*:" + yesterday;
-
-        Set<String> keys = objectRedisTemplate.keys(pattern);
-        if (keys == null || keys.isEmpty()) {
-            logger.info("[알람] 어제 날짜 Redis 데이터 없음. pattern={}", pattern);
+        Set<String> keys = redisKeyIndex.keys(KeyFamily.ALARM, yesterday);
+        if (keys.isEmpty()) {
+            logger.info("[알람] 어제 날짜 Redis 데이터 없음. date={}", yesterday);
+            statRollupService.rollupFlushedDay(LocalDate.parse(yesterday, formatter));
             return;
         }
 
         for (String key : keys) {
-            Long size = objectRedisTemplate.opsForList().size(key);
+            Long size = redisTemplate.opsForList().size(key);
             logger.info("[알람] Redis key: {}, 항목 수: {}", key, size);
 
-            List<Object> list = objectRedisTemplate.opsForList().range(key, 0, -1);
-            if (list != null) {
-                for (Object obj : list) {
-                    try {
-                        AlarmHistoryRedisDto dto = (AlarmHistoryRedisDto) obj;
-
-                        AlarmHistory entity = new AlarmHistory();
-                        entity.setConstructionSitesId(dto.getConstructionSitesId());
-                        entity.setAlarmType(dto.getAlarmType());
-                        entity.setRecognizedType(dto.getRecognizedType());
-                        entity.setWeather(dto.getWeather());
-                        entity.setCreatedAt(dto.getCreatedAt());
-
-                        Point point = geometryFactory.createPoint(new Coordinate(dto.getLng(), dto.getLat()));
-                        entity.setGps(point);
-
-                        alarmHistoryRepository.save(entity);
-                        logger.info("[알람] 저장 성공: siteId={}, type={}, createdAt={}",
-                                entity.getConstructionSitesId(), entity.getAlarmType(), entity.getCreatedAt());
-
-                    } catch (ClassCastException e) {
-                        logger.warn("[알람] 캐스팅 실패: {}", e.getMessage());
-                    } catch (Exception e) {
-                        logger.error("[알람] 저장 중 예외 발생: {}", e.getMessage(), e);
-                    }
+            List<byte[]> list = redisTemplate.opsForList().range(key, 0, -1);
+            if (list == null) {
+                continue;
+            }
+
+            List<AlarmHistoryRedisDto> alarms = new ArrayList<>(list.size());
+            for (byte[] payload : list) {
+                try {
+                    alarms.add((AlarmHistoryRedisDto) RedisEventCodec.decode(payload));
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    logger.warn("[알람] 디코딩 실패: {}", e.getMessage());
+                }
+            }
+
+            // 다시 실행해도 이미 저장된 ID 는 건너뛴다
+            Set<Long> existing = findExistingIds(alarms);
+            int skipped = 0;
+            for (AlarmHistoryRedisDto dto : alarms) {
+                if (dto.getAlarmId() != null && existing.contains(dto.getAlarmId())) {
+                    skipped++;
+                    continue;
+                }
+                try {
+                    AlarmHistory entity = new AlarmHistory();
+                    // 적재 시 발급한 ID 그대로 (ID 가 없는 이전 데이터만 새로 발급)
+                    entity.setAlarmId(dto.getAlarmId() != null ? dto.getAlarmId() : eventIdAllocator.next());
+                    entity.setConstructionSitesId(dto.getConstructionSitesId());
+                    entity.setAlarmType(dto.getAlarmType());
+                    entity.setRecognizedType(dto.getRecognizedType());
+                    entity.setWeather(dto.getWeather());
+                    entity.setCreatedAt(dto.getCreatedAt());
+
+                    Point point = geometryFactory.createPoint(new Coordinate(dto.getLng(), dto.getLat()));
+                    entity.setGps(point);
+
+                    alarmHistoryRepository.save(entity);
+                    existing.add(entity.getAlarmId());
+                    logger.info("[알람] 저장 성공: siteId={}, type={}, createdAt={}",
+                            entity.getConstructionSitesId(), entity.getAlarmType(), entity.getCreatedAt());
+
+                } catch (DataIntegrityViolationException e) {
+                    // 조회 이후 다른 실행이 먼저 저장한 경우
+                    skipped++;
+                    logger.info("[알람] 이미 저장된 행 건너뜀: alarmId={}", dto.getAlarmId());
+                } catch (Exception e) {
+                    logger.error("[알람] 저장 중 예외 발생: {}", e.getMessage(), e);
                 }
             }
+            if (skipped > 0) {
+                logger.info("[알람] 이미 저장된 {}건 건너뜀: key={}", skipped, key);
+            }
+        }
+
+        // 전날 통계 집계 테이블 갱신
+        statRollupService.rollupFlushedDay(LocalDate.parse(yesterday, formatter));
+
+        // 적재 전에 집계된 지도 클러스터/기간별 통계 캐시 무효화, 지도 스냅샷은 DB 기준으로 다시 생성
+        mapClusterService.evictDay(LocalDate.parse(yesterday, formatter));
+        statRangeService.evictDay(LocalDate.parse(yesterday, formatter));
+        mapSnapshot.rebuild();
+    }
+
+    private Set<Long> findExistingIds(List<AlarmHistoryRedisDto> alarms) {
+        List<Long> ids = new ArrayList<>(alarms.size());
+        for (AlarmHistoryRedisDto dto : alarms) {
+            if (dto.getAlarmId() != null) {
+                ids.add(dto.getAlarmId());
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += EXISTING_ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + EXISTING_ID_CHUNK));
+            existing.addAll(alarmHistoryRepository.findExistingAlarmIds(chunk));
         }
+        return existing;
     }
 }
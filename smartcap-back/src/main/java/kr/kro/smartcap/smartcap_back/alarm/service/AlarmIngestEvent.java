@@ -0,0 +1,59 @@
+package kr.kro.smartcap.smartcap_back.alarm.service;
+
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmIngestResult;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestEvent;
+
+/**
+ * 알람 1건의 적재 단계별 처리
+ */
+class AlarmIngestEvent implements IngestEvent {
+
+    private final AlarmProcessingService service;
+    private final int deviceId;
+    private final AlarmHistoryDto request;
+
+    private AlarmHistoryRedisDto alarm;
+    private AlarmIngestResult result;
+
+    AlarmIngestEvent(AlarmProcessingService service, int deviceId, AlarmHistoryDto request) {
+        this.service = service;
+        this.deviceId = deviceId;
+        this.request = request;
+    }
+
+    @Override
+    public void validate() {
+        service.validate(request);
+    }
+
+    @Override
+    public void enrich() {
+        alarm = service.toRedisDto(request);
+    }
+
+    @Override
+    public void persist() {
+        result = service.store(deviceId, alarm);
+    }
+
+    @Override
+    public void updateStats() {
+        service.updateStats(alarm);
+    }
+
+    @Override
+    public void fanOut() {
+        service.notifyClients(alarm);
+        service.updateMap(alarm, result);
+    }
+
+    @Override
+    public String describe() {
+        return "alarm(deviceId=" + deviceId
+                + ", siteId=" + request.getConstructionSitesId()
+                + ", alarmType=" + request.getAlarmType()
+                + ", alarmId=" + (alarm != null ? alarm.getAlarmId() : null) + ")";
+    }
+}
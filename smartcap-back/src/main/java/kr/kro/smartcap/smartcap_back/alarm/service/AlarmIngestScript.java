@@ -0,0 +1,78 @@
+package kr.kro.smartcap.smartcap_back.alarm.service;
+
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmIngestResult;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 알람 적재에 필요한 Redis 작업(GPS/날씨 조회, 리스트 추가)을
+ * Lua 스크립트 한 번으로 실행한다. (통계 증가는 RedisStatService 의 메모리 버퍼)
+ * 이벤트 ID 별로 한 번만 적재하므로 같은 알람을 다시 실행해도 리스트에 중복 추가되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlarmIngestScript {
+
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/alarm_ingest.lua"), List.class);
+
+    private static final String WEATHER_KEY = "current:weather";
+    private static final String DEFAULT_WEATHER = "맑음";
+    private static final Duration ALARM_LIST_TTL = Duration.ofDays(2);
+    // 날짜별 적재한 이벤트 ID (재시도 시 중복 추가 방지, 리스트와 같은 TTL)
+    private static final String INGESTED_KEY_PREFIX = "ingested:alarm:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * 같은 alarmId 로 다시 호출하면 리스트에 다시 추가하지 않고 처음 호출의 결과를 돌려준다. (파이프라인 재시도)
+     */
+    public AlarmIngestResult ingest(int deviceId, String listKey, AlarmHistoryRedisDto alarm) {
+        String date = listKey.substring(listKey.lastIndexOf(':') + 1);
+        List<String> keys = List.of(
+                "gps " + deviceId,
+                WEATHER_KEY,
+                listKey,
+                KeyFamily.ALARM.indexKey(date),
+                INGESTED_KEY_PREFIX + date
+        );
+        long now = Instant.now().getEpochSecond();
+
+        List<?> reply = redisTemplate.execute(SCRIPT, keys,
+                String.valueOf(ALARM_LIST_TTL.toSeconds()),
+                String.valueOf(alarm.getConstructionSitesId()),
+                alarm.getAlarmType(),
+                alarm.getRecognizedType(),
+                String.valueOf(alarm.getCreatedAt().getTime()),
+                DEFAULT_WEATHER,
+                String.valueOf(alarm.getAlarmId()),
+                String.valueOf(now + ALARM_LIST_TTL.toSeconds())
+        );
+
+        if (reply == null || reply.size() < 5) {
+            throw new IllegalStateException("Unexpected reply from alarm ingest script: " + reply);
+        }
+
+        return AlarmIngestResult.builder()
+                .weather(String.valueOf(reply.get(0)))
+                .lat(Double.parseDouble(String.valueOf(reply.get(1))))
+                .lng(Double.parseDouble(String.valueOf(reply.get(2))))
+                .gpsFound(toLong(reply.get(3)) == 1L)
+                .listKey(listKey)
+                .listLength(toLong(reply.get(4)))
+                .build();
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
@@ -2,11 +2,15 @@ package kr.kro.smartcap.smartcap_back.alarm.service;
 
 import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryDto;
 import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmIngestResult;
 import kr.kro.smartcap.smartcap_back.alarm.entity.AlarmHistory;
 import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
 import kr.kro.smartcap.smartcap_back.alarm.sse.AlarmSseEmitterHandler;
 import kr.kro.smartcap.smartcap_back.common.dto.CategoryInfo;
 import kr.kro.smartcap.smartcap_back.common.util.AlarmCategoryMapper;
+import kr.kro.smartcap.smartcap_back.event.service.MapSnapshot;
+import kr.kro.smartcap.smartcap_back.ingest.id.EventIdAllocator;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestEvent;
 import kr.kro.smartcap.smartcap_back.stats.service.RedisStatService;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Coordinate;
@@ -15,35 +19,42 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AlarmProcessingService {
 
     private final AlarmHistoryRepository alarmHistoryRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final RedisTemplate<String, Object> objectRedisTemplate;
+    private final AlarmIngestScript alarmIngestScript;
     private final AlarmSseEmitterHandler alarmSseEmitterHandler;
     private final RedisStatService redisStatService;
-
+    private final MapSnapshot mapSnapshot;
+    private final EventIdAllocator eventIdAllocator;
 
     private static final Logger logger = LoggerFactory.getLogger(AlarmProcessingService.class);
 
-    private static final String WEATHER_KEY = "current:weather";
+    /**
+     * 적재 파이프라인에 등록할 알람 이벤트 생성
+     */
+    public IngestEvent createIngestEvent(int deviceId, AlarmHistoryDto dto) {
+        return new AlarmIngestEvent(this, deviceId, dto);
+    }
+
+    void validate(AlarmHistoryDto dto) {
+        String alarmType = AlarmCategoryMapper.map(dto.getAlarmType()).getCode();
+        if (alarmType.equals("3") || alarmType.equals("-1")) {
+            throw new IllegalArgumentException("Invalid data received");
+        }
+    }
 
-    @Transactional
-    public void processAlarm(int deviceId, AlarmHistoryDto dto) {
+    AlarmHistoryRedisDto toRedisDto(AlarmHistoryDto dto) {
         AlarmHistoryRedisDto alarmHistoryRedisDto = new AlarmHistoryRedisDto();
+        alarmHistoryRedisDto.setAlarmId(eventIdAllocator.next());
 
         CategoryInfo info = AlarmCategoryMapper.map(dto.getAlarmType());
 
@@ -55,42 +66,41 @@ public class AlarmProcessingService {
 
         // 디폴트 현장 ID 설정
         alarmHistoryRedisDto.setConstructionSitesId(1L);
+        return alarmHistoryRedisDto;
+    }
 
-        // Redis에서 "gps {deviceId}" 형식의 키로 gps 정보 조회
-        String redisKey = "gps " + deviceId;
-        Map<Object, Object> gpsMap = redisTemplate.opsForHash().entries(redisKey);
-        if (gpsMap != null && !gpsMap.isEmpty()) {
-            try {
-                double lat = Double.parseDouble(gpsMap.get("lat").toString());
-                double lng = Double.parseDouble(gpsMap.get("lng").toString());
-                alarmHistoryRedisDto.setLat(lat);
-                alarmHistoryRedisDto.setLng(lng);
-            } catch (Exception e) {
-                logger.warn("Failed to parse GPS data from Redis for device {}: {}", deviceId, e.getMessage());
-            }
-        } else {
-            logger.info("No GPS data found in Redis for device {}. GPS not set.", deviceId);
-        }
-
-        // Redis에서 날씨 정보 조회
-        setWeatherFromRedis(alarmHistoryRedisDto);
-
-        // Redis에 저장
+    AlarmIngestResult store(int deviceId, AlarmHistoryRedisDto alarmHistoryRedisDto) {
+        // GPS/날씨 보강, Redis 저장, 통계 증가를 스크립트 한 번으로 처리
         Long siteId = alarmHistoryRedisDto.getConstructionSitesId();
-        String key = String.format("alarm:%d:%s", siteId, LocalDate.now());
-        objectRedisTemplate.opsForList().rightPush(key, alarmHistoryRedisDto);
-        objectRedisTemplate.expire(key, Duration.ofDays(2));
+        String key = String.format("alarm:%d:%s", siteId, alarmHistoryRedisDto.getCreatedAt().toLocalDateTime().toLocalDate());
+        AlarmIngestResult result = alarmIngestScript.ingest(deviceId, key, alarmHistoryRedisDto);
+
+        alarmHistoryRedisDto.setWeather(result.getWeather());
+        alarmHistoryRedisDto.setLat(result.getLat());
+        alarmHistoryRedisDto.setLng(result.getLng());
+        if (!result.isGpsFound()) {
+            logger.info("No valid GPS data found in Redis for device {}. GPS not set.", deviceId);
+        }
+        return result;
+    }
 
-        // 레디스 통계 업데이트
+    void updateStats(AlarmHistoryRedisDto alarmHistoryRedisDto) {
+        // 레디스 통계 증가 (메모리 버퍼, 주기마다 반영 후 구독자에게 전달)
         redisStatService.incrementStats(
                 alarmHistoryRedisDto.getCreatedAt().toLocalDateTime(),
                 alarmHistoryRedisDto.getRecognizedType(),
                 alarmHistoryRedisDto.getAlarmType()
         );
+    }
 
+    void notifyClients(AlarmHistoryRedisDto alarmHistoryRedisDto) {
         // SSE 전송
         alarmSseEmitterHandler.sendAlarmToClients(alarmHistoryRedisDto);
+    }
 
+    void updateMap(AlarmHistoryRedisDto alarmHistoryRedisDto, AlarmIngestResult result) {
+        // 지도 스냅샷 반영
+        mapSnapshot.addAlarm(result.getListKey(), result.getListLength(), alarmHistoryRedisDto);
     }
 
     private void setDefaultGps(AlarmHistory alarmHistory) {
@@ -99,15 +109,4 @@ public class AlarmProcessingService {
         Point defaultPoint = gf.createPoint(new Coordinate(126.9780, 37.5665));
         alarmHistory.setGps(defaultPoint);
     }
-
-    private void setWeatherFromRedis(AlarmHistoryRedisDto alarmHistory) {
-        String weather = redisTemplate.opsForValue().get(WEATHER_KEY);
-
-        if (weather != null && !weather.isEmpty()) {
-            alarmHistory.setWeather(weather);
-        } else {
-            alarmHistory.setWeather("맑음");
-            logger.info("No weather data found in Redis. Default weather set: 맑음");
-        }
-    }
 }
\ No newline at end of file
@@ -120,7 +120,9 @@ public class AlarmSseEmitterHandler {
     // 알람 엔티티를 프론트엔드에 적합한 응답 형식으로 변환
     private Map<String, Object> convertToResponse(AlarmHistoryRedisDto alarm) {
         Map<String, Object> response = new ConcurrentHashMap<>();
-//        response.put("alarm_id", alarm.getAlarmId());
+        if (alarm.getAlarmId() != null) {
+            response.put("alarm_id", alarm.getAlarmId());
+        }
         response.put("construction_sites_id", alarm.getConstructionSitesId());
 
         // GPS 정보 변환
@@ -0,0 +1,227 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import kr.kro.smartcap.smartcap_back.event.dto.AccidentDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapClusterDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatEntryDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatGroupDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatResponseDto;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지도/대시보드 응답의 열 단위 바이너리 인코딩 (application/vnd.smartcap.columnar)
+ * 이벤트마다 JSON 객체를 쓰는 대신 필드별 배열(lng[], lat[], time[] ...)로 쓰고, 반복 문자열은 사전 번호로 바꾼다.
+ *
+ * 모든 값은 리틀 엔디언, 문자열은 i32 길이(-1 = null) + UTF-8, 사전 번호 -1 = null.
+ *
+ * 지도 (MapDataResponse)
+ *   "SCMP" u8 버전 i32 필드마스크
+ *   사전: i32 개수, 문자열...
+ *   string nextCursor, string syncCursor, u8 delta
+ *   표 recentAlarms, 표 fallingAccidents
+ *     i32 행 수, 필드마스크의 낮은 비트부터 있는 열만 (MapField 참고)
+ *   클러스터: i32 개수, f64 lng[], f64 lat[], i64 count[],
+ *     클러스터마다 alarmTypeCounts, recognizedTypeCounts (i32 n, (i32 사전번호, i64 건수) x n)
+ *
+ * 대시보드 (StatResponseDto)
+ *   "SCST" u8 버전
+ *   사전: i32 개수, 문자열...
+ *   hourly, daily, monthly 각각: i32 그룹 수, 그룹마다 i32 key, i32 scope, i32 n, i32 field[], i64 count[]
+ */
+public final class ColumnarEncoder {
+
+    public static final String MEDIA_TYPE = "application/vnd.smartcap.columnar";
+
+    private static final int VERSION = 1;
+
+    /**
+     * 지도 표의 열 (?fields= 이름, 비트 순서 = 선언 순서)
+     */
+    public enum MapField {
+        ID("id"),                        // i64 alarm_id
+        SITE("site"),                    // i64 construction_sites_id (-1 = null)
+        LNG("lng"),                      // f64 (NaN = 위치 없음)
+        LAT("lat"),                      // f64 (NaN = 위치 없음)
+        TIME("time"),                    // i64 created_at epoch millis
+        ALARM_TYPE("alarmType"),         // i32 사전
+        RECOGNIZED_TYPE("recognizedType"), // i32 사전
+        WEATHER("weather"),              // i32 사전
+        ACCIDENT("accident"),            // i64 accident_id (-1 = null)
+        VIDEO("video"),                  // i64 accident_video_id (-1 = null), i32 video_url 사전
+        SITE_INFO("siteInfo");           // i32 site_name 사전, i32 construction_status 사전
+
+        private final String param;
+
+        MapField(String param) {
+            this.param = param;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    public static final int ALL_FIELDS = (1 << MapField.values().length) - 1;
+
+    private ColumnarEncoder() {
+    }
+
+    /**
+     * ?fields=lng,lat,time 형식을 필드마스크로. 비어 있으면 전체, 알 수 없는 이름은 무시한다.
+     */
+    public static int fieldMask(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL_FIELDS;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            for (MapField field : MapField.values()) {
+                if (field.param.equalsIgnoreCase(name.trim())) {
+                    mask |= field.bit();
+                }
+            }
+        }
+        return mask != 0 ? mask : ALL_FIELDS;
+    }
+
+    public static byte[] encode(MapDataResponse response, int fieldMask) {
+        StringDictionary dict = new StringDictionary();
+        LittleEndianWriter body = new LittleEndianWriter(4096);
+
+        body.string(response.getNextCursor());
+        body.string(response.getSyncCursor());
+        body.u8(response.isDelta() ? 1 : 0);
+        writeTable(body, dict, response.getRecentAlarms(), fieldMask);
+        writeTable(body, dict, response.getFallingAccidents(), fieldMask);
+        writeClusters(body, dict, response.getClusters());
+
+        LittleEndianWriter out = new LittleEndianWriter(4096);
+        out.ascii("SCMP");
+        out.u8(VERSION);
+        out.i32(fieldMask);
+        dict.writeTo(out);
+        return concat(out, body);
+    }
+
+    public static byte[] encode(StatResponseDto response) {
+        StringDictionary dict = new StringDictionary();
+        LittleEndianWriter body = new LittleEndianWriter(1024);
+
+        writeGroups(body, dict, response.getHourlyStats());
+        writeGroups(body, dict, response.getDailyStats());
+        writeGroups(body, dict, response.getMonthlyStats());
+
+        LittleEndianWriter out = new LittleEndianWriter(1024);
+        out.ascii("SCST");
+        out.u8(VERSION);
+        dict.writeTo(out);
+        return concat(out, body);
+    }
+
+    private static void writeTable(LittleEndianWriter out, StringDictionary dict,
+                                   List<? extends AlarmDTO> rows, int mask) {
+        if (rows == null) {
+            rows = List.of();
+        }
+        out.i32(rows.size());
+        ZoneId zone = ZoneId.systemDefault();
+
+        if (has(mask, MapField.ID)) {
+            rows.forEach(r -> out.i64(orMinusOne(r.getAlarm_id())));
+        }
+        if (has(mask, MapField.SITE)) {
+            rows.forEach(r -> out.i64(orMinusOne(r.getConstruction_sites_id())));
+        }
+        if (has(mask, MapField.LNG)) {
+            rows.forEach(r -> out.f64(r.getGps() != null ? r.getGps().getCoordinates()[0] : Double.NaN));
+        }
+        if (has(mask, MapField.LAT)) {
+            rows.forEach(r -> out.f64(r.getGps() != null ? r.getGps().getCoordinates()[1] : Double.NaN));
+        }
+        if (has(mask, MapField.TIME)) {
+            rows.forEach(r -> out.i64(r.getCreated_at() != null
+                    ? r.getCreated_at().atZone(zone).toInstant().toEpochMilli() : -1L));
+        }
+        if (has(mask, MapField.ALARM_TYPE)) {
+            rows.forEach(r -> out.i32(dict.id(r.getAlarm_type())));
+        }
+        if (has(mask, MapField.RECOGNIZED_TYPE)) {
+            rows.forEach(r -> out.i32(dict.id(r.getRecognized_type())));
+        }
+        if (has(mask, MapField.WEATHER)) {
+            rows.forEach(r -> out.i32(dict.id(r.getWeather())));
+        }
+        if (has(mask, MapField.ACCIDENT)) {
+            rows.forEach(r -> out.i64(orMinusOne(r.getAccident_id())));
+        }
+        if (has(mask, MapField.VIDEO)) {
+            rows.forEach(r -> out.i64(r instanceof AccidentDTO a ? orMinusOne(a.getAccident_video_id()) : -1L));
+            rows.forEach(r -> out.i32(r instanceof AccidentDTO a ? dict.id(a.getVideo_url()) : -1));
+        }
+        if (has(mask, MapField.SITE_INFO)) {
+            rows.forEach(r -> out.i32(dict.id(r.getSite_name())));
+            rows.forEach(r -> out.i32(dict.id(r.getConstruction_status())));
+        }
+    }
+
+    private static void writeClusters(LittleEndianWriter out, StringDictionary dict, List<MapClusterDTO> clusters) {
+        if (clusters == null) {
+            clusters = List.of();
+        }
+        out.i32(clusters.size());
+        clusters.forEach(c -> out.f64(c.getGps().getCoordinates()[0]));
+        clusters.forEach(c -> out.f64(c.getGps().getCoordinates()[1]));
+        clusters.forEach(c -> out.i64(c.getCount()));
+        for (MapClusterDTO c : clusters) {
+            writeCounts(out, dict, c.getAlarmTypeCounts());
+            writeCounts(out, dict, c.getRecognizedTypeCounts());
+        }
+    }
+
+    private static void writeCounts(LittleEndianWriter out, StringDictionary dict, Map<String, Long> counts) {
+        if (counts == null) {
+            counts = Map.of();
+        }
+        out.i32(counts.size());
+        counts.forEach((type, count) -> {
+            out.i32(dict.id(type));
+            out.i64(count);
+        });
+    }
+
+    private static void writeGroups(LittleEndianWriter out, StringDictionary dict, List<StatGroupDto> groups) {
+        if (groups == null) {
+            groups = List.of();
+        }
+        out.i32(groups.size());
+        for (StatGroupDto group : groups) {
+            List<StatEntryDto> stats = group.getStats() != null ? group.getStats() : List.of();
+            out.i32(dict.id(group.getKey()));
+            out.i32(dict.id(group.getScope()));
+            out.i32(stats.size());
+            stats.forEach(e -> out.i32(dict.id(e.getField())));
+            stats.forEach(e -> out.i64(e.getCount()));
+        }
+    }
+
+    private static boolean has(int mask, MapField field) {
+        return (mask & field.bit()) != 0;
+    }
+
+    private static long orMinusOne(Long value) {
+        return value != null ? value : -1L;
+    }
+
+    private static byte[] concat(LittleEndianWriter head, LittleEndianWriter body) {
+        byte[] a = head.toByteArray();
+        byte[] b = body.toByteArray();
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
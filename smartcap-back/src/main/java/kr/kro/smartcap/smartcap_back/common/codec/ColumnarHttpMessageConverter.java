@@ -0,0 +1,59 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import jakarta.servlet.http.HttpServletRequest;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatResponseDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+/**
+ * Accept: application/vnd.smartcap.columnar 요청에 지도/대시보드 응답을 ColumnarEncoder 형식으로 쓴다.
+ * 지도 응답은 ?fields=lng,lat,time... 로 필요한 열만 고를 수 있다. (쓰기 전용)
+ */
+public class ColumnarHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public ColumnarHttpMessageConverter() {
+        super(MediaType.parseMediaType(ColumnarEncoder.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MapDataResponse.class.isAssignableFrom(clazz) || StatResponseDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar format is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = value instanceof MapDataResponse map
+                ? ColumnarEncoder.encode(map, ColumnarEncoder.fieldMask(requestParam("fields")))
+                : ColumnarEncoder.encode((StatResponseDto) value);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+
+    private static String requestParam(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            HttpServletRequest request = servlet.getRequest();
+            return request.getParameter(name);
+        }
+        return null;
+    }
+}
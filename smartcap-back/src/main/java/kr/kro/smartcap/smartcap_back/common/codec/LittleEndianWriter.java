@@ -0,0 +1,73 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 리틀 엔디언 바이트 배열 작성기 (크기 자동 증가)
+ */
+class LittleEndianWriter {
+
+    private byte[] buf;
+    private int size = 0;
+
+    LittleEndianWriter(int initialCapacity) {
+        buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void u8(int value) {
+        ensure(1);
+        buf[size++] = (byte) value;
+    }
+
+    void i32(int value) {
+        ensure(4);
+        buf[size++] = (byte) value;
+        buf[size++] = (byte) (value >>> 8);
+        buf[size++] = (byte) (value >>> 16);
+        buf[size++] = (byte) (value >>> 24);
+    }
+
+    void i64(long value) {
+        ensure(8);
+        for (int i = 0; i < 8; i++) {
+            buf[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void f64(double value) {
+        i64(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * 길이(i32, null 이면 -1) + UTF-8 바이트
+     */
+    void string(String value) {
+        if (value == null) {
+            i32(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        i32(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    void ascii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buf[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+    }
+}
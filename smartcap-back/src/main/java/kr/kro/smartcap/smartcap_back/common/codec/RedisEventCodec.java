@@ -0,0 +1,127 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Redis 일자별 이벤트 리스트(alarm:*, accident:*) 원소의 바이너리 형식
+ * 원소마다 클래스명/필드명을 담는 JSON 대신 고정 순서의 값만 쓴다. (알람 1건 약 250 → 80 바이트)
+ *
+ * 모든 값은 리틀 엔디언, 문자열은 i32 길이(-1 = null) + UTF-8, 정수 -1 = null.
+ *   u8 버전 u8 종류
+ *   버전 1, 알람 (TYPE_ALARM):
+ *     i64 alarmId, i64 constructionSitesId, i64 createdAt(epoch millis), f64 lat, f64 lng,
+ *     string alarmType, string recognizedType, string weather
+ *   버전 1, 사고 (TYPE_ACCIDENT):
+ *     i64 accidentId, i64 constructionSitesId, i64 createdAt(epoch millis), f64 lat, f64 lng,
+ *     string accidentType, string weather
+ *
+ * 이 클래스는 읽기만 한다. 알람 원소는 scripts/alarm_ingest.lua 가 struct.pack 으로 직접 쓰며,
+ * 형식을 바꾸면 VERSION 을 올리고 두 곳을 함께 수정한다. (RedisEventCodecTest 의 고정 바이트가 스크립트 출력과 같아야 함)
+ * 사고 형식은 자정 적재/지도 조회가 기존 리스트를 읽을 수 있도록 남겨 둔 것이다.
+ * '{' 로 시작하는 원소는 이전 JSON 형식으로 읽는다. (리스트 TTL 2일이 지나면 남지 않음)
+ */
+public final class RedisEventCodec {
+
+    public static final int VERSION = 1;
+    public static final int TYPE_ALARM = 1;
+    public static final int TYPE_ACCIDENT = 2;
+
+    private static final GenericJackson2JsonRedisSerializer LEGACY_JSON = new GenericJackson2JsonRedisSerializer();
+
+    private RedisEventCodec() {
+    }
+
+    /**
+     * @return AlarmHistoryRedisDto 또는 AccidentHistoryRedisDto
+     * @throws IllegalArgumentException 알 수 없는 버전/종류이거나 잘린 원소
+     */
+    public static Object decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Empty event payload");
+        }
+        if (bytes[0] == '{') {
+            return decodeLegacy(bytes);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int version = in.get() & 0xFF;
+        int type = in.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported event payload version: " + version);
+        }
+        try {
+            switch (type) {
+                case TYPE_ALARM: {
+                    AlarmHistoryRedisDto alarm = new AlarmHistoryRedisDto();
+                    alarm.setAlarmId(nullIfMinusOne(in.getLong()));
+                    alarm.setConstructionSitesId(nullIfMinusOne(in.getLong()));
+                    alarm.setCreatedAt(toTimestamp(in.getLong()));
+                    alarm.setLat(in.getDouble());
+                    alarm.setLng(in.getDouble());
+                    alarm.setAlarmType(string(in));
+                    alarm.setRecognizedType(string(in));
+                    alarm.setWeather(string(in));
+                    return alarm;
+                }
+                case TYPE_ACCIDENT: {
+                    AccidentHistoryRedisDto accident = new AccidentHistoryRedisDto();
+                    accident.setAccidentId(nullIfMinusOne(in.getLong()));
+                    accident.setConstructionSitesId(nullIfMinusOne(in.getLong()));
+                    accident.setCreatedAt(toTimestamp(in.getLong()));
+                    accident.setLat(in.getDouble());
+                    accident.setLng(in.getDouble());
+                    accident.setAccidentType(string(in));
+                    accident.setWeather(string(in));
+                    return accident;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown event payload type: " + type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated event payload", e);
+        }
+    }
+
+    private static Object decodeLegacy(byte[] bytes) {
+        Object value;
+        try {
+            value = LEGACY_JSON.deserialize(bytes);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid legacy event payload", e);
+        }
+        if (!(value instanceof AlarmHistoryRedisDto) && !(value instanceof AccidentHistoryRedisDto)) {
+            throw new IllegalArgumentException("Unknown legacy event payload: "
+                    + (value != null ? value.getClass().getName() : null));
+        }
+        return value;
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static Long nullIfMinusOne(long value) {
+        return value != -1L ? value : null;
+    }
+
+    private static Timestamp toTimestamp(long epochMillis) {
+        return epochMillis != -1L ? new Timestamp(epochMillis) : null;
+    }
+}
@@ -0,0 +1,33 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 반복되는 문자열(종류, 날씨, 현장 이름 등)을 응답 단위 사전 번호로 바꾼다. null 은 -1.
+ */
+class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int id(String value) {
+        if (value == null) {
+            return -1;
+        }
+        return ids.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * 개수(i32) + 문자열 목록
+     */
+    void writeTo(LittleEndianWriter out) {
+        out.i32(values.size());
+        values.forEach(out::string);
+    }
+}
@@ -0,0 +1,47 @@
+package kr.kro.smartcap.smartcap_back.common.redis;
+
+/**
+ * 키 인덱스로 관리하는 Redis 키 종류
+ * 날짜별(dated) 종류는 날짜마다 인덱스를 따로 둔다. (예: index:alarm:2025-04-01)
+ */
+public enum KeyFamily {
+    ALARM("alarm", true),                   // alarm:{siteId}:{yyyy-MM-dd}
+    ACCIDENT("accident", true),             // accident:{siteId}:{yyyy-MM-dd}
+    SUMMARY_HOUR("summary:hour", false),    // summary:hour:{yyyy-MM-dd}:{HH}
+    SUMMARY_DAY("summary:day", false),      // summary:day:{yyyy-MM-dd}
+    SUMMARY_MONTH("summary:month", false),  // summary:month:{yyyy-MM}
+    WEATHER_STATUS("weather:status", false); // weather:status:{lat}:{lng}
+
+    private final String prefix;
+    private final boolean dated;
+
+    KeyFamily(String prefix, boolean dated) {
+        this.prefix = prefix;
+        this.dated = dated;
+    }
+
+    public boolean isDated() {
+        return dated;
+    }
+
+    /**
+     * 인덱스 sorted set 키 (member: 데이터 키, score: 만료 시각 epoch 초)
+     */
+    public String indexKey(String date) {
+        return dated ? "index:" + prefix + ":" + date : "index:" + prefix;
+    }
+
+    /**
+     * 인덱스가 없을 때 SCAN 에 쓰는 패턴
+     */
+    public String pattern(String date) {
+        return dated ? prefix + ":*:" + date : prefix + ":*";
+    }
+
+    /**
+     * 날짜별 종류의 데이터 키에서 날짜 부분 추출 (마지막 구간)
+     */
+    String dateOf(String key) {
+        return key.substring(key.lastIndexOf(':') + 1);
+    }
+}
@@ -0,0 +1,153 @@
+package kr.kro.smartcap.smartcap_back.common.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis 키 인덱스
+ * KEYS 명령은 전체 키를 한 번에 훑으며 Redis 를 멈추므로, 키를 쓸 때 종류별 sorted set 에 함께 기록해 두고
+ * 조회 시에는 인덱스만 읽는다. score 는 데이터 키의 만료 시각(epoch 초)이며, 만료된 항목은 조회 시 정리한다.
+ *
+ * 기동 직후 인덱스를 다시 만들기 전까지, 또는 인덱스로 관리하지 않는 키(외부에서 쓰는 키)는 SCAN 으로 조회한다.
+ */
+@Slf4j
+@Component
+public class RedisKeyIndex {
+
+    // 만료 없는 키의 score (9999-12-31T23:59:59Z)
+    public static final long NO_EXPIRY = 253402300799L;
+
+    private static final int SCAN_COUNT = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private volatile boolean ready = false;
+
+    public RedisKeyIndex(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 데이터 키를 인덱스에 기록한다.
+     *
+     * @param ttl 데이터 키의 TTL (null 이면 만료 없음)
+     */
+    public void register(KeyFamily family, String key, Duration ttl) {
+        String indexKey = family.indexKey(family.isDated() ? family.dateOf(key) : null);
+        redisTemplate.opsForZSet().add(indexKey, key, score(ttl));
+        if (family.isDated() && ttl != null) {
+            redisTemplate.expire(indexKey, ttl);
+        }
+    }
+
+    /**
+     * 종류별 키 목록. 날짜별 종류는 date(yyyy-MM-dd)를 지정한다.
+     */
+    public Set<String> keys(KeyFamily family, String date) {
+        if (!ready) {
+            return scan(family.pattern(date));
+        }
+
+        String indexKey = family.indexKey(date);
+        long now = Instant.now().getEpochSecond();
+        redisTemplate.opsForZSet().removeRangeByScore(indexKey, 0, now);
+        Set<String> keys = redisTemplate.opsForZSet().range(indexKey, 0, -1);
+        return keys != null ? keys : Set.of();
+    }
+
+    /**
+     * 삭제한 데이터 키를 인덱스에서도 제거한다.
+     */
+    public void remove(KeyFamily family, String date, Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            redisTemplate.opsForZSet().remove(family.indexKey(date), keys.toArray());
+        }
+    }
+
+    /**
+     * SCAN 으로 패턴에 맞는 키를 모은다. (KEYS 와 달리 조금씩 나눠 조회하므로 다른 요청을 막지 않음)
+     */
+    public Set<String> scan(String pattern) {
+        Set<String> keys = new LinkedHashSet<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 기동 시 현재 키로 인덱스를 다시 만든다. (인덱스 도입 전 키, 재시작 중 누락분 보정)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            for (KeyFamily family : KeyFamily.values()) {
+                List<String> keys = new ArrayList<>(scan(family.pattern("*")));
+                if (!keys.isEmpty()) {
+                    reindex(family, keys);
+                }
+                log.info("Key index rebuilt: family={}, keys={}", family, keys.size());
+            }
+            ready = true;
+        } catch (DataAccessException e) {
+            // 인덱스 없이도 SCAN 으로 동작하므로 기동은 계속한다
+            log.error("Key index rebuild failed, falling back to SCAN: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reindex(KeyFamily family, List<String> keys) {
+        List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            keys.forEach(conn::ttl);
+            return null;
+        });
+
+        // 날짜별 인덱스는 해당 날짜의 데이터 키 중 가장 늦게 만료되는 키에 맞춰 만료
+        Map<String, Long> indexTtls = new HashMap<>();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            long now = Instant.now().getEpochSecond();
+            for (int i = 0; i < keys.size(); i++) {
+                long ttl = ttls.get(i) instanceof Number ? ((Number) ttls.get(i)).longValue() : -1L;
+                if (ttl == -2) {
+                    continue; // 그 사이 만료됨
+                }
+                String key = keys.get(i);
+                String indexKey = family.indexKey(family.isDated() ? family.dateOf(key) : null);
+                conn.zAdd(indexKey, ttl >= 0 ? now + ttl : NO_EXPIRY, key);
+                if (family.isDated() && ttl >= 0) {
+                    indexTtls.merge(indexKey, ttl, Math::max);
+                }
+            }
+            indexTtls.forEach(conn::expire);
+            return null;
+        });
+    }
+
+    private static double score(Duration ttl) {
+        return ttl == null ? NO_EXPIRY : Instant.now().plus(ttl).getEpochSecond();
+    }
+}
@@ -0,0 +1,66 @@
+package kr.kro.smartcap.smartcap_back.common.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 로컬 디스크 저장소 (네트워크 없는 개발/벤치마크 환경용)
+ * 저장된 파일은 WebConfig 의 리소스 핸들러로 {storage.local.url-prefix}/** 경로에서 제공된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+    private final String urlPrefix;
+
+    public LocalObjectStorage(@Value("${storage.local.root:./storage}") String root,
+                              @Value("${storage.local.url-prefix:/files}") String urlPrefix) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.urlPrefix = urlPrefix.endsWith("/") ? urlPrefix.substring(0, urlPrefix.length() - 1) : urlPrefix;
+    }
+
+    @Override
+    public String put(String key, ByteBuffer content, String contentType) throws IOException {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        Files.createDirectories(target.getParent());
+
+        // 다 쓴 뒤 이름을 바꿔서, 쓰는 도중의 파일이 제공되지 않도록 한다
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer source = content.duplicate();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        log.debug("Stored {} ({} bytes) at {}", key, content.remaining(), target);
+        return urlPrefix + "/" + key;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public String getUrlPrefix() {
+        return urlPrefix;
+    }
+}
@@ -0,0 +1,24 @@
+package kr.kro.smartcap.smartcap_back.common.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 영상 등 파일 저장소 (storage.type 으로 구현 선택: s3 | local)
+ *
+ * 인코더 출력을 흘려 보내는 스트리밍 업로드가 아니라 완성된 내용을 받는다.
+ * MP4(moov, mdat 크기)와 AVI(RIFF/avih 크기, 프레임 수) 작성기 모두 마지막에 앞으로 돌아가 헤더를 고쳐 쓰므로
+ * 출력이 끝나기 전에는 앞부분을 확정할 수 없기 때문이다. (ClipBuffer 참고)
+ */
+public interface ObjectStorage {
+
+    /**
+     * content 의 남은 내용을 key 로 저장하고 접근 URL 을 반환한다.
+     *
+     * @param key         저장 경로 (예: accident/device_1_1700000000000.mp4)
+     * @param content     저장할 내용 (position ~ limit)
+     * @param contentType MIME 타입
+     * @return 저장된 객체의 URL
+     */
+    String put(String key, ByteBuffer content, String contentType) throws IOException;
+}
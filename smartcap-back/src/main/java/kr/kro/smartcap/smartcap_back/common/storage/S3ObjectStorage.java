@@ -0,0 +1,123 @@
+package kr.kro.smartcap.smartcap_back.common.storage;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * S3 저장소
+ * 메모리의 내용을 그대로 업로드한다. (임시 파일 없음)
+ * 크기가 part-size 의 2배 이상이면 멀티파트로 나눠 파트를 병렬 업로드한다.
+ * 일반적인 사고 영상(수 MB)은 단일 PUT 이 initiate/complete 왕복이 붙는 멀티파트보다 빠르므로
+ * 멀티파트는 긴 영상에서만 쓰인다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    // S3 멀티파트 최소 파트 크기
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final AmazonS3 amazonS3;
+    private final String bucketName;
+    private final long partSize;
+    private final ExecutorService uploadExecutor;
+
+    public S3ObjectStorage(AmazonS3 amazonS3,
+                           @Value("${s3.bucket-name}") String bucketName,
+                           @Value("${storage.s3.part-size-mb:8}") int partSizeMb,
+                           @Value("${storage.s3.upload-threads:4}") int uploadThreads) {
+        this.amazonS3 = amazonS3;
+        this.bucketName = bucketName;
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024L * 1024L);
+        this.uploadExecutor = Executors.newFixedThreadPool(Math.max(1, uploadThreads));
+    }
+
+    @Override
+    public String put(String key, ByteBuffer content, String contentType) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+
+        if (content.remaining() < partSize * 2) {
+            metadata.setContentLength(content.remaining());
+            amazonS3.putObject(new PutObjectRequest(
+                    bucketName, key, new ByteBufferInputStream(content.duplicate()), metadata));
+        } else {
+            putMultipart(key, content, metadata);
+        }
+
+        // 업로드된 파일의 URL 반환 (권한 설정에 따라 접근 가능)
+        return amazonS3.getUrl(bucketName, key).toString();
+    }
+
+    private void putMultipart(String key, ByteBuffer content, ObjectMetadata metadata) throws IOException {
+        String uploadId = amazonS3.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, key, metadata)).getUploadId();
+
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            int start = content.position();
+            int total = content.remaining();
+            int offset = 0;
+            int partNumber = 1;
+            while (offset < total) {
+                int length = (int) Math.min(partSize, total - offset);
+                // 마지막 파트가 최소 크기보다 작아지면 현재 파트에 붙인다
+                if (total - offset - length < MIN_PART_SIZE) {
+                    length = total - offset;
+                }
+                ByteBuffer slice = content.duplicate();
+                slice.position(start + offset).limit(start + offset + length);
+
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(bucketName)
+                        .withKey(key)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber++)
+                        .withPartSize(length)
+                        .withInputStream(new ByteBufferInputStream(slice));
+                parts.add(uploadExecutor.submit(() -> amazonS3.uploadPart(request).getPartETag()));
+                offset += length;
+            }
+
+            List<PartETag> eTags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                eTags.add(part.get());
+            }
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, eTags));
+            log.debug("Uploaded {} in {} parts", key, eTags.size());
+        } catch (InterruptedException | ExecutionException | RuntimeException e) {
+            parts.forEach(part -> part.cancel(true));
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Multipart upload failed for " + key, e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+}
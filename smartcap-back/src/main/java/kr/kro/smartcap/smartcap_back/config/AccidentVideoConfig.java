@@ -0,0 +1,40 @@
+package kr.kro.smartcap.smartcap_back.config;
+
+import kr.kro.smartcap.smartcap_back.accident.video.ParallelFrameDecoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AccidentVideoConfig {
+
+    // 영상 생성 작업 동시 실행 수 (CPU 를 많이 쓰므로 적재 스레드와 분리)
+    @Value("${accident.video.job.workers:2}")
+    private int workers;
+
+    // 즉시 실행 대기열 크기 (넘치면 DB 의 QUEUED 상태로 남아 폴링 시 실행)
+    @Value("${accident.video.job.queue-capacity:16}")
+    private int queueCapacity;
+
+    // 프레임 디코딩 스레드 수 (모든 영상 작업이 공유하는 상한)
+    @Value("${accident.video.decode-parallelism:2}")
+    private int decodeParallelism;
+
+    @Bean
+    public ThreadPoolTaskExecutor accidentVideoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("accident-video-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    @Bean
+    public ParallelFrameDecoder parallelFrameDecoder() {
+        return new ParallelFrameDecoder(decodeParallelism);
+    }
+}
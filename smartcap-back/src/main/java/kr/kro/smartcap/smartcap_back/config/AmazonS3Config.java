@@ -6,10 +6,13 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+// storage.type=local 이면 S3 클라이언트를 만들지 않는다 (AWS 키 없이 실행 가능)
 @Configuration
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
 public class AmazonS3Config {
 
     // AWS Access Key와 Secret Key는 안전하게 관리해야 합니다.
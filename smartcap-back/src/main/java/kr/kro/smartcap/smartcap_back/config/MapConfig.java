@@ -0,0 +1,31 @@
+package kr.kro.smartcap.smartcap_back.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class MapConfig {
+
+    // 지도 조회 출처(Redis, 사고 이력, 알람 이력)를 동시에 읽는 스레드 수 (요청당 최대 3개 사용)
+    @Value("${map.query.threads:8}")
+    private int threads;
+
+    @Value("${map.query.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor mapQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("map-query-");
+        // 대기열이 차면 거절 (요청 스레드에서 대신 실행하면 출처별 제한 시간이 걸리지 않으므로, 해당 출처는 partialSources 로 표시)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
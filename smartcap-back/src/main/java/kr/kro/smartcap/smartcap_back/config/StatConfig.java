@@ -0,0 +1,33 @@
+package kr.kro.smartcap.smartcap_back.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class StatConfig {
+
+    // 쌓인 통계 증가분이 많을 때 주기를 기다리지 않고 반영하는 스레드 (실행 중 + 대기 1건, 나머지는 버림)
+    @Bean
+    public ThreadPoolTaskExecutor statFlushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("stat-flush-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+
+    // 통계 재생성 (관리자 요청, 기동 시) - 한 번에 하나만 실행
+    @Bean
+    public ThreadPoolTaskExecutor statRebuildExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("stat-rebuild-");
+        return executor;
+    }
+}
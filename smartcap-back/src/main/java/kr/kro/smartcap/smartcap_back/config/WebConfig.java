@@ -1,18 +1,62 @@
 package kr.kro.smartcap.smartcap_back.config;
 
+import kr.kro.smartcap.smartcap_back.common.codec.ColumnarHttpMessageConverter;
+import kr.kro.smartcap.smartcap_back.common.storage.LocalObjectStorage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<LocalObjectStorage> localObjectStorage;
+
+    public WebConfig(ObjectProvider<LocalObjectStorage> localObjectStorage) {
+        this.localObjectStorage = localObjectStorage;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000", "http://localhost:5173") // React 포트
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+
+    /**
+     * 지도 데이터 응답에 본문 해시 기반 강한 ETag 부여 (If-None-Match 가 같으면 304)
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> mapEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/events/map");
+        return registration;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Accept: application/vnd.smartcap.columnar (지도/대시보드 열 단위 바이너리)
+        converters.add(new ColumnarHttpMessageConverter());
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // 로컬 저장소를 쓸 때만 저장된 영상을 직접 제공
+        localObjectStorage.ifAvailable(storage -> {
+            String location = storage.getRoot().toUri().toString();
+            registry.addResourceHandler(storage.getUrlPrefix() + "/**")
+                    .addResourceLocations(location.endsWith("/") ? location : location + "/");
+        });
+    }
+}
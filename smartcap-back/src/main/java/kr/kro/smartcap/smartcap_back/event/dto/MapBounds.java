@@ -0,0 +1,53 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import lombok.Getter;
+
+/**
+ * 지도 화면 영역 (?bbox=minLng,minLat,maxLng,maxLat, WGS84)
+ */
+@Getter
+public class MapBounds {
+
+    // bbox 를 지정하지 않은 경우 (전체 영역)
+    public static final MapBounds WORLD = new MapBounds(-180, -90, 180, 90);
+
+    private final double minLng;
+    private final double minLat;
+    private final double maxLng;
+    private final double maxLat;
+
+    public MapBounds(double minLng, double minLat, double maxLng, double maxLat) {
+        this.minLng = minLng;
+        this.minLat = minLat;
+        this.maxLng = maxLng;
+        this.maxLat = maxLat;
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이나 범위가 잘못된 경우
+     */
+    public static MapBounds parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat: " + value);
+        }
+
+        double[] v = new double[4];
+        for (int i = 0; i < 4; i++) {
+            v[i] = Double.parseDouble(parts[i].trim());
+            if (!Double.isFinite(v[i])) {
+                throw new IllegalArgumentException("Invalid bbox: " + value);
+            }
+        }
+        // 날짜변경선을 넘는 영역은 지원하지 않음 (minLng <= maxLng)
+        if (v[0] > v[2] || v[1] > v[3]
+                || v[0] < -180 || v[2] > 180 || v[1] < -90 || v[3] > 90) {
+            throw new IllegalArgumentException("Invalid bbox: " + value);
+        }
+        return new MapBounds(v[0], v[1], v[2], v[3]);
+    }
+
+    public boolean contains(double lng, double lat) {
+        return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+    }
+}
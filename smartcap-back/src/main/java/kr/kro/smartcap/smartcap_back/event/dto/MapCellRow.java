@@ -0,0 +1,18 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import java.sql.Date;
+
+/**
+ * 지도 격자 칸별 집계 (날짜, 칸 좌표, 종류별 건수, 좌표 합)
+ * 좌표 합은 여러 날/출처를 합친 뒤 무게중심을 구하는 데 쓴다.
+ */
+public interface MapCellRow {
+    Date getDay();
+    Long getCellX();
+    Long getCellY();
+    String getAlarmType();
+    String getRecognizedType();
+    Long getCnt();
+    Double getSumLng();
+    Double getSumLat();
+}
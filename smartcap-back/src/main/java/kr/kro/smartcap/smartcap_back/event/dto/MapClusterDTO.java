@@ -0,0 +1,19 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapClusterDTO {
+    private GpsDTO gps;                           // 칸 안 이벤트들의 무게중심
+    private long count;                           // 전체 건수
+    private Map<String, Long> alarmTypeCounts;    // alarm_type 별 건수 (사고는 "3")
+    private Map<String, Long> recognizedTypeCounts; // recognized_type (사고는 accident_type) 별 건수
+}
@@ -0,0 +1,69 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * 지도 이력 키셋 페이지 커서 (?after=)
+ * 정렬 순서: createdAt 내림차순 → kind 내림차순(같은 시각이면 사고 먼저) → id 내림차순
+ */
+@Getter
+public class MapCursor {
+
+    public static final int KIND_ALARM = 0;
+    public static final int KIND_ACCIDENT = 1;
+
+    // 첫 페이지: 모든 행보다 뒤에 있는 가상의 위치
+    private static final MapCursor FIRST = new MapCursor(Timestamp.valueOf("9999-12-31 23:59:59"), 2, Long.MAX_VALUE);
+
+    private final Timestamp createdAt;
+    private final int kind;
+    private final long id;
+
+    public MapCursor(Timestamp createdAt, int kind, long id) {
+        this.createdAt = createdAt;
+        this.kind = kind;
+        this.id = id;
+    }
+
+    public static MapCursor first() {
+        return FIRST;
+    }
+
+    /**
+     * 해당 종류 테이블에서 (created_at, id) < (createdAt, 반환값) 조건에 쓸 id 경계
+     */
+    public long idBoundFor(int rowKind) {
+        if (rowKind < kind) {
+            return Long.MAX_VALUE;  // 같은 시각의 행은 모두 아직 안 보냄
+        }
+        if (rowKind > kind) {
+            return Long.MIN_VALUE;  // 같은 시각의 행은 이미 모두 보냄
+        }
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() / 1000 + "." + createdAt.getNanos() + ":" + kind + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 잘못된 경우
+     */
+    public static MapCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            String[] time = parts[0].split("\\.");
+            Timestamp createdAt = new Timestamp(Long.parseLong(time[0]) * 1000);
+            createdAt.setNanos(Integer.parseInt(time[1]));
+            return new MapCursor(createdAt, Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+}
@@ -17,4 +17,19 @@ public class MapDataResponse {
 
     // 모든 낙상 사고 데이터
     private List<AccidentDTO> fallingAccidents;
+
+    // 다음 페이지 커서 (?after=), 마지막 페이지면 null
+    private String nextCursor;
+
+    // 격자 클러스터 (zoom 이 원본 표시 기준보다 낮을 때만, 이때 위 목록은 비어 있음)
+    private List<MapClusterDTO> clusters;
+
+    // 변경 커서 (?since=), 다음 요청에 넘기면 그 이후 추가분만 받는다
+    private String syncCursor;
+
+    // true 면 since 이후 추가분만 담긴 응답
+    private boolean delta;
+
+    // 실패/시간 초과로 빠진 출처 (redis, accidents, alarms), 모두 읽었으면 null
+    private List<String> partialSources;
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 지도 변경 커서 (?since=)
+ * 응답 시점까지 반영된 위치: 날짜, DB 사고 ID 최댓값, 오늘 Redis 리스트 키별 읽은 길이
+ * 같은 날 안에서는 값이 줄지 않으며, 날짜가 바뀌면(자정 적재) 전체를 다시 받아야 한다.
+ */
+@Getter
+public class MapSyncCursor {
+
+    private final LocalDate date;
+    private final long accidentId;
+    private final Map<String, Long> listLengths;
+
+    public MapSyncCursor(LocalDate date, long accidentId, Map<String, Long> listLengths) {
+        this.date = date;
+        this.accidentId = accidentId;
+        this.listLengths = new TreeMap<>(listLengths);  // 같은 상태면 같은 문자열이 되도록 정렬
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder().append(date).append('|').append(accidentId).append('|');
+        listLengths.forEach((key, length) -> raw.append(key).append('=').append(length).append(','));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 잘못된 경우
+     */
+    public static MapSyncCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            Map<String, Long> lengths = new TreeMap<>();
+            for (String entry : parts[2].split(",")) {
+                if (!entry.isEmpty()) {
+                    int eq = entry.lastIndexOf('=');
+                    lengths.put(entry.substring(0, eq), Long.parseLong(entry.substring(eq + 1)));
+                }
+            }
+            return new MapSyncCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]), lengths);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync cursor: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.event.dto.stat;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class StatRangeResponseDto {
+    private String granularity;           // minute, hour, day, month
+    private LocalDateTime from;           // 구간 경계로 맞춘 조회 시작 (포함)
+    private LocalDateTime to;             // 구간 경계로 맞춘 조회 끝 (제외)
+    private Long site;                    // 현장 ID (null = 전체)
+    private List<StatGroupDto> buckets;   // 건수가 있는 구간만, 시간순 (key 예: "2025-04-01:15:30", "2025-04-01:15", "2025-04-01", "2025-04")
+}
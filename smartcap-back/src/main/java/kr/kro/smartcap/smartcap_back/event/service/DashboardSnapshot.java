@@ -0,0 +1,202 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatResponseDto;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatUpdateDto;
+import kr.kro.smartcap.smartcap_back.stats.service.StatKeyLifecycle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대시보드 통계(/api/events/dashboard)의 메모리 스냅샷
+ * 기동 시, 통계 재생성 후에 Redis 에서 한 번 읽어 만들고(EventService.loadStatHashes), 그 사이에는
+ * StatCounterBuffer 가 Redis 에 반영한 값(HINCRBY 결과)을 그대로 받아 갱신한다.
+ *
+ * 요청에는 직렬화해 둔 바이트 배열을 내려준다. 변경이 있거나 시간이 바뀌면(만료 키 제거) 다음 요청에서
+ * 한 번만 다시 직렬화하고, 그동안 들어온 다른 요청은 그 결과를 기다린다.
+ */
+@Slf4j
+@Component
+public class DashboardSnapshot {
+
+    private static final DateTimeFormatter HOUR_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd:HH");
+
+    private final EventService eventService;
+    private final StatKeyLifecycle statKeyLifecycle;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Object rebuildLock = new Object();
+    private final Object serializeLock = new Object();
+
+    // 아래 상태는 this 로 동기화
+    private final Map<String, Map<String, Map<String, Long>>> groups = new HashMap<>();
+    private volatile long version;  // 변경마다 증가 (쓰기는 this 안에서)
+    private boolean ready = false;
+
+    // 다시 만드는 동안 반영된 값 (다시 만든 뒤 한 번 더 반영)
+    private List<StatUpdateDto> pending;
+
+    private volatile Serialized serialized;
+
+    public DashboardSnapshot(EventService eventService,
+                             StatKeyLifecycle statKeyLifecycle,
+                             ObjectMapper objectMapper,
+                             @Value("${dashboard.snapshot.enabled:true}") boolean enabled) {
+        this.eventService = eventService;
+        this.statKeyLifecycle = statKeyLifecycle;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        EventService.SCOPES.forEach(scope -> groups.put(scope, new HashMap<>()));
+    }
+
+    /**
+     * 직렬화된 대시보드 응답(JSON). 스냅샷이 준비되지 않았으면 null (직접 조회)
+     */
+    public byte[] bytes() {
+        String hour = currentHour();
+        Serialized current = serialized;
+        if (current != null && current.version() == version && current.hour().equals(hour)) {
+            return current.bytes();
+        }
+        // 캐시가 비었을 때 직렬화는 한 요청만 (나머지는 기다렸다가 같은 결과를 받음)
+        synchronized (serializeLock) {
+            StatResponseDto response;
+            long builtVersion;
+            synchronized (this) {
+                if (!ready) {
+                    return null;
+                }
+                current = serialized;
+                if (current != null && current.version() == version && current.hour().equals(hour)) {
+                    return current.bytes();
+                }
+                pruneExpired();
+                builtVersion = version;
+                response = EventService.toResponse(groups);
+            }
+            try {
+                byte[] bytes = objectMapper.writeValueAsBytes(response);
+                serialized = new Serialized(builtVersion, hour, bytes);
+                return bytes;
+            } catch (JsonProcessingException e) {
+                log.error("Dashboard snapshot serialization failed: {}", e.getMessage(), e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 응답 객체 (JSON 이 아닌 형식으로 쓸 때). 스냅샷이 준비되지 않았으면 null
+     */
+    public synchronized StatResponseDto response() {
+        if (!ready) {
+            return null;
+        }
+        pruneExpired();
+        return EventService.toResponse(groups);
+    }
+
+    /**
+     * Redis 에서 다시 만든다. (기동 시, 통계 재생성 후)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+
+            Map<String, Map<String, Map<String, Long>>> loaded;
+            try {
+                loaded = eventService.loadStatHashes();
+            } catch (RuntimeException e) {
+                log.error("Dashboard snapshot rebuild failed: {}", e.getMessage(), e);
+                synchronized (this) {
+                    pending = null;
+                }
+                return;
+            }
+
+            synchronized (this) {
+                groups.clear();
+                groups.putAll(loaded);
+
+                // 읽기 전에 반영된 값일 수도 있으므로 큰 값만 (같은 키 안에서 통계는 줄지 않음)
+                List<StatUpdateDto> missed = pending;
+                pending = null;
+                missed.forEach(update -> set(update, true));
+
+                ready = true;
+                version++;
+            }
+            log.info("Dashboard snapshot rebuilt: hours={}, days={}, months={}",
+                    loaded.get("hour").size(), loaded.get("day").size(), loaded.get("month").size());
+        }
+    }
+
+    /**
+     * StatCounterBuffer 가 Redis 에 반영한 값 (newValue = HINCRBY 결과)
+     */
+    public synchronized void apply(List<StatUpdateDto> updates) {
+        if (!enabled || updates.isEmpty()) {
+            return;
+        }
+        updates.forEach(update -> set(update, false));
+        if (pending != null) {
+            pending.addAll(updates);
+        }
+        version++;
+    }
+
+    private void set(StatUpdateDto update, boolean keepLarger) {
+        Map<String, Map<String, Long>> scope = groups.get(update.getScope());
+        if (scope == null) {
+            return;
+        }
+        Map<String, Long> fields = scope.computeIfAbsent(
+                EventService.groupKey(update.getScope(), update.getKey()), k -> new HashMap<>());
+        if (keepLarger) {
+            fields.merge(update.getField(), update.getNewValue(), Math::max);
+        } else {
+            fields.put(update.getField(), update.getNewValue());
+        }
+    }
+
+    /**
+     * Redis 에서 만료됐을 통계 제거 (만료 시각은 StatKeyLifecycle 과 동일)
+     */
+    private void pruneExpired() {
+        long now = System.currentTimeMillis() / 1000;
+        boolean removed = false;
+        for (String scope : EventService.SCOPES) {
+            removed |= groups.get(scope).keySet().removeIf(key -> {
+                long expireAt = statKeyLifecycle.expireAt(scope, "summary:" + scope + ":" + key);
+                return expireAt > 0 && expireAt <= now;
+            });
+        }
+        if (removed) {
+            version++;
+        }
+    }
+
+    private static String currentHour() {
+        return LocalDateTime.now().format(HOUR_KEY);
+    }
+
+    private record Serialized(long version, String hour, byte[] bytes) {
+    }
+}
@@ -1,66 +1,116 @@
 package kr.kro.smartcap.smartcap_back.event.service;
 
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
 import kr.kro.smartcap.smartcap_back.event.dto.stat.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.HashOperations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventService {
+
+    static final List<String> SCOPES = List.of("hour", "day", "month");
+
     private final RedisTemplate<String, String> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
 
+    /**
+     * Redis 에서 바로 조회 (스냅샷이 준비되지 않은 경우, DashboardSnapshot 참고)
+     */
     public StatResponseDto getDashboardSummary() {
-        List<StatGroupDto> hourlyStats = getStatGroups("summary:hour:", "hour");
-        List<StatGroupDto> dailyStats = getStatGroups("summary:day:", "day");
-        List<StatGroupDto> monthlyStats = getStatGroups("summary:month:", "month");
+        return toResponse(loadStatHashes());
+    }
 
-        // 시간순으로 정렬
-        hourlyStats.sort(Comparator.comparing(StatGroupDto::getKey, Comparator.reverseOrder()));
-        dailyStats.sort(Comparator.comparing(StatGroupDto::getKey, Comparator.reverseOrder()));
-        monthlyStats.sort(Comparator.comparing(StatGroupDto::getKey, Comparator.reverseOrder()));
+    /**
+     * 시간/일/월 통계 키 전체를 읽는다. 키 목록은 인덱스에서, 값은 HGETALL 파이프라인 한 번으로.
+     *
+     * @return scope(hour, day, month) -> 그룹 키("2025-04-01:15" 등, 접두어 제외) -> 필드 -> 건수
+     */
+    public Map<String, Map<String, Map<String, Long>>> loadStatHashes() {
+        List<String> scopes = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (String scope : SCOPES) {
+            for (String key : redisKeyIndex.keys(familyOf(scope), null)) {
+                scopes.add(scope);
+                keys.add(key);
+            }
+        }
+
+        List<Object> hashes = keys.isEmpty() ? List.of() : redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            keys.forEach(conn::hGetAll);
+            return null;
+        });
+
+        Map<String, Map<String, Map<String, Long>>> result = new HashMap<>();
+        SCOPES.forEach(scope -> result.put(scope, new HashMap<>()));
+        for (int i = 0; i < keys.size(); i++) {
+            if (!(hashes.get(i) instanceof Map<?, ?> hash) || hash.isEmpty()) {
+                continue;  // 인덱스에는 있지만 만료된 키
+            }
+            Map<String, Long> fields = new HashMap<>();
+            try {
+                hash.forEach((field, count) -> fields.put(String.valueOf(field), Long.parseLong(String.valueOf(count))));
+            } catch (NumberFormatException e) {
+                log.error("Invalid stat hash skipped: key={}, error={}", keys.get(i), e.getMessage());
+                continue;
+            }
+            result.get(scopes.get(i)).put(groupKey(scopes.get(i), keys.get(i)), fields);
+        }
+        return result;
+    }
 
+    /**
+     * 그룹 키 최신순 정렬
+     */
+    static StatResponseDto toResponse(Map<String, Map<String, Map<String, Long>>> hashes) {
         return StatResponseDto.builder()
-                .hourlyStats(hourlyStats)
-                .dailyStats(dailyStats)
-                .monthlyStats(monthlyStats)
+                .hourlyStats(toGroups(hashes.get("hour"), "hour"))
+                .dailyStats(toGroups(hashes.get("day"), "day"))
+                .monthlyStats(toGroups(hashes.get("month"), "month"))
                 .build();
     }
 
+    /**
+     * summary:hour:2025-04-01:15 -> 2025-04-01:15
+     */
+    static String groupKey(String scope, String key) {
+        return key.substring(("summary:" + scope + ":").length());
+    }
 
-    private List<StatGroupDto> getStatGroups(String keyPrefix, String scope) {
-        Set<String> keys = redisTemplate.keys(keyPrefix + "*");
-        if (keys == null) return Collections.emptyList();
-
-        List<StatGroupDto> result = new ArrayList<>();
-        HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+    private static List<StatGroupDto> toGroups(Map<String, Map<String, Long>> groups, String scope) {
+        if (groups == null || groups.isEmpty()) return Collections.emptyList();
 
-        for (String key : keys) {
-            try{
-                Map<String, String> statMap = hashOps.entries(key);
-                List<StatEntryDto> stats = statMap.entrySet().stream()
+        List<StatGroupDto> result = new ArrayList<>(groups.size());
+        groups.forEach((key, fields) -> result.add(StatGroupDto.builder()
+                .key(key)
+                .scope(scope)
+                .stats(fields.entrySet().stream()
                         .map(entry -> StatEntryDto.builder()
                                 .field(entry.getKey())
-                                .count(Long.parseLong(entry.getValue()))
+                                .count(entry.getValue())
                                 .build())
-                        .collect(Collectors.toList());
-                result.add(StatGroupDto.builder()
-                        .key(key.replace(keyPrefix, ""))
-                        .scope(scope)
-                        .stats(stats)
-                        .build());
-            } catch (Exception e) {
-                System.err.println("[Redis 에러] key = " + key + ", type = " + redisTemplate.type(key));
-                e.printStackTrace(); // 전체 스택도 출력
-            }
-        }
+                        .toList())
+                .build()));
 
         // 시간순으로 결과 정렬해서 반환
         result.sort(Comparator.comparing(StatGroupDto::getKey, Comparator.reverseOrder()));
         return result;
     }
-}
\ No newline at end of file
+
+    private static KeyFamily familyOf(String scope) {
+        return switch (scope) {
+            case "hour" -> KeyFamily.SUMMARY_HOUR;
+            case "day" -> KeyFamily.SUMMARY_DAY;
+            default -> KeyFamily.SUMMARY_MONTH;
+        };
+    }
+}
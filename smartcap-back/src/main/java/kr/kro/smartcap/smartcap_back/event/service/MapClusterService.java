@@ -0,0 +1,234 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.GpsDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapBounds;
+import kr.kro.smartcap.smartcap_back.event.dto.MapCellRow;
+import kr.kro.smartcap.smartcap_back.event.dto.MapClusterDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지도 줌 레벨별 격자 클러스터
+ * 타일(256px) 한 칸을 CELLS_PER_TILE x CELLS_PER_TILE 격자로 나눠, 격자 칸마다 건수와 종류별 건수를 집계한다.
+ *
+ * 지난 날짜(자정 적재 이후 바뀌지 않음)는 날짜 x 줌 단위로 전체 영역 집계를 캐시하고, 영역(bbox)은 캐시에서 거른다.
+ * 오늘, 기간 경계에 걸친 일부 구간은 매번 DB 에서 영역 조건으로 집계하고, Redis 의 오늘 데이터를 더한다.
+ */
+@Slf4j
+@Service
+public class MapClusterService {
+
+    // 타일 하나를 4x4 칸으로 (약 64px 격자)
+    private static final int CELLS_PER_TILE = 4;
+
+    private final AccidentHistoryRepository accidentHistoryRepository;
+    private final AlarmHistoryRepository alarmHistoryRepository;
+    private final int rawZoom;
+
+    // "yyyy-MM-dd:zoom" → 그날 전체 영역 격자 집계 (LRU)
+    private final Map<String, List<CellCount>> dayCache;
+
+    public MapClusterService(AccidentHistoryRepository accidentHistoryRepository,
+                             AlarmHistoryRepository alarmHistoryRepository,
+                             @Value("${map.cluster.raw-zoom:16}") int rawZoom,
+                             @Value("${map.cluster.cache-size:512}") int cacheSize) {
+        this.accidentHistoryRepository = accidentHistoryRepository;
+        this.alarmHistoryRepository = alarmHistoryRepository;
+        this.rawZoom = rawZoom;
+        this.dayCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CellCount>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * zoom 이 원본 표시 기준(map.cluster.raw-zoom)보다 낮으면 클러스터로 내려준다.
+     */
+    public boolean shouldCluster(Integer zoom) {
+        return zoom != null && zoom < rawZoom;
+    }
+
+    /**
+     * @param todayAlarms Redis 의 오늘 데이터 (기간, 영역으로 이미 거른 목록)
+     */
+    public List<MapClusterDTO> cluster(LocalDateTime since, LocalDateTime until, MapBounds bounds,
+                                       int zoom, List<AlarmDTO> todayAlarms) {
+        int z = Math.max(0, Math.min(zoom, rawZoom - 1));
+        double cell = 360.0 / (1L << z) / CELLS_PER_TILE;
+        MapBounds area = bounds != null ? bounds : MapBounds.WORLD;
+        LocalDate today = LocalDate.now();
+
+        Map<Long, Cluster> clusters = new HashMap<>();
+        List<LocalDate> missingDays = new ArrayList<>();
+
+        // 기간을 하루 단위로 나눈다: 온전히 포함된 지난 날은 캐시, 나머지는 영역 조건으로 직접 집계
+        LocalDateTime from = since;
+        while (from.isBefore(until)) {
+            LocalDateTime dayStart = from.toLocalDate().atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            LocalDateTime to = dayEnd.isBefore(until) ? dayEnd : until;
+
+            boolean wholePastDay = from.equals(dayStart) && to.equals(dayEnd) && dayStart.toLocalDate().isBefore(today);
+            if (wholePastDay) {
+                List<CellCount> cached = dayCache.get(cacheKey(dayStart.toLocalDate(), z));
+                if (cached != null) {
+                    addAll(clusters, cached, area);
+                } else {
+                    missingDays.add(dayStart.toLocalDate());
+                }
+            } else {
+                addAll(clusters, loadCells(from, to, cell, area), area);
+            }
+            from = to;
+        }
+
+        if (!missingDays.isEmpty()) {
+            // 캐시에 없는 날은 한 번에 집계해 날짜별로 나눠 캐시
+            LocalDate first = missingDays.get(0);
+            LocalDate last = missingDays.get(missingDays.size() - 1);
+            Map<LocalDate, List<CellCount>> byDay = new HashMap<>();
+            for (CellCount c : loadCells(first.atStartOfDay(), last.plusDays(1).atStartOfDay(), cell, MapBounds.WORLD)) {
+                byDay.computeIfAbsent(c.day, d -> new ArrayList<>()).add(c);
+            }
+            for (LocalDate day : missingDays) {
+                List<CellCount> cells = byDay.getOrDefault(day, List.of());
+                dayCache.put(cacheKey(day, z), cells);
+                addAll(clusters, cells, area);
+            }
+            log.debug("Map cluster cache filled: zoom={}, days={}", z, missingDays.size());
+        }
+
+        for (AlarmDTO alarm : todayAlarms) {
+            if (alarm.getGps() == null) {
+                continue;
+            }
+            double lng = alarm.getGps().getCoordinates()[0];
+            double lat = alarm.getGps().getCoordinates()[1];
+            clusters.computeIfAbsent(cellKey((long) Math.floor(lng / cell), (long) Math.floor(lat / cell)), k -> new Cluster())
+                    .add(alarm.getAlarm_type(), alarm.getRecognized_type(), 1, lng, lat);
+        }
+
+        List<MapClusterDTO> result = new ArrayList<>(clusters.size());
+        for (Cluster c : clusters.values()) {
+            result.add(c.toDTO());
+        }
+        result.sort(Comparator.comparingLong(MapClusterDTO::getCount).reversed());
+        return result;
+    }
+
+    /**
+     * 자정 적재가 끝난 날짜의 캐시를 비운다. (적재 전에 집계된 값일 수 있으므로)
+     */
+    public void evictDay(LocalDate day) {
+        String prefix = day + ":";
+        synchronized (dayCache) {
+            dayCache.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private List<CellCount> loadCells(LocalDateTime since, LocalDateTime until, double cell, MapBounds area) {
+        Timestamp from = Timestamp.valueOf(since);
+        Timestamp to = Timestamp.valueOf(until);
+        List<CellCount> cells = new ArrayList<>();
+        for (MapCellRow row : accidentHistoryRepository.aggregateMapCells(from, to, cell,
+                area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat())) {
+            cells.add(new CellCount(row));
+        }
+        for (MapCellRow row : alarmHistoryRepository.aggregateMapCells(from, to, cell,
+                area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat())) {
+            cells.add(new CellCount(row));
+        }
+        return cells;
+    }
+
+    private static void addAll(Map<Long, Cluster> clusters, List<CellCount> cells, MapBounds area) {
+        for (CellCount c : cells) {
+            // 캐시는 전체 영역이므로 칸 무게중심 기준으로 영역을 거른다
+            if (area.contains(c.sumLng / c.count, c.sumLat / c.count)) {
+                clusters.computeIfAbsent(cellKey(c.cellX, c.cellY), k -> new Cluster())
+                        .add(c.alarmType, c.recognizedType, c.count, c.sumLng, c.sumLat);
+            }
+        }
+    }
+
+    private static long cellKey(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+    }
+
+    private static String cacheKey(LocalDate day, int zoom) {
+        return day + ":" + zoom;
+    }
+
+    /**
+     * 격자 칸 x 종류 집계 1건 (캐시 보관용)
+     */
+    private static final class CellCount {
+        final LocalDate day;
+        final long cellX;
+        final long cellY;
+        final String alarmType;
+        final String recognizedType;
+        final long count;
+        final double sumLng;
+        final double sumLat;
+
+        CellCount(MapCellRow row) {
+            this.day = row.getDay().toLocalDate();
+            this.cellX = row.getCellX();
+            this.cellY = row.getCellY();
+            this.alarmType = row.getAlarmType();
+            this.recognizedType = row.getRecognizedType();
+            this.count = row.getCnt();
+            this.sumLng = row.getSumLng();
+            this.sumLat = row.getSumLat();
+        }
+    }
+
+    /**
+     * 격자 칸 하나의 누적값
+     */
+    private static final class Cluster {
+        long count;
+        double sumLng;
+        double sumLat;
+        final Map<String, Long> alarmTypeCounts = new HashMap<>();
+        final Map<String, Long> recognizedTypeCounts = new HashMap<>();
+
+        void add(String alarmType, String recognizedType, long n, double lng, double lat) {
+            count += n;
+            sumLng += lng;
+            sumLat += lat;
+            alarmTypeCounts.merge(String.valueOf(alarmType), n, Long::sum);
+            recognizedTypeCounts.merge(String.valueOf(recognizedType), n, Long::sum);
+        }
+
+        MapClusterDTO toDTO() {
+            GpsDTO gps = new GpsDTO();
+            gps.setType("Point");
+            gps.setCoordinates(new double[]{sumLng / count, sumLat / count});
+            return MapClusterDTO.builder()
+                    .gps(gps)
+                    .count(count)
+                    .alarmTypeCounts(alarmTypeCounts)
+                    .recognizedTypeCounts(recognizedTypeCounts)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentMapRow;
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmMapRow;
+import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import kr.kro.smartcap.smartcap_back.common.codec.RedisEventCodec;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.dto.AccidentDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.GpsDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapBounds;
+import kr.kro.smartcap.smartcap_back.event.dto.MapCursor;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import kr.kro.smartcap.smartcap_back.event.dto.MapSyncCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 지도 화면 데이터 조회
+ * - 오늘 데이터: Redis (첫 페이지에만 포함)
+ * - 지난 데이터: DB, 기간 안에서 최신순 키셋 페이지 (사고 + 알람)
+ * 출처별 조회는 mapQueryExecutor 에서 동시에 실행하며, 제한 시간 안에 못 읽은 출처는 빼고 partialSources 에 표시한다.
+ * 제한 시간이 지난 조회는 작업 스레드를 인터럽트해 멈추고(Redis 명령은 인터럽트 시 취소),
+ * DB 조회는 제한 시간을 트랜잭션 타임아웃(JDBC statement timeout)으로도 걸어 스레드를 오래 잡지 않게 한다.
+ * 실행기 대기열이 가득 차면 요청 스레드에서 대신 실행하지 않고 해당 출처를 partialSources 로 표시한다.
+ * bbox 를 지정하면 DB 는 GiST 인덱스(gps && envelope)로, Redis 데이터는 메모리에서 같은 영역으로 거른다.
+ */
+@Slf4j
+@Service
+public class MapDataService {
+
+    public static final int DEFAULT_DAYS = 7;
+    public static final int MAX_DAYS = 90;
+    public static final int DEFAULT_LIMIT = 2000;
+    public static final int MAX_LIMIT = 10000;
+
+    static final String SOURCE_REDIS = "redis";
+    static final String SOURCE_ACCIDENTS = "accidents";
+    static final String SOURCE_ALARMS = "alarms";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
+    private final AccidentHistoryRepository accidentHistoryRepository;
+    private final AlarmHistoryRepository alarmHistoryRepository;
+    private final MapClusterService mapClusterService;
+    private final ThreadPoolTaskExecutor mapQueryExecutor;
+    private final TransactionTemplate sourceTransaction;
+
+    // 출처(Redis, 사고 이력, 알람 이력)별 제한 시간, 넘으면 해당 출처를 빼고 응답
+    private final long sourceTimeoutMs;
+
+    public MapDataService(RedisTemplate<String, byte[]> redisTemplate,
+                          RedisKeyIndex redisKeyIndex,
+                          AccidentHistoryRepository accidentHistoryRepository,
+                          AlarmHistoryRepository alarmHistoryRepository,
+                          MapClusterService mapClusterService,
+                          ThreadPoolTaskExecutor mapQueryExecutor,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${map.query.source-timeout-ms:3000}") long sourceTimeoutMs) {
+        this.redisTemplate = redisTemplate;
+        this.redisKeyIndex = redisKeyIndex;
+        this.accidentHistoryRepository = accidentHistoryRepository;
+        this.alarmHistoryRepository = alarmHistoryRepository;
+        this.mapClusterService = mapClusterService;
+        this.mapQueryExecutor = mapQueryExecutor;
+        this.sourceTimeoutMs = sourceTimeoutMs;
+        // 트랜잭션 안의 JPA 쿼리에는 남은 시간이 statement timeout 으로 걸린다 (초 단위라 올림)
+        this.sourceTransaction = new TransactionTemplate(transactionManager);
+        this.sourceTransaction.setReadOnly(true);
+        this.sourceTransaction.setTimeout((int) Math.max(1, (sourceTimeoutMs + 999) / 1000));
+    }
+
+    /**
+     * @param after 이전 응답의 nextCursor (없으면 첫 페이지)
+     * @param limit 페이지 크기 (DB 이력 기준)
+     * @param days  조회 기간 (일, from 이 없을 때 사용)
+     * @param from  조회 시작 시각 (포함, 없으면 now - days)
+     * @param to    조회 끝 시각 (제외, 없으면 now)
+     * @param bounds 지도 영역 (null 이면 전체)
+     * @param zoom  지도 줌 레벨 (낮으면 원본 대신 격자 클러스터, null 이면 원본)
+     * @param sinceCursor 이전 응답의 syncCursor. 같은 날짜면 그 이후 추가된 이벤트만 내려준다 (delta = true)
+     * @throws IllegalArgumentException 커서 형식이나 기간이 잘못된 경우
+     */
+    public MapDataResponse getMapData(String after, int limit, int days,
+                                      LocalDateTime from, LocalDateTime to, MapBounds bounds, Integer zoom,
+                                      String sinceCursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        LocalDateTime[] range = resolveRange(days, from, to);
+        LocalDateTime since = range[0];
+        LocalDateTime until = range[1];
+        boolean firstPage = after == null || after.isBlank();
+        MapCursor cursor = firstPage ? MapCursor.first() : MapCursor.decode(after);
+        MapSyncCursor sync = sinceCursor != null && !sinceCursor.isBlank() ? MapSyncCursor.decode(sinceCursor) : null;
+
+        // 줌이 낮으면 원본 대신 격자 클러스터 (페이지 없음)
+        if (mapClusterService.shouldCluster(zoom)) {
+            List<AlarmDTO> today = loadTodayAlarms(since, until, bounds, Map.of(), new HashMap<>());
+            return MapDataResponse.builder()
+                    .recentAlarms(new ArrayList<>())
+                    .fallingAccidents(new ArrayList<>())
+                    .clusters(mapClusterService.cluster(since, until, bounds, zoom, today))
+                    .build();
+        }
+
+        // 같은 날의 변경 커서면 그 이후 추가분만 (날짜가 바뀌었으면 리스트 키가 바뀌므로 전체)
+        if (sync != null && firstPage && sync.getDate().equals(LocalDate.now())) {
+            return loadAddedSince(sync, since, until, bounds);
+        }
+
+        // 세 출처를 동시에 읽고, 제한 시간 안에 못 읽은 출처는 빼고 응답 (partialSources)
+        Timestamp sinceAt = Timestamp.valueOf(since);
+        Timestamp untilAt = Timestamp.valueOf(until);
+        MapBounds area = bounds != null ? bounds : MapBounds.WORLD;
+
+        // 1. 오늘 데이터 (Redis)는 첫 페이지에만
+        Future<TodayAlarms> todayFuture = firstPage
+                ? submit(() -> {
+                    Map<String, Long> lengths = new HashMap<>();
+                    return new TodayAlarms(loadTodayAlarms(since, until, bounds, Map.of(), lengths), lengths);
+                })
+                : CompletableFuture.completedFuture(new TodayAlarms(new ArrayList<>(), Map.of()));
+
+        // 2. 지난 데이터 (DB). 변경 커서 기준점(사고 ID 최댓값)은 같은 작업에서 사고 목록보다 먼저 읽는다
+        //    (그 사이 추가분은 다음 변경분에 중복될 수 있지만 빠지지는 않음)
+        Future<AccidentPage> accidentFuture = submitQuery(() -> {
+            long mark = accidentHistoryRepository.findMaxAccidentId();
+            return new AccidentPage(mark, accidentHistoryRepository.findMapRows(
+                    sinceAt, untilAt, cursor.getCreatedAt(), cursor.idBoundFor(MapCursor.KIND_ACCIDENT),
+                    area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat(), pageSize + 1));
+        });
+        Future<List<AlarmMapRow>> alarmFuture = submitQuery(() -> alarmHistoryRepository.findMapRows(
+                sinceAt, untilAt, cursor.getCreatedAt(), cursor.idBoundFor(MapCursor.KIND_ALARM),
+                area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat(), pageSize + 1));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sourceTimeoutMs);
+        List<String> partial = new ArrayList<>();
+        TodayAlarms today = await(todayFuture, SOURCE_REDIS, deadline, partial);
+        AccidentPage accidents = await(accidentFuture, SOURCE_ACCIDENTS, deadline, partial);
+        List<AlarmMapRow> alarms = await(alarmFuture, SOURCE_ALARMS, deadline, partial);
+
+        List<AccidentDTO> history = new ArrayList<>();
+        String nextCursor = mergeHistory(accidents != null ? accidents.rows() : List.of(),
+                alarms != null ? alarms : List.of(), pageSize, history);
+
+        return MapDataResponse.builder()
+                .recentAlarms(today != null ? today.alarms() : new ArrayList<>())
+                .fallingAccidents(history)
+                // 한쪽 이력이 빠진 페이지에서 이어 받으면 빠진 쪽 행을 건너뛰므로 커서를 주지 않는다
+                .nextCursor(accidents != null && alarms != null ? nextCursor : null)
+                .syncCursor(firstPage && today != null && accidents != null
+                        ? new MapSyncCursor(LocalDate.now(), accidents.mark(), today.lengths()).encode()
+                        : null)
+                .partialSources(partial.isEmpty() ? null : partial)
+                .build();
+    }
+
+    /**
+     * 출처 조회를 실행기에 등록 (취소 시 작업 스레드를 인터럽트하는 FutureTask)
+     * 대기열이 가득 차 거절되면 실패한 Future 를 돌려주어 해당 출처를 partialSources 로 표시한다.
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return mapQueryExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * DB 출처 조회 (제한 시간을 트랜잭션 타임아웃으로 걸어 인터럽트에 반응하지 않는 JDBC 호출도 멈추게 함)
+     */
+    private <T> Future<T> submitQuery(Callable<T> query) {
+        return submit(() -> sourceTransaction.execute(status -> {
+            try {
+                return query.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    /**
+     * 출처 하나의 결과를 공통 마감 시각까지 기다린다. 실패/시간 초과면 null 을 반환하고 partial 에 이름을 남긴다.
+     */
+    private <T> T await(Future<T> future, String source, long deadline, List<String> partial) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 실행 중인 조회 스레드를 인터럽트해 멈춤
+            future.cancel(true);
+            log.warn("Map source timed out: source={}, timeoutMs={}", source, sourceTimeoutMs);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TaskRejectedException) {
+                log.warn("Map source skipped, query executor is full: source={}", source);
+            } else {
+                log.error("Map source failed: source={}, error={}", source, e.getCause().getMessage(), e.getCause());
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        partial.add(source);
+        return null;
+    }
+
+    private record TodayAlarms(List<AlarmDTO> alarms, Map<String, Long> lengths) {
+    }
+
+    private record AccidentPage(long mark, List<AccidentMapRow> rows) {
+    }
+
+    /**
+     * 변경 커서 이후 추가된 이벤트: Redis 리스트는 읽은 길이 이후, DB 사고는 ID 이후
+     */
+    private MapDataResponse loadAddedSince(MapSyncCursor sync, LocalDateTime since, LocalDateTime until,
+                                           MapBounds bounds) {
+        MapBounds area = bounds != null ? bounds : MapBounds.WORLD;
+        long accidentMark = accidentHistoryRepository.findMaxAccidentId();
+        Map<String, Long> lengths = new HashMap<>(sync.getListLengths());
+
+        List<AlarmDTO> recentAlarms = loadTodayAlarms(since, until, bounds, sync.getListLengths(), lengths);
+
+        List<AccidentMapRow> rows = accidentHistoryRepository.findMapRowsAddedAfter(sync.getAccidentId(),
+                Timestamp.valueOf(since), Timestamp.valueOf(until),
+                area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat(), MAX_LIMIT);
+        List<AccidentDTO> accidents = new ArrayList<>(rows.size());
+        rows.forEach(row -> accidents.add(toAccidentDTO(row)));
+        if (rows.size() == MAX_LIMIT) {
+            // 다 못 내려준 경우 마지막으로 내려준 ID 까지만 반영
+            accidentMark = rows.get(rows.size() - 1).getAccidentId();
+        }
+
+        return MapDataResponse.builder()
+                .recentAlarms(recentAlarms)
+                .fallingAccidents(accidents)
+                .syncCursor(new MapSyncCursor(sync.getDate(), Math.max(accidentMark, sync.getAccidentId()), lengths).encode())
+                .delta(true)
+                .build();
+    }
+
+    /**
+     * 조회 기간 [since, until) 계산
+     *
+     * @throws IllegalArgumentException 기간이 비었거나 MAX_DAYS 를 넘는 경우
+     */
+    static LocalDateTime[] resolveRange(int days, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        LocalDateTime since = from != null ? from : until.minusDays(Math.max(1, Math.min(days, MAX_DAYS)));
+        if (!since.isBefore(until) || since.isBefore(until.minusDays(MAX_DAYS))) {
+            throw new IllegalArgumentException("Invalid range: " + since + " ~ " + until);
+        }
+        return new LocalDateTime[]{since, until};
+    }
+
+    /**
+     * Redis에 있는 오늘의 사고/알람
+     *
+     * @param offsets 리스트 키별 시작 위치 (이전 응답까지 읽은 길이, 없으면 처음부터)
+     * @param lengths 리스트 키별로 이번에 읽은 끝 위치를 기록
+     */
+    List<AlarmDTO> loadTodayAlarms(LocalDateTime since, LocalDateTime until, MapBounds bounds,
+                                   Map<String, Long> offsets, Map<String, Long> lengths) {
+        List<AlarmDTO> recentAlarms = new ArrayList<>();
+        String today = LocalDate.now().toString();
+
+        // 사고 리스트, 알람 리스트 순서 (원소는 RedisEventCodec 형식)
+        for (KeyFamily family : List.of(KeyFamily.ACCIDENT, KeyFamily.ALARM)) {
+            for (String key : redisKeyIndex.keys(family, today)) {
+                long start = offsets.getOrDefault(key, 0L);
+                List<byte[]> payloads = redisTemplate.opsForList().range(key, start, -1);
+                if (payloads == null) {
+                    continue;
+                }
+                for (int i = 0; i < payloads.size(); i++) {
+                    AlarmDTO alarmDto = decodeRedisEvent(payloads.get(i), key, start + i);
+                    if (alarmDto != null) {
+                        recentAlarms.add(alarmDto);
+                    }
+                }
+                lengths.put(key, start + payloads.size());
+            }
+        }
+
+        return recentAlarms.stream()
+                .filter(alarm -> alarm.getCreated_at() != null
+                        && !alarm.getCreated_at().isBefore(since)
+                        && alarm.getCreated_at().isBefore(until))
+                .filter(alarm -> bounds == null || (alarm.getGps() != null
+                        && bounds.contains(alarm.getGps().getCoordinates()[0], alarm.getGps().getCoordinates()[1])))
+                .limit(MAX_LIMIT)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * DB 사고/알람을 최신순으로 합쳐 pageSize 건을 채운다.
+     * 각 테이블에서 pageSize + 1 건씩 읽어 합친 결과가 pageSize 보다 많으면 다음 페이지가 있다.
+     *
+     * @return 다음 페이지 커서, 마지막 페이지면 null
+     */
+    private String mergeHistory(List<AccidentMapRow> accidents, List<AlarmMapRow> alarms, int pageSize,
+                                List<AccidentDTO> out) {
+        int i = 0, j = 0;
+        MapCursor last = null;
+        while (out.size() < pageSize && (i < accidents.size() || j < alarms.size())) {
+            // 같은 시각이면 사고 먼저 (MapCursor 정렬 순서와 동일)
+            boolean takeAccident = j >= alarms.size()
+                    || (i < accidents.size()
+                        && !accidents.get(i).getCreatedAt().before(alarms.get(j).getCreatedAt()));
+            if (takeAccident) {
+                AccidentMapRow row = accidents.get(i++);
+                out.add(toAccidentDTO(row));
+                last = new MapCursor(row.getCreatedAt(), MapCursor.KIND_ACCIDENT, row.getAccidentId());
+            } else {
+                AlarmMapRow row = alarms.get(j++);
+                out.add(toAccidentDTO(row));
+                last = new MapCursor(row.getCreatedAt(), MapCursor.KIND_ALARM, row.getAlarmId());
+            }
+        }
+
+        boolean hasMore = i < accidents.size() || j < alarms.size();
+        return hasMore && last != null ? last.encode() : null;
+    }
+
+    private AccidentDTO toAccidentDTO(AccidentMapRow row) {
+        AccidentDTO dto = new AccidentDTO();
+        dto.setAccident_id(row.getAccidentId());
+        dto.setAlarm_id(row.getAccidentId()); // 알람 ID로도 사용
+        dto.setConstruction_sites_id(row.getConstructionSitesId());
+        dto.setAlarm_type("3");
+        dto.setRecognized_type(row.getAccidentType());
+        dto.setWeather(row.getWeather());
+        dto.setCreated_at(row.getCreatedAt().toLocalDateTime());
+        dto.setGps(toGps(row.getLng(), row.getLat()));
+
+        if (row.getAccidentVideoId() != null) {
+            dto.setAccident_video_id(row.getAccidentVideoId());
+            dto.setVideo_url(row.getVideoUrl());
+        } else {
+            // 기본 비디오 정보 설정 (데이터가 없는 경우)
+            dto.setAccident_video_id(row.getAccidentId() + 500); // 임의의 비디오 ID
+            dto.setVideo_url("/sample-fall-video.mp4"); // 기본 샘플 비디오 URL
+        }
+        return dto;
+    }
+
+    private AccidentDTO toAccidentDTO(AlarmMapRow row) {
+        AccidentDTO dto = new AccidentDTO();
+        dto.setAlarm_id(row.getAlarmId());
+        dto.setConstruction_sites_id(row.getConstructionSitesId());
+        dto.setAlarm_type(row.getAlarmType());
+        dto.setRecognized_type(row.getRecognizedType());
+        dto.setWeather(row.getWeather());
+        dto.setCreated_at(row.getCreatedAt().toLocalDateTime());
+        dto.setGps(toGps(row.getLng(), row.getLat()));
+        return dto;
+    }
+
+    /**
+     * Redis 알람 DTO를 지도용 AlarmDTO로 변환 (id 는 eventId)
+     */
+    static AlarmDTO toAlarmDTO(AlarmHistoryRedisDto redisDto, long id) {
+        AlarmDTO alarmDto = new AlarmDTO();
+        alarmDto.setAlarm_id(id);
+
+        alarmDto.setConstruction_sites_id(redisDto.getConstructionSitesId());
+
+        // GPS 데이터 설정
+        if (redisDto.getLat() != 0.0 && redisDto.getLng() != 0.0) {
+            GpsDTO gpsDto = new GpsDTO();
+            gpsDto.setType("Point");
+            gpsDto.setCoordinates(new double[] {redisDto.getLng(), redisDto.getLat()});
+            alarmDto.setGps(gpsDto);
+        }
+
+        alarmDto.setAlarm_type(redisDto.getAlarmType());
+        alarmDto.setRecognized_type(redisDto.getRecognizedType());
+        alarmDto.setWeather(redisDto.getWeather());
+
+        // 날짜 변환
+        if (redisDto.getCreatedAt() != null) {
+            alarmDto.setCreated_at(redisDto.getCreatedAt().toLocalDateTime());
+        } else {
+            alarmDto.setCreated_at(LocalDateTime.now());
+        }
+
+        // 추가 정보
+        alarmDto.setSite_name("역삼역 공사장");
+        alarmDto.setConstruction_status("진행중");
+        return alarmDto;
+    }
+
+    /**
+     * Redis 알람의 ID: 적재 시 발급한 이벤트 ID (자정 적재 후 DB ID 와 같음)
+     * 발급 ID 가 없는 이전 데이터는 redisEventId 로 대신한다.
+     */
+    static long eventId(AlarmHistoryRedisDto alarm, String key, long index) {
+        return alarm.getAlarmId() != null ? alarm.getAlarmId() : redisEventId(key, index);
+    }
+
+    /**
+     * ID 가 없는 Redis 이벤트의 고정 ID: 리스트 키 + 위치로 만든다. (요청마다 같은 값, DB ID 와 겹치지 않도록 음수)
+     * 자정 적재 후에는 DB ID 로 바뀐다.
+     */
+    static long redisEventId(String key, long index) {
+        UUID uuid = UUID.nameUUIDFromBytes((key + "#" + index).getBytes(StandardCharsets.UTF_8));
+        return -(uuid.getMostSignificantBits() & Long.MAX_VALUE) - 1;
+    }
+
+    static GpsDTO toGps(Double lng, Double lat) {
+        if (lng == null || lat == null) {
+            return null;
+        }
+        GpsDTO gps = new GpsDTO();
+        gps.setType("Point");
+        gps.setCoordinates(new double[]{lng, lat});
+        return gps;
+    }
+
+    /**
+     * Redis 리스트 원소를 지도용 AlarmDTO로 변환. 읽을 수 없는 원소는 건너뛴다. (null)
+     */
+    private AlarmDTO decodeRedisEvent(byte[] payload, String key, long index) {
+        Object event;
+        try {
+            event = RedisEventCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping unreadable Redis event: key={}, index={}, error={}", key, index, e.getMessage());
+            return null;
+        }
+        if (event instanceof AlarmHistoryRedisDto alarm) {
+            return toAlarmDTO(alarm, eventId(alarm, key, index));
+        }
+        AccidentHistoryRedisDto accident = (AccidentHistoryRedisDto) event;
+        return toAlarmDTO(accident, accident.getAccidentId() != null
+                ? accident.getAccidentId() : redisEventId(key, index));
+    }
+
+    private static AlarmDTO toAlarmDTO(AccidentHistoryRedisDto redisDto, long id) {
+        AlarmDTO alarmDto = new AlarmDTO();
+        alarmDto.setAlarm_id(id);
+        alarmDto.setConstruction_sites_id(redisDto.getConstructionSitesId());
+
+        // GPS 데이터 설정
+        if (redisDto.getLat() != 0.0 && redisDto.getLng() != 0.0) {
+            GpsDTO gpsDto = new GpsDTO();
+            gpsDto.setType("Point");
+            gpsDto.setCoordinates(new double[] {redisDto.getLng(), redisDto.getLat()});
+            alarmDto.setGps(gpsDto);
+        }
+
+        alarmDto.setAlarm_type("Accident");
+        alarmDto.setRecognized_type(redisDto.getAccidentType());
+        alarmDto.setWeather(redisDto.getWeather());
+        alarmDto.setCreated_at(redisDto.getCreatedAt() != null
+                ? redisDto.getCreatedAt().toLocalDateTime() : LocalDateTime.now());
+
+        // 추가 정보
+        alarmDto.setSite_name("역삼역 공사장");
+        alarmDto.setConstruction_status("진행중");
+        return alarmDto;
+    }
+}
@@ -0,0 +1,299 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.kro.smartcap.smartcap_back.accident.entity.AccidentHistory;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.event.dto.AccidentDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.GpsDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapCursor;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import kr.kro.smartcap.smartcap_back.event.dto.MapSyncCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 기본 지도 요청(파라미터 없음: 최근 7일, 첫 페이지)의 메모리 스냅샷
+ * 기동 시, 자정 적재 후에 Redis/DB 로 다시 만들고, 그 사이에는 알람/사고 적재 시 바로 반영한다.
+ *
+ * 요청에는 직렬화해 둔 바이트 배열을 그대로 내려준다. 변경이 있으면 다음 요청에서 한 번만 다시 직렬화한다.
+ * 크기는 오늘 알람 MAX_LIMIT 건, 이력 DEFAULT_LIMIT 건으로 제한되며 7일이 지난 항목은 직렬화 시 제거한다.
+ */
+@Slf4j
+@Component
+public class MapSnapshot {
+
+    private final MapDataService mapDataService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Object rebuildLock = new Object();
+
+    // 아래 상태는 this 로 동기화
+    private final List<AlarmDTO> recentAlarms = new ArrayList<>();
+    private final List<AccidentDTO> history = new ArrayList<>();
+    private final Set<Long> alarmIds = new HashSet<>();
+    private final Map<String, Long> listLengths = new HashMap<>();
+    private LocalDate date;
+    private long accidentMark;
+    private boolean hasMore;
+    private boolean ready = false;
+
+    // 다시 만드는 동안 들어온 적재분 (다시 만든 뒤 한 번 더 반영)
+    private List<Runnable> pending;
+
+    private volatile byte[] bytes;
+    private volatile LocalDateTime oldest;
+
+    public MapSnapshot(MapDataService mapDataService,
+                       ObjectMapper objectMapper,
+                       @Value("${map.snapshot.enabled:true}") boolean enabled) {
+        this.mapDataService = mapDataService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 직렬화된 기본 지도 응답. 스냅샷이 준비되지 않았으면 null (직접 조회)
+     */
+    public byte[] bytes() {
+        byte[] current = bytes;
+        LocalDateTime first = oldest;
+        if (current != null && (first == null || !first.isBefore(cutoff()))) {
+            return current;
+        }
+        return serialize();
+    }
+
+    /**
+     * Redis/DB 에서 다시 만든다. (기동 시, 자정 적재 후)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            doRebuild();
+        }
+    }
+
+    private void doRebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+
+        MapDataResponse loaded;
+        try {
+            loaded = mapDataService.getMapData(null, MapDataService.DEFAULT_LIMIT, MapDataService.DEFAULT_DAYS,
+                    null, null, null, null, null);
+        } catch (RuntimeException e) {
+            loaded = null;
+            log.error("Map snapshot rebuild failed: {}", e.getMessage(), e);
+        }
+        if (loaded != null && loaded.getPartialSources() != null) {
+            // 일부 출처가 빠진 결과로는 만들지 않음 (이전 스냅샷 유지)
+            log.warn("Map snapshot rebuild skipped: partialSources={}", loaded.getPartialSources());
+            loaded = null;
+        }
+        if (loaded == null) {
+            synchronized (this) {
+                pending = null;
+            }
+            return;
+        }
+        MapSyncCursor sync = MapSyncCursor.decode(loaded.getSyncCursor());
+
+        synchronized (this) {
+            recentAlarms.clear();
+            alarmIds.clear();
+            for (AlarmDTO alarm : loaded.getRecentAlarms()) {
+                if (alarmIds.add(alarm.getAlarm_id())) {
+                    recentAlarms.add(alarm);
+                }
+            }
+            history.clear();
+            history.addAll(loaded.getFallingAccidents());
+            listLengths.clear();
+            listLengths.putAll(sync.getListLengths());
+            date = sync.getDate();
+            accidentMark = sync.getAccidentId();
+            hasMore = loaded.getNextCursor() != null;
+
+            List<Runnable> missed = pending;
+            pending = null;
+            missed.forEach(Runnable::run);
+
+            ready = true;
+            bytes = null;
+        }
+        log.info("Map snapshot rebuilt: alarms={}, history={}", recentAlarms.size(), history.size());
+    }
+
+    /**
+     * 알람 적재 반영 (ID 는 MapDataService.eventId 와 동일)
+     */
+    public synchronized void addAlarm(String listKey, long listLength, AlarmHistoryRedisDto alarm) {
+        if (!enabled) {
+            return;
+        }
+        Runnable apply = () -> {
+            long id = MapDataService.eventId(alarm, listKey, listLength - 1);
+            if (!alarmIds.add(id)) {
+                return;
+            }
+            recentAlarms.add(MapDataService.toAlarmDTO(alarm, id));
+            listLengths.merge(listKey, listLength, Math::max);
+            if (recentAlarms.size() > MapDataService.MAX_LIMIT) {
+                alarmIds.remove(recentAlarms.remove(0).getAlarm_id());
+            }
+            bytes = null;
+        };
+        apply.run();
+        if (pending != null) {
+            pending.add(apply);
+        }
+    }
+
+    /**
+     * 사고 적재 반영 (이력 맨 앞에 추가)
+     */
+    public synchronized void addAccident(AccidentHistory accident) {
+        if (!enabled) {
+            return;
+        }
+        if (accident.getGps() == null) {
+            return;  // 위치가 없으면 지도에 표시하지 않음 (DB 조회와 동일)
+        }
+        Runnable apply = () -> {
+            for (AccidentDTO existing : history) {
+                if (accident.getAccidentId().equals(existing.getAccident_id())) {
+                    return;
+                }
+            }
+            history.add(0, toAccidentDTO(accident));
+            accidentMark = Math.max(accidentMark, accident.getAccidentId());
+            if (history.size() > MapDataService.DEFAULT_LIMIT) {
+                history.remove(history.size() - 1);
+                hasMore = true;
+            }
+            bytes = null;
+        };
+        apply.run();
+        if (pending != null) {
+            pending.add(apply);
+        }
+    }
+
+    /**
+     * 사고 영상 생성 완료 반영
+     */
+    public synchronized void updateVideo(Long accidentId, Long accidentVideoId, String videoUrl) {
+        if (!enabled) {
+            return;
+        }
+        Runnable apply = () -> {
+            for (AccidentDTO existing : history) {
+                if (accidentId.equals(existing.getAccident_id())) {
+                    existing.setAccident_video_id(accidentVideoId);
+                    existing.setVideo_url(videoUrl);
+                    bytes = null;
+                    return;
+                }
+            }
+        };
+        apply.run();
+        if (pending != null) {
+            pending.add(apply);
+        }
+    }
+
+    private synchronized byte[] serialize() {
+        if (!ready) {
+            return null;
+        }
+        LocalDateTime cutoff = cutoff();
+        if (bytes != null && (oldest == null || !oldest.isBefore(cutoff))) {
+            return bytes;  // 다른 요청이 먼저 직렬화함
+        }
+
+        // 7일 지난 항목 제거
+        recentAlarms.removeIf(alarm -> {
+            boolean expired = alarm.getCreated_at().isBefore(cutoff);
+            if (expired) {
+                alarmIds.remove(alarm.getAlarm_id());
+            }
+            return expired;
+        });
+        if (history.removeIf(accident -> accident.getCreated_at().isBefore(cutoff))) {
+            hasMore = false;  // 잘린 뒤쪽도 모두 기간 밖
+        }
+
+        LocalDateTime first = null;
+        for (AlarmDTO alarm : recentAlarms) {
+            first = first == null || alarm.getCreated_at().isBefore(first) ? alarm.getCreated_at() : first;
+        }
+        if (!history.isEmpty()) {
+            LocalDateTime last = history.get(history.size() - 1).getCreated_at();
+            first = first == null || last.isBefore(first) ? last : first;
+        }
+
+        MapDataResponse response = MapDataResponse.builder()
+                .recentAlarms(recentAlarms)
+                .fallingAccidents(history)
+                .nextCursor(hasMore && !history.isEmpty() ? cursorOf(history.get(history.size() - 1)).encode() : null)
+                .syncCursor(new MapSyncCursor(date, accidentMark, listLengths).encode())
+                .build();
+        try {
+            bytes = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.error("Map snapshot serialization failed: {}", e.getMessage(), e);
+            return null;
+        }
+        oldest = first;
+        return bytes;
+    }
+
+    private static LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(MapDataService.DEFAULT_DAYS);
+    }
+
+    private static MapCursor cursorOf(AccidentDTO row) {
+        Timestamp createdAt = Timestamp.valueOf(row.getCreated_at());
+        return row.getAccident_id() != null
+                ? new MapCursor(createdAt, MapCursor.KIND_ACCIDENT, row.getAccident_id())
+                : new MapCursor(createdAt, MapCursor.KIND_ALARM, row.getAlarm_id());
+    }
+
+    private static AccidentDTO toAccidentDTO(AccidentHistory accident) {
+        AccidentDTO dto = new AccidentDTO();
+        dto.setAccident_id(accident.getAccidentId());
+        dto.setAlarm_id(accident.getAccidentId()); // 알람 ID로도 사용
+        dto.setConstruction_sites_id(accident.getConstructionSitesId());
+        dto.setAlarm_type("3");
+        dto.setRecognized_type(accident.getAccidentType());
+        dto.setWeather(accident.getWeather());
+        dto.setCreated_at(accident.getCreatedAt().toLocalDateTime());
+        GpsDTO gps = new GpsDTO();
+        gps.setType("Point");
+        gps.setCoordinates(new double[]{accident.getGps().getX(), accident.getGps().getY()});
+        dto.setGps(gps);
+        // 영상은 생성 완료 시 updateVideo 로 채움 (그 전에는 기본 샘플)
+        dto.setAccident_video_id(accident.getAccidentId() + 500);
+        dto.setVideo_url("/sample-fall-video.mp4");
+        return dto;
+    }
+}
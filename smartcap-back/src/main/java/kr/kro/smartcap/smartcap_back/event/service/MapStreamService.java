@@ -0,0 +1,167 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.kro.smartcap.smartcap_back.event.dto.AccidentDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지도 데이터 NDJSON 스트리밍 (Accept: application/x-ndjson)
+ * 목록과 응답 객체를 다 만든 뒤 쓰는 대신, DB 커서(fetch size)로 읽은 행을 변환하는 즉시 한 줄씩 쓴다.
+ * 기간 크기와 상관없이 힙 사용량은 fetch size 만큼으로 일정하다.
+ *
+ * 줄 형식:
+ *   {"section":"recentAlarms","event":{AlarmDTO}}       오늘 데이터 (Redis)
+ *   {"section":"fallingAccidents","event":{AccidentDTO}} 지난 데이터 (DB, 최신순)
+ *   {"section":"end","count":N}                         마지막 줄 (없으면 중간에 끊긴 응답)
+ */
+@Service
+public class MapStreamService {
+
+    // 사고 + 알람을 한 번에 최신순으로 (각 테이블의 created_at 인덱스 순서로 읽어 합칠 수 있음)
+    private static final String HISTORY_SQL = """
+            SELECT 1 AS kind, a.accident_id AS id, a.construction_sites_id, '3' AS alarm_type,
+                   a.accident_type AS recognized_type, a.weather, a.created_at,
+                   ST_X(a.gps) AS lng, ST_Y(a.gps) AS lat, v.accident_video_id, v.video_url
+            FROM accident_history a
+            LEFT JOIN LATERAL (
+                SELECT av.accident_video_id, av.video_url
+                FROM accident_videos av
+                WHERE av.accident_id = a.accident_id
+                ORDER BY av.accident_video_id
+                LIMIT 1
+            ) v ON TRUE
+            WHERE a.created_at >= ? AND a.created_at < ?
+              AND a.gps && ST_MakeEnvelope(?, ?, ?, ?, 4326)
+            UNION ALL
+            SELECT 0 AS kind, a.alarm_id AS id, a.construction_sites_id, a.alarm_type,
+                   a.recognized_type, a.weather, a.created_at,
+                   ST_X(a.gps) AS lng, ST_Y(a.gps) AS lat, NULL, NULL
+            FROM alarm_history a
+            WHERE a.created_at >= ? AND a.created_at < ?
+              AND a.gps && ST_MakeEnvelope(?, ?, ?, ?, 4326)
+            ORDER BY created_at DESC, kind DESC, id DESC
+            """;
+
+    private final MapDataService mapDataService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushEvery;
+
+    public MapStreamService(MapDataService mapDataService,
+                            ObjectMapper objectMapper,
+                            DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${map.stream.fetch-size:500}") int fetchSize) {
+        this.mapDataService = mapDataService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL 은 autocommit 이 꺼진 트랜잭션 안에서만 fetch size 단위 커서로 읽는다
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.flushEvery = fetchSize;
+    }
+
+    /**
+     * @throws UncheckedIOException 클라이언트 연결이 끊긴 경우 등
+     */
+    public void stream(int days, LocalDateTime from, LocalDateTime to, MapBounds bounds, OutputStream out)
+            throws IOException {
+        LocalDateTime[] range = MapDataService.resolveRange(days, from, to);
+        MapBounds area = bounds != null ? bounds : MapBounds.WORLD;
+
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        // 줄마다 값 하나 (구분자는 writeRaw 로 쓰는 줄바꿈), flush 는 fetch size 단위로만
+        json.setRootValueSeparator(null);
+        long[] count = {0};
+
+        // 1. 오늘 데이터 (Redis, 최대 MAX_LIMIT 건)
+        List<AlarmDTO> today = mapDataService.loadTodayAlarms(range[0], range[1], bounds, Map.of(), new HashMap<>());
+        for (AlarmDTO alarm : today) {
+            writeLine(json, "recentAlarms", alarm);
+            count[0]++;
+        }
+        json.flush();
+
+        // 2. 지난 데이터 (DB 커서)
+        Timestamp since = Timestamp.valueOf(range[0]);
+        Timestamp until = Timestamp.valueOf(range[1]);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(HISTORY_SQL, (ResultSet rs) -> {
+            try {
+                writeLine(json, "fallingAccidents", toAccidentDTO(rs));
+                if (++count[0] % flushEvery == 0) {
+                    json.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, since, until, area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat(),
+                since, until, area.getMinLng(), area.getMinLat(), area.getMaxLng(), area.getMaxLat()));
+
+        json.writeStartObject();
+        json.writeStringField("section", "end");
+        json.writeNumberField("count", count[0]);
+        json.writeEndObject();
+        json.writeRaw('\n');
+        json.flush();
+    }
+
+    private static void writeLine(JsonGenerator json, String section, Object event) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("section", section);
+        json.writeObjectField("event", event);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    /**
+     * MapDataService.toAccidentDTO 와 같은 형식 (kind 1 = 사고, 0 = 알람)
+     */
+    private static AccidentDTO toAccidentDTO(ResultSet rs) throws SQLException {
+        AccidentDTO dto = new AccidentDTO();
+        long id = rs.getLong("id");
+        boolean accident = rs.getInt("kind") == 1;
+
+        dto.setAlarm_id(id);
+        dto.setConstruction_sites_id(rs.getObject("construction_sites_id", Long.class));
+        dto.setAlarm_type(rs.getString("alarm_type"));
+        dto.setRecognized_type(rs.getString("recognized_type"));
+        dto.setWeather(rs.getString("weather"));
+        dto.setCreated_at(rs.getTimestamp("created_at").toLocalDateTime());
+        dto.setGps(MapDataService.toGps(rs.getObject("lng", Double.class), rs.getObject("lat", Double.class)));
+
+        if (accident) {
+            dto.setAccident_id(id);
+            Long videoId = rs.getObject("accident_video_id", Long.class);
+            if (videoId != null) {
+                dto.setAccident_video_id(videoId);
+                dto.setVideo_url(rs.getString("video_url"));
+            } else {
+                // 기본 비디오 정보 설정 (데이터가 없는 경우)
+                dto.setAccident_video_id(id + 500);
+                dto.setVideo_url("/sample-fall-video.mp4");
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,264 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.common.codec.RedisEventCodec;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatEntryDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatGroupDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatRangeResponseDto;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBucketRow;
+import kr.kro.smartcap.smartcap_back.stats.service.StatRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 기간/단위별 통계 조회 (/api/events/stats)
+ * Redis 통계 키는 보관 기간(시간 4일, 일 120일)이 지나면 사라지므로, 지난 구간은 DB(StatRollupService)에서 읽고
+ * 오늘 알람(자정 적재 전까지 Redis 에만 있음)은 Redis 리스트에서 세어 합친다. 사고는 바로 DB 에 저장되므로 모두 DB.
+ *
+ * 지난 구간(오늘 0시 이전)은 바뀌지 않으므로 단위 x 현장 x 캐시 단위(일, 월 단위 조회는 월) 별로 집계를 캐시한다.
+ * 자정 적재가 끝나면 어제가 포함된 캐시를 비운다. (MapClusterService 와 동일)
+ */
+@Slf4j
+@Service
+public class StatRangeService {
+
+    public static final int MAX_BUCKETS = 10000;
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES, "yyyy-MM-dd:HH:mm"),
+        HOUR(ChronoUnit.HOURS, "yyyy-MM-dd:HH"),
+        DAY(ChronoUnit.DAYS, "yyyy-MM-dd"),
+        MONTH(ChronoUnit.MONTHS, "yyyy-MM");
+
+        private final ChronoUnit unit;
+        private final DateTimeFormatter format;
+
+        Granularity(ChronoUnit unit, String pattern) {
+            this.unit = unit;
+            this.format = DateTimeFormatter.ofPattern(pattern);
+        }
+
+        /**
+         * @throws IllegalArgumentException 알 수 없는 단위
+         */
+        public static Granularity parse(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+
+        // date_trunc 단위
+        String sqlUnit() {
+            return name().toLowerCase();
+        }
+
+        LocalDateTime truncate(LocalDateTime value) {
+            return StatRangeService.truncate(value, unit);
+        }
+
+        // 캐시 단위: 월 단위 조회는 월, 나머지는 일
+        ChronoUnit cacheUnit() {
+            return this == MONTH ? ChronoUnit.MONTHS : ChronoUnit.DAYS;
+        }
+    }
+
+    private final StatRollupService statRollupService;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
+
+    // "캐시 단위 시작|단위|현장" → 구간 시작 → 필드 → 건수 (LRU)
+    private final Map<String, Map<LocalDateTime, Map<String, Long>>> unitCache;
+
+    public StatRangeService(StatRollupService statRollupService,
+                            RedisTemplate<String, byte[]> redisTemplate,
+                            RedisKeyIndex redisKeyIndex,
+                            @Value("${stat.range.cache-size:2048}") int cacheSize) {
+        this.statRollupService = statRollupService;
+        this.redisTemplate = redisTemplate;
+        this.redisKeyIndex = redisKeyIndex;
+        this.unitCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<LocalDateTime, Map<String, Long>>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * from 은 구간 시작으로 내리고 to 는 구간 끝으로 올린다. (기본: 최근 하루, 시간 단위)
+     *
+     * @throws IllegalArgumentException 단위를 모르거나, 기간이 비었거나, 구간 수가 MAX_BUCKETS 를 넘는 경우
+     */
+    public StatRangeResponseDto getStats(LocalDateTime from, LocalDateTime to, String granularity, Long site) {
+        Granularity g = Granularity.parse(granularity);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime since = g.truncate(from != null ? from : end.minusDays(1));
+        LocalDateTime until = g.truncate(end).equals(end) ? end : g.truncate(end).plus(1, g.unit);
+        if (!since.isBefore(until) || g.unit.between(since, until) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Invalid stat range: " + since + " ~ " + until + " (" + g + ")");
+        }
+
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        ChronoUnit cacheUnit = g.cacheUnit();
+        Map<LocalDateTime, Map<String, Long>> counts = new TreeMap<>();
+        List<LocalDateTime> missingUnits = new ArrayList<>();
+
+        // 기간을 캐시 단위로 나눈다: 온전히 포함된 지난 단위는 캐시, 나머지는 직접 집계
+        LocalDateTime cursor = since;
+        while (cursor.isBefore(until)) {
+            LocalDateTime unitStart = truncate(cursor, cacheUnit);
+            LocalDateTime unitEnd = unitStart.plus(1, cacheUnit);
+            LocalDateTime segmentEnd = unitEnd.isBefore(until) ? unitEnd : until;
+
+            boolean wholePastUnit = cursor.equals(unitStart) && segmentEnd.equals(unitEnd) && !unitEnd.isAfter(today);
+            if (wholePastUnit) {
+                Map<LocalDateTime, Map<String, Long>> cached = unitCache.get(cacheKey(unitStart, g, site));
+                if (cached != null) {
+                    addAll(counts, cached);
+                } else {
+                    missingUnits.add(unitStart);
+                }
+            } else {
+                addAll(counts, loadDb(g, cursor, segmentEnd, site, today));
+            }
+            cursor = segmentEnd;
+        }
+
+        if (!missingUnits.isEmpty()) {
+            // 캐시에 없는 단위는 한 번에 집계해 단위별로 나눠 캐시
+            LocalDateTime first = missingUnits.get(0);
+            LocalDateTime last = missingUnits.get(missingUnits.size() - 1).plus(1, cacheUnit);
+            Map<LocalDateTime, Map<LocalDateTime, Map<String, Long>>> byUnit = new HashMap<>();
+            loadDb(g, first, last, site, today).forEach((bucket, fields) ->
+                    byUnit.computeIfAbsent(truncate(bucket, cacheUnit), u -> new HashMap<>()).put(bucket, fields));
+            for (LocalDateTime unitStart : missingUnits) {
+                Map<LocalDateTime, Map<String, Long>> part = byUnit.getOrDefault(unitStart, Map.of());
+                unitCache.put(cacheKey(unitStart, g, site), part);
+                addAll(counts, part);
+            }
+            log.debug("Stat range cache filled: granularity={}, site={}, units={}", g, site, missingUnits.size());
+        }
+
+        if (until.isAfter(today)) {
+            addAll(counts, loadTodayAlarms(g, since.isAfter(today) ? since : today, until, site));
+        }
+
+        List<StatGroupDto> buckets = new ArrayList<>(counts.size());
+        counts.forEach((bucket, fields) -> buckets.add(StatGroupDto.builder()
+                .key(bucket.format(g.format))
+                .scope(g.sqlUnit())
+                .stats(fields.entrySet().stream()
+                        .map(entry -> StatEntryDto.builder()
+                                .field(entry.getKey())
+                                .count(entry.getValue())
+                                .build())
+                        .toList())
+                .build()));
+
+        return StatRangeResponseDto.builder()
+                .granularity(g.sqlUnit())
+                .from(since)
+                .to(until)
+                .site(site)
+                .buckets(buckets)
+                .build();
+    }
+
+    /**
+     * 자정 적재가 끝난 날짜가 포함된 캐시(그날, 그 달)를 비운다. (적재 전에 집계된 값일 수 있으므로)
+     */
+    public void evictDay(LocalDate day) {
+        String dayPrefix = day.atStartOfDay() + "|";
+        String monthPrefix = day.withDayOfMonth(1).atStartOfDay() + "|" + Granularity.MONTH + "|";
+        synchronized (unitCache) {
+            unitCache.keySet().removeIf(key -> key.startsWith(dayPrefix) || key.startsWith(monthPrefix));
+        }
+    }
+
+    /**
+     * DB 집계 [since, until) (집계 테이블 + 원본 테이블). 오늘 알람은 Redis 에서 세므로 알람은 today 이전까지만.
+     */
+    private Map<LocalDateTime, Map<String, Long>> loadDb(Granularity g, LocalDateTime since, LocalDateTime until,
+                                                         Long site, LocalDateTime today) {
+        Map<LocalDateTime, Map<String, Long>> result = new HashMap<>();
+        for (StatBucketRow row : statRollupService.aggregate(g.sqlUnit(), since, until, today, site)) {
+            add(result, row.getBucket().toLocalDateTime(), field(row.getRecognizedType(), row.getAlarmType()),
+                    row.getCnt());
+        }
+        return result;
+    }
+
+    /**
+     * Redis 의 오늘 알람 리스트 [since, until)
+     */
+    private Map<LocalDateTime, Map<String, Long>> loadTodayAlarms(Granularity g, LocalDateTime since,
+                                                                  LocalDateTime until, Long site) {
+        Map<LocalDateTime, Map<String, Long>> result = new HashMap<>();
+        String sitePrefix = site != null ? "alarm:" + site + ":" : null;
+
+        for (String key : redisKeyIndex.keys(KeyFamily.ALARM, LocalDate.now().toString())) {
+            if (sitePrefix != null && !key.startsWith(sitePrefix)) {
+                continue;
+            }
+            List<byte[]> payloads = redisTemplate.opsForList().range(key, 0, -1);
+            if (payloads == null) {
+                continue;
+            }
+            for (byte[] payload : payloads) {
+                AlarmHistoryRedisDto alarm;
+                try {
+                    alarm = (AlarmHistoryRedisDto) RedisEventCodec.decode(payload);
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    log.warn("Redis alarm entry skipped: key={}, error={}", key, e.getMessage());
+                    continue;
+                }
+                if (alarm.getCreatedAt() == null) {
+                    continue;
+                }
+                LocalDateTime createdAt = alarm.getCreatedAt().toLocalDateTime();
+                if (createdAt.isBefore(since) || !createdAt.isBefore(until)) {
+                    continue;
+                }
+                add(result, g.truncate(createdAt), field(alarm.getRecognizedType(), alarm.getAlarmType()), 1);
+            }
+        }
+        return result;
+    }
+
+    // RedisStatService.formatField 와 같은 형식
+    private static String field(String recognizedType, String alarmType) {
+        return recognizedType + ":" + alarmType;
+    }
+
+    private static void add(Map<LocalDateTime, Map<String, Long>> counts, LocalDateTime bucket, String field, long n) {
+        counts.computeIfAbsent(bucket, b -> new HashMap<>()).merge(field, n, Long::sum);
+    }
+
+    private static void addAll(Map<LocalDateTime, Map<String, Long>> counts, Map<LocalDateTime, Map<String, Long>> part) {
+        part.forEach((bucket, fields) -> fields.forEach((field, n) -> add(counts, bucket, field, n)));
+    }
+
+    private static String cacheKey(LocalDateTime unitStart, Granularity g, Long site) {
+        return unitStart + "|" + g + "|" + site;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime value, ChronoUnit unit) {
+        return unit == ChronoUnit.MONTHS
+                ? value.toLocalDate().withDayOfMonth(1).atStartOfDay()
+                : value.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,45 @@
+package kr.kro.smartcap.smartcap_back.ingest.controller;
+
+import kr.kro.smartcap.smartcap_back.ingest.dto.DeadLetterDto;
+import kr.kro.smartcap.smartcap_back.ingest.dto.StageMetricsDto;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ingest")
+@RequiredArgsConstructor
+public class IngestMetricsController {
+
+    private final IngestPipeline ingestPipeline;
+
+    /**
+     * 적재 파이프라인 단계별 큐 깊이 및 지연 시간
+     */
+    @GetMapping("/metrics")
+    public List<StageMetricsDto> getMetrics() {
+        return ingestPipeline.getMetrics();
+    }
+
+    /**
+     * 재시도 후에도 처리하지 못한 이벤트 목록
+     */
+    @GetMapping("/dead-letters")
+    public List<DeadLetterDto> getDeadLetters() {
+        return ingestPipeline.getDeadLetters();
+    }
+
+    /**
+     * dead-letter 이벤트를 실패한 단계부터 다시 처리
+     */
+    @PostMapping("/dead-letters/replay")
+    public Map<String, Integer> replayDeadLetters() {
+        return Map.of("replayed", ingestPipeline.replayDeadLetters());
+    }
+}
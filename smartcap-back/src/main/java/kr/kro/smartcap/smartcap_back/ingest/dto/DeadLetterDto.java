@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.ingest.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+@Builder
+public class DeadLetterDto {
+    private long id;
+    private String stage;       // 실패한 단계 (재처리 시 이 단계부터 다시 실행)
+    private String event;       // 이벤트 요약 (종류, 장치, 현장, 이벤트 ID)
+    private int attempts;       // 시도 횟수
+    private String error;       // 마지막 예외
+    private Timestamp failedAt;
+}
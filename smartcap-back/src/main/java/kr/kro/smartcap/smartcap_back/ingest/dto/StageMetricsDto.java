@@ -0,0 +1,20 @@
+package kr.kro.smartcap.smartcap_back.ingest.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StageMetricsDto {
+    private String stage;             // validate, enrich, persist, stats, fan-out
+    private int queueDepth;           // 현재 대기 중인 이벤트 수
+    private int queueCapacity;        // 큐 최대 크기
+    private long processed;           // 처리 성공 건수
+    private long failed;              // 처리 실패 건수 (재시도 포함 시도 단위)
+    private long rejected;            // 큐가 가득 차 거절된 건수
+    private long retried;             // 실패 후 다시 실행한 횟수
+    private long deadLettered;        // 재시도 후에도 실패해 dead-letter 로 옮긴 건수
+    private double avgWaitMillis;     // 큐 평균 대기 시간
+    private double avgServiceMillis;  // 평균 처리 시간
+    private double maxServiceMillis;  // 최대 처리 시간
+}
@@ -0,0 +1,72 @@
+package kr.kro.smartcap.smartcap_back.ingest.id;
+
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 알람/사고 이벤트 ID 발급 (적재 시 1회, Redis 리스트 - SSE - DB 행까지 같은 값)
+ * Redis 카운터(INCRBY)로 blockSize 개씩 ID 블록을 받아 두고 메모리에서 나눠 주므로, 대부분의 발급은 네트워크 호출이 없다.
+ *
+ * 알람과 사고는 같은 ID 공간을 쓰며, 카운터가 없으면 DB 의 최대 ID 이후부터 시작한다.
+ * 한 프로세스 안에서는 발급 순서대로 증가한다. (여러 인스턴스가 동시에 발급하면 인스턴스 간 순서는 보장하지 않음)
+ */
+@Slf4j
+@Component
+public class EventIdAllocator {
+
+    private static final RedisScript<Long> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/event_id_block.lua"), Long.class);
+
+    static final String COUNTER_KEY = "id:event";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final AlarmHistoryRepository alarmHistoryRepository;
+    private final AccidentHistoryRepository accidentHistoryRepository;
+    private final int blockSize;
+
+    // 아래 상태는 this 로 동기화
+    private long next = 0;
+    private long end = -1;
+    private long seed = -1;
+
+    public EventIdAllocator(RedisTemplate<String, String> redisTemplate,
+                            AlarmHistoryRepository alarmHistoryRepository,
+                            AccidentHistoryRepository accidentHistoryRepository,
+                            @Value("${event.id.block-size:1000}") int blockSize) {
+        this.redisTemplate = redisTemplate;
+        this.alarmHistoryRepository = alarmHistoryRepository;
+        this.accidentHistoryRepository = accidentHistoryRepository;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized long next() {
+        if (next > end) {
+            refill();
+        }
+        return next++;
+    }
+
+    private void refill() {
+        if (seed < 0) {
+            // 카운터가 없을 때만 쓰이지만, 스크립트 안에서 DB 를 볼 수 없으므로 프로세스당 한 번 미리 읽어 둔다
+            seed = Math.max(alarmHistoryRepository.findMaxAlarmId(), accidentHistoryRepository.findMaxAccidentId());
+        }
+        // 카운터가 사라진 경우에도 이미 나눠 준 ID 이하로 내려가지 않도록
+        long start = Math.max(seed, end);
+        Long last = redisTemplate.execute(SCRIPT, List.of(COUNTER_KEY), String.valueOf(start), String.valueOf(blockSize));
+        if (last == null) {
+            throw new IllegalStateException("Event ID block allocation returned no value");
+        }
+        next = last - blockSize + 1;
+        end = last;
+        log.debug("Event ID block allocated: {} ~ {}", next, end);
+    }
+}
@@ -0,0 +1,41 @@
+package kr.kro.smartcap.smartcap_back.ingest.pipeline;
+
+/**
+ * 적재 파이프라인에서 처리되는 이벤트 (알람/사고)
+ * 각 메서드는 해당 단계의 워커 스레드에서 순서대로 호출된다.
+ * 단계가 실패하면 같은 메서드가 다시 호출될 수 있으므로, 단계 안에서 부분 적용된 상태를 남기지 않아야 한다.
+ */
+public interface IngestEvent {
+
+    /**
+     * 입력 검증. 잘못된 입력이면 IllegalArgumentException 을 던진다. (요청 스레드에서 실행)
+     */
+    void validate();
+
+    /**
+     * GPS, 날씨, 분류 등 부가 정보 보강
+     */
+    void enrich();
+
+    /**
+     * Redis / DB 저장
+     */
+    void persist();
+
+    /**
+     * 통계 반영
+     */
+    void updateStats();
+
+    /**
+     * SSE 구독자에게 전송
+     */
+    void fanOut();
+
+    /**
+     * 로그/dead-letter 조회용 이벤트 요약
+     */
+    default String describe() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,357 @@
+package kr.kro.smartcap.smartcap_back.ingest.pipeline;
+
+import kr.kro.smartcap.smartcap_back.ingest.dto.DeadLetterDto;
+import kr.kro.smartcap.smartcap_back.ingest.dto.StageMetricsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알람/사고 적재 파이프라인
+ *
+ * validate 단계는 요청 스레드에서 실행하고(잘못된 입력은 즉시 400),
+ * 이후 단계(enrich → persist → stats → fan-out)는 단계별 bounded 큐와 전용 워커 스레드에서 처리한다.
+ * 다음 단계 큐가 가득 차면 워커가 대기하므로 역압이 첫 큐까지 전달되고,
+ * 첫 큐가 가득 차면 submit 이 false 를 반환한다.
+ *
+ * 단계가 실패하면 간격을 늘려 가며 max-attempts 까지 다시 실행하고(at-least-once),
+ * 재시도로 중복 저장되지 않도록 알람은 이벤트 ID 로 한 번만 적재하고(alarm_ingest.lua), 사고는 이력과 영상 작업을 한 트랜잭션으로 저장한다.
+ * 그래도 실패한 이벤트는 dead-letter 목록에 남겨 /api/ingest/dead-letters 로 조회/재처리한다.
+ * dead-letter 목록도 메모리에만 있으므로 종료 시 남아 있는 항목은 ERROR 로그로 남긴다.
+ *
+ * 종료는 SmartLifecycle 로 처리한다. 웹 서버가 요청 수신을 멈춘 뒤, Redis/DB 연결이 닫히기 전에
+ * 앞 단계부터 차례로 큐를 비운다.
+ */
+@Slf4j
+@Component
+public class IngestPipeline implements SmartLifecycle {
+
+    /**
+     * 웹 서버 종료(DEFAULT_PHASE - 1024, - 2048) 이후, 통계 버퍼(StatCounterBuffer)와 연결 팩토리 종료 이전에 멈추도록
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
+    private final int queueCapacity;
+    private final int workersPerStage;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final int deadLetterCapacity;
+
+    private final Map<IngestStage, BlockingQueue<Envelope>> queues = new EnumMap<>(IngestStage.class);
+    private final Map<IngestStage, StageMetrics> metrics = new EnumMap<>(IngestStage.class);
+    private final Map<IngestStage, List<Thread>> workers = new EnumMap<>(IngestStage.class);
+    private final Map<IngestStage, Boolean> stopping = new EnumMap<>(IngestStage.class);
+
+    private final Deque<DeadLetter> deadLetters = new ArrayDeque<>();
+    private final AtomicLong deadLetterSequence = new AtomicLong();
+
+    private volatile boolean accepting = false;
+    private volatile boolean running = false;
+
+    public IngestPipeline(@Value("${ingest.pipeline.queue-capacity:1024}") int queueCapacity,
+                          @Value("${ingest.pipeline.workers-per-stage:2}") int workersPerStage,
+                          @Value("${ingest.pipeline.max-attempts:3}") int maxAttempts,
+                          @Value("${ingest.pipeline.retry-backoff-millis:200}") long retryBackoffMillis,
+                          @Value("${ingest.pipeline.dead-letter-capacity:1000}") int deadLetterCapacity) {
+        this.queueCapacity = queueCapacity;
+        this.workersPerStage = Math.max(1, workersPerStage);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+        this.deadLetterCapacity = Math.max(1, deadLetterCapacity);
+
+        for (IngestStage stage : IngestStage.values()) {
+            metrics.put(stage, new StageMetrics(stage));
+            if (stage != IngestStage.VALIDATE) {
+                queues.put(stage, new ArrayBlockingQueue<>(queueCapacity));
+                stopping.put(stage, false);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        for (IngestStage stage : queues.keySet()) {
+            List<Thread> stageWorkers = new ArrayList<>();
+            for (int i = 0; i < workersPerStage; i++) {
+                String name = "ingest-" + stage.getLabel() + "-" + i;
+                Thread worker = new Thread(() -> work(stage), name);
+                // 종료 시 비우기는 stop() 이 담당하므로 JVM 종료를 막지 않도록 데몬으로 실행
+                worker.setDaemon(true);
+                worker.start();
+                stageWorkers.add(worker);
+            }
+            workers.put(stage, stageWorkers);
+        }
+        running = true;
+        accepting = true;
+        log.info("Ingest pipeline started: queueCapacity={}, workersPerStage={}, maxAttempts={}",
+                queueCapacity, workersPerStage, maxAttempts);
+    }
+
+    /**
+     * 이벤트 검증 후 파이프라인에 등록
+     *
+     * @return 등록 성공 여부 (큐가 가득 찼거나 종료 중이면 false)
+     * @throws IllegalArgumentException 검증 실패 시
+     */
+    public boolean submit(IngestEvent event) {
+        long start = System.nanoTime();
+        boolean valid = false;
+        try {
+            IngestStage.VALIDATE.run(event);
+            valid = true;
+        } finally {
+            metrics.get(IngestStage.VALIDATE).record(0, System.nanoTime() - start, valid);
+        }
+
+        if (!accepting || !queues.get(IngestStage.ENRICH).offer(new Envelope(event))) {
+            metrics.get(IngestStage.ENRICH).rejected();
+            log.warn("Ingest pipeline rejected event: accepting={}, enrichQueueDepth={}",
+                    accepting, queues.get(IngestStage.ENRICH).size());
+            return false;
+        }
+        return true;
+    }
+
+    public List<StageMetricsDto> getMetrics() {
+        List<StageMetricsDto> result = new ArrayList<>();
+        for (IngestStage stage : IngestStage.values()) {
+            BlockingQueue<Envelope> queue = queues.get(stage);
+            result.add(metrics.get(stage).snapshot(
+                    queue != null ? queue.size() : 0,
+                    queue != null ? queueCapacity : 0));
+        }
+        return result;
+    }
+
+    public List<DeadLetterDto> getDeadLetters() {
+        synchronized (deadLetters) {
+            List<DeadLetterDto> result = new ArrayList<>(deadLetters.size());
+            for (DeadLetter deadLetter : deadLetters) {
+                result.add(deadLetter.toDto());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * dead-letter 이벤트를 실패한 단계의 큐에 다시 등록
+     * 큐가 가득 차서 등록하지 못한 이벤트는 목록에 그대로 남는다.
+     *
+     * @return 다시 등록한 이벤트 수
+     */
+    public int replayDeadLetters() {
+        if (!accepting) {
+            return 0;
+        }
+        int replayed = 0;
+        synchronized (deadLetters) {
+            Iterator<DeadLetter> iterator = deadLetters.iterator();
+            while (iterator.hasNext()) {
+                DeadLetter deadLetter = iterator.next();
+                Envelope envelope = new Envelope(deadLetter.event);
+                if (!queues.get(deadLetter.stage).offer(envelope)) {
+                    continue;
+                }
+                iterator.remove();
+                replayed++;
+            }
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} dead-lettered ingest events", replayed);
+        }
+        return replayed;
+    }
+
+    private void work(IngestStage stage) {
+        BlockingQueue<Envelope> queue = queues.get(stage);
+        IngestStage next = stage.next();
+
+        while (!isStopping(stage) || !queue.isEmpty()) {
+            Envelope envelope;
+            try {
+                envelope = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (envelope == null) {
+                continue;
+            }
+
+            if (!runWithRetry(stage, envelope)) {
+                continue;
+            }
+
+            if (next != null) {
+                try {
+                    // 다음 단계 큐가 가득 차면 대기 (역압)
+                    envelope.enqueuedAt = System.nanoTime();
+                    queues.get(next).put(envelope);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Ingest worker interrupted while handing off to '{}'", next.getLabel());
+                    deadLetter(next, envelope, 0, e);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 단계 성공 여부 (실패하면 dead-letter 목록으로 이동)
+     */
+    private boolean runWithRetry(IngestStage stage, Envelope envelope) {
+        StageMetrics stageMetrics = metrics.get(stage);
+        long waited = System.nanoTime() - envelope.enqueuedAt;
+        long backoff = retryBackoffMillis;
+
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                stage.run(envelope.event);
+                stageMetrics.record(waited, System.nanoTime() - start, true);
+                return true;
+            } catch (Exception e) {
+                stageMetrics.record(waited, System.nanoTime() - start, false);
+                if (attempt >= maxAttempts) {
+                    deadLetter(stage, envelope, attempt, e);
+                    return false;
+                }
+                stageMetrics.retried();
+                log.warn("Ingest stage '{}' failed (attempt {}/{}), retrying in {}ms: {}",
+                        stage.getLabel(), attempt, maxAttempts, backoff, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadLetter(stage, envelope, attempt, e);
+                return false;
+            }
+            waited = 0;
+            backoff *= 2;
+        }
+    }
+
+    private void deadLetter(IngestStage stage, Envelope envelope, int attempts, Exception cause) {
+        metrics.get(stage).deadLettered();
+        log.error("Ingest stage '{}' gave up after {} attempts, dead-lettered {}",
+                stage.getLabel(), attempts, envelope.event.describe(), cause);
+
+        DeadLetter deadLetter = new DeadLetter(deadLetterSequence.incrementAndGet(), stage, envelope.event,
+                attempts, cause.toString(), new Timestamp(System.currentTimeMillis()));
+        synchronized (deadLetters) {
+            if (deadLetters.size() >= deadLetterCapacity) {
+                DeadLetter dropped = deadLetters.pollFirst();
+                log.error("Ingest dead-letter list is full, dropped {}", dropped.event.describe());
+            }
+            deadLetters.addLast(deadLetter);
+        }
+    }
+
+    private boolean isStopping(IngestStage stage) {
+        synchronized (stopping) {
+            return stopping.get(stage);
+        }
+    }
+
+    /**
+     * 신규 등록을 막고, 앞 단계부터 차례로 큐를 비운 뒤 종료
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+        for (IngestStage stage : queues.keySet()) {
+            synchronized (stopping) {
+                stopping.put(stage, true);
+            }
+            for (Thread worker : workers.getOrDefault(stage, List.of())) {
+                try {
+                    worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                    return;
+                }
+            }
+            log.info("Ingest stage '{}' drained", stage.getLabel());
+        }
+        running = false;
+
+        synchronized (deadLetters) {
+            for (DeadLetter deadLetter : deadLetters) {
+                log.error("Ingest event lost on shutdown (dead-lettered at '{}'): {}",
+                        deadLetter.stage.getLabel(), deadLetter.event.describe());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static class Envelope {
+        private final IngestEvent event;
+        private long enqueuedAt;
+
+        private Envelope(IngestEvent event) {
+            this.event = event;
+            this.enqueuedAt = System.nanoTime();
+        }
+    }
+
+    private static class DeadLetter {
+        private final long id;
+        private final IngestStage stage;
+        private final IngestEvent event;
+        private final int attempts;
+        private final String error;
+        private final Timestamp failedAt;
+
+        private DeadLetter(long id, IngestStage stage, IngestEvent event, int attempts, String error,
+                           Timestamp failedAt) {
+            this.id = id;
+            this.stage = stage;
+            this.event = event;
+            this.attempts = attempts;
+            this.error = error;
+            this.failedAt = failedAt;
+        }
+
+        private DeadLetterDto toDto() {
+            return DeadLetterDto.builder()
+                    .id(id)
+                    .stage(stage.getLabel())
+                    .event(event.describe())
+                    .attempts(attempts)
+                    .error(error)
+                    .failedAt(failedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package kr.kro.smartcap.smartcap_back.ingest.pipeline;
+
+/**
+ * 적재 파이프라인 단계 (validate → enrich → persist → stats → fan-out)
+ */
+public enum IngestStage {
+
+    VALIDATE("validate") {
+        @Override
+        void run(IngestEvent event) {
+            event.validate();
+        }
+    },
+    ENRICH("enrich") {
+        @Override
+        void run(IngestEvent event) {
+            event.enrich();
+        }
+    },
+    PERSIST("persist") {
+        @Override
+        void run(IngestEvent event) {
+            event.persist();
+        }
+    },
+    STATS("stats") {
+        @Override
+        void run(IngestEvent event) {
+            event.updateStats();
+        }
+    },
+    FAN_OUT("fan-out") {
+        @Override
+        void run(IngestEvent event) {
+            event.fanOut();
+        }
+    };
+
+    private final String label;
+
+    IngestStage(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    abstract void run(IngestEvent event);
+
+    IngestStage next() {
+        int nextOrdinal = ordinal() + 1;
+        return nextOrdinal < values().length ? values()[nextOrdinal] : null;
+    }
+}
@@ -0,0 +1,66 @@
+package kr.kro.smartcap.smartcap_back.ingest.pipeline;
+
+import kr.kro.smartcap.smartcap_back.ingest.dto.StageMetricsDto;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 단계별 처리 건수, 대기/처리 시간 집계
+ */
+class StageMetrics {
+
+    private final IngestStage stage;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong maxServiceNanos = new AtomicLong();
+
+    StageMetrics(IngestStage stage) {
+        this.stage = stage;
+    }
+
+    void record(long waitedNanos, long tookNanos, boolean success) {
+        if (success) {
+            processed.increment();
+        } else {
+            failed.increment();
+        }
+        waitNanos.add(waitedNanos);
+        serviceNanos.add(tookNanos);
+        maxServiceNanos.accumulateAndGet(tookNanos, Math::max);
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    void retried() {
+        retried.increment();
+    }
+
+    void deadLettered() {
+        deadLettered.increment();
+    }
+
+    StageMetricsDto snapshot(int queueDepth, int queueCapacity) {
+        long count = processed.sum() + failed.sum();
+        return StageMetricsDto.builder()
+                .stage(stage.getLabel())
+                .queueDepth(queueDepth)
+                .queueCapacity(queueCapacity)
+                .processed(processed.sum())
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .retried(retried.sum())
+                .deadLettered(deadLettered.sum())
+                .avgWaitMillis(count == 0 ? 0 : waitNanos.sum() / count / 1_000_000.0)
+                .avgServiceMillis(count == 0 ? 0 : serviceNanos.sum() / count / 1_000_000.0)
+                .maxServiceMillis(maxServiceNanos.get() / 1_000_000.0)
+                .build();
+    }
+}
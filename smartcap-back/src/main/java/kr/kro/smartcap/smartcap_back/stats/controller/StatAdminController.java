@@ -0,0 +1,83 @@
+package kr.kro.smartcap.smartcap_back.stats.controller;
+
+import kr.kro.smartcap.smartcap_back.stats.dto.RedisMemoryMetricsDto;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatRebuildStatus;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatRollupStatus;
+import kr.kro.smartcap.smartcap_back.stats.service.StatInitializer;
+import kr.kro.smartcap.smartcap_back.stats.service.StatKeyLifecycle;
+import kr.kro.smartcap.smartcap_back.stats.service.StatRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/stats")
+public class StatAdminController {
+
+    private final StatInitializer statInitializer;
+    private final StatRollupService statRollupService;
+    private final StatKeyLifecycle statKeyLifecycle;
+
+    /**
+     * Redis 통계 재생성 시작 (mode = full, incremental)
+     * 이미 실행 중이면 409
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<StatRebuildStatus> rebuild(@RequestParam(defaultValue = "incremental") String mode) {
+        StatInitializer.Mode requested;
+        try {
+            requested = StatInitializer.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean started = statInitializer.start(requested);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(statInitializer.getStatus());
+    }
+
+    /**
+     * 재생성 진행 상태
+     */
+    @GetMapping("/rebuild")
+    public StatRebuildStatus status() {
+        return statInitializer.getStatus();
+    }
+
+    /**
+     * 기존 이력으로 통계 집계 테이블 백필 (from, to 포함, 없으면 가장 오래된 이력 ~ 어제)
+     * 이미 실행 중이면 409
+     */
+    @PostMapping("/rollup/backfill")
+    public ResponseEntity<StatRollupStatus> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean started = statRollupService.startBackfill(from, to);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(statRollupService.getBackfillStatus());
+    }
+
+    /**
+     * 백필 진행 상태
+     */
+    @GetMapping("/rollup/backfill")
+    public StatRollupStatus backfillStatus() {
+        return statRollupService.getBackfillStatus();
+    }
+
+    /**
+     * Redis 메모리 사용량, 키 종류별 키 수/메모리/만료 없는 키 수
+     */
+    @GetMapping("/memory")
+    public RedisMemoryMetricsDto memory() {
+        return statKeyLifecycle.metrics();
+    }
+}
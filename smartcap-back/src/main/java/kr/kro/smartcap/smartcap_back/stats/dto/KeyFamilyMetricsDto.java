@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Redis 키 종류별 개수, 메모리 사용량
+ */
+@Getter
+@Builder
+public class KeyFamilyMetricsDto {
+    private String family;          // KeyFamily 이름
+    private long keys;              // 키 수
+    private long bytes;             // 메모리 사용량 (MEMORY USAGE, 표본이면 키 수 비율로 추정)
+    private long sampledKeys;       // MEMORY USAGE 를 실제로 조회한 키 수
+    private long persistentKeys;    // 만료가 없는 키 수 (표본 기준 추정)
+}
@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Redis 메모리 현황 (INFO memory + 키 종류별 집계)
+ */
+@Getter
+@Builder
+public class RedisMemoryMetricsDto {
+    private long usedMemory;                    // used_memory
+    private long maxMemory;                     // maxmemory (0 = 제한 없음)
+    private List<KeyFamilyMetricsDto> families;
+}
@@ -0,0 +1,17 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SSE로 프론트에 전송할 통계 변경 묶음 (stat_batch, 전송 주기 동안의 변경을 키/필드별 최신 값으로 합침)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatBatchDto {
+    private List<StatUpdateDto> updates;
+}
@@ -0,0 +1,13 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import java.sql.Timestamp;
+
+/**
+ * 통계 재생성, 기간별 통계 조회용 집계 (date_trunc 로 자른 구간 시작 시각, 종류별 건수)
+ */
+public interface StatBucketRow {
+    Timestamp getBucket();
+    String getRecognizedType();
+    String getAlarmType();
+    Long getCnt();
+}
@@ -0,0 +1,22 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 통계 재생성 진행 상태
+ */
+@Getter
+@Builder
+public class StatRebuildStatus {
+    private String state;            // IDLE, RUNNING, DONE, FAILED
+    private String mode;             // FULL, INCREMENTAL
+    private String phase;            // 진행 중인 단위 (hour, day, month)
+    private long keysWritten;        // 지금까지 쓴 통계 키 수
+    private LocalDateTime watermark; // 마지막으로 완료된 재생성의 기준 시각 (이전 구간은 DB 에서 바뀌지 않음)
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
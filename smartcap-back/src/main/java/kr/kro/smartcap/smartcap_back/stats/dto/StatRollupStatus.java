@@ -0,0 +1,23 @@
+package kr.kro.smartcap.smartcap_back.stats.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 통계 집계 테이블 백필 진행 상태
+ */
+@Getter
+@Builder
+public class StatRollupStatus {
+    private String state;            // IDLE, RUNNING, DONE, FAILED
+    private LocalDate from;          // 백필 시작 날짜 (포함)
+    private LocalDate to;            // 백필 끝 날짜 (포함)
+    private LocalDate currentDay;    // 진행 중인 날짜
+    private long daysDone;           // 지금까지 집계한 날짜 수
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -1,81 +1,78 @@
 package kr.kro.smartcap.smartcap_back.stats.service;
 
-import kr.kro.smartcap.smartcap_back.stats.dto.StatUpdateDto;
-import kr.kro.smartcap.smartcap_back.stats.sse.StatSseEmitterManager;
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class RedisStatService {
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final StatSseEmitterManager statSseEmitterManager;
+    private final StatCounterBuffer statCounterBuffer;
+    private final RedisKeyIndex redisKeyIndex;
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("HH");
     private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
 
+    /**
+     * 시간/일/월 통계 1 증가 (메모리 버퍼에 모았다가 StatCounterBuffer 가 주기마다 Redis 에 반영)
+     */
     public void incrementStats(LocalDateTime timestamp, String objectType, String alarmType) {
         String field = formatField(objectType, alarmType);
 
-        applyStats(timestamp, field, 1, true);
+        statCounterBuffer.add("hour", hourKey(timestamp), field, 1);
+        statCounterBuffer.add("day", dayKey(timestamp), field, 1);
+        statCounterBuffer.add("month", monthKey(timestamp), field, 1);
     }
 
-    public void setStats(LocalDateTime timestamp, String objectType, String alarmType, long count) {
-        String field = formatField(objectType, alarmType);
-
-        applyStats(timestamp, field, count, false);
+    public String hourKey(LocalDateTime timestamp) {
+        return "summary:hour:" + timestamp.format(DATE_FORMAT) + ":" + timestamp.format(HOUR_FORMAT);
     }
 
-    private void applyStats(LocalDateTime timestamp, String field, long count, boolean isIncrement) {
-        String date = timestamp.format(DATE_FORMAT);
-        String hour = timestamp.format(HOUR_FORMAT);
-        String month = timestamp.format(MONTH_FORMAT);
-
-        processStat("summary:hour:" + date + ":" + hour, field, count, 4, TimeUnit.DAYS, "hour", isIncrement);
-        processStat("summary:day:" + date, field, count, 120, TimeUnit.DAYS, "day", isIncrement);
-        processStat("summary:month:" + month, field, count, null, null, "month", isIncrement);
+    public String dayKey(LocalDateTime timestamp) {
+        return "summary:day:" + timestamp.format(DATE_FORMAT);
     }
 
-    private void processStat(String key, String field, long count, Integer ttl, TimeUnit unit, String scope, boolean isIncrement) {
-        HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
-        Long newValue;
-
-        if (isIncrement) {
-            newValue = hashOps.increment(key, field, count);
-        } else {
-            hashOps.put(key, field, String.valueOf(count));
-            newValue = count;
-        }
-
-        if (ttl != null && Boolean.FALSE.equals(redisTemplate.hasKey(key))) {
-            redisTemplate.expire(key, ttl, unit);
-        }
+    public String monthKey(LocalDateTime timestamp) {
+        return "summary:month:" + timestamp.format(MONTH_FORMAT);
+    }
 
-        statSseEmitterManager.broadcast("stat_update", StatUpdateDto.builder()
-                .scope(scope)
-                .key(key)
-                .field(field)
-                .newValue(newValue != null ? newValue : 0L)
-                .build());
+    String keyOf(String scope, LocalDateTime timestamp) {
+        return switch (scope) {
+            case "hour" -> hourKey(timestamp);
+            case "day" -> dayKey(timestamp);
+            default -> monthKey(timestamp);
+        };
     }
 
-    private String formatField(String objectType, String alarmType) {
+    public String formatField(String objectType, String alarmType) {
         return objectType + ":" + alarmType;
     }
 
     public void clearAllStats() {
-        Set<String> keys = redisTemplate.keys("summary:*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        for (KeyFamily family : List.of(KeyFamily.SUMMARY_HOUR, KeyFamily.SUMMARY_DAY, KeyFamily.SUMMARY_MONTH)) {
+            Set<String> keys = redisKeyIndex.keys(family, null);
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+            redisTemplate.delete(family.indexKey(null));
         }
     }
+
+    static KeyFamily familyOf(String scope) {
+        return switch (scope) {
+            case "hour" -> KeyFamily.SUMMARY_HOUR;
+            case "day" -> KeyFamily.SUMMARY_DAY;
+            default -> KeyFamily.SUMMARY_MONTH;
+        };
+    }
 }
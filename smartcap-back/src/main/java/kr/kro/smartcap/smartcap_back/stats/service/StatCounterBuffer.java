@@ -0,0 +1,248 @@
+package kr.kro.smartcap.smartcap_back.stats.service;
+
+import kr.kro.smartcap.smartcap_back.event.service.DashboardSnapshot;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestPipeline;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatUpdateDto;
+import kr.kro.smartcap.smartcap_back.stats.sse.StatUpdateCoalescer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 통계 카운터 메모리 버퍼
+ * 적재 시에는 (키, 필드)별 LongAdder 만 증가시키고(I/O 없음), 주기(stat.flush.interval-ms)마다 또는
+ * 쌓인 증가분이 stat.flush.max-pending 을 넘으면 키별 증가 스크립트(stat_incr.lua)를 파이프라인 한 번으로 Redis 에 반영한다.
+ * 만료 시각은 증가와 같은 스크립트 안에서 건다. (StatKeyLifecycle)
+ * Redis 쓰기 횟수는 이벤트 수가 아니라 주기당 (키, 필드) 수에 비례한다.
+ *
+ * 반영 후의 값은 StatUpdateCoalescer 로 구독자에게 전달하고 DashboardSnapshot 에도 반영한다.
+ * 종료 시 남은 증가분은 SmartLifecycle.stop() 에서 반영한다. 적재 파이프라인(IngestPipeline)이 큐를 비우며 더한 증가분까지
+ * 모으도록 파이프라인보다 뒤에, Redis 연결 팩토리보다 앞에 멈춘다.
+ * 반영에 실패한 키(파이프라인 응답이 오류인 키)의 증가분만 버퍼로 되돌려 다음 반영 때 다시 시도한다.
+ * 프로세스가 비정상 종료되면 마지막 주기의 증가분은 잃을 수 있다.
+ */
+@Slf4j
+@Component
+public class StatCounterBuffer implements SmartLifecycle {
+
+    /**
+     * 적재 파이프라인 종료(IngestPipeline.PHASE) 이후, Redis 연결 팩토리 종료(phase 0) 이전에 멈추도록
+     */
+    public static final int PHASE = IngestPipeline.PHASE - 1024;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StatUpdateCoalescer statUpdateCoalescer;
+    private final DashboardSnapshot dashboardSnapshot;
+    private final StatKeyLifecycle statKeyLifecycle;
+    private final ThreadPoolTaskExecutor statFlushExecutor;
+    private final long maxPending;
+
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/stat_incr.lua"), List.class);
+
+    private final Map<Bucket, LongAdder> counters = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    // 직전 반영에서 맵에서 뺀 버킷 (빼기 직전에 꺼내 간 스레드의 증가분을 다음 반영에서 한 번 더 모음)
+    private List<Map.Entry<Bucket, LongAdder>> retired = new ArrayList<>();
+
+    private volatile boolean scriptLoaded = false;
+    private volatile boolean running = false;
+
+    public StatCounterBuffer(RedisTemplate<String, String> redisTemplate,
+                             StatUpdateCoalescer statUpdateCoalescer,
+                             DashboardSnapshot dashboardSnapshot,
+                             StatKeyLifecycle statKeyLifecycle,
+                             @Qualifier("statFlushExecutor") ThreadPoolTaskExecutor statFlushExecutor,
+                             @Value("${stat.flush.max-pending:1000}") long maxPending) {
+        this.redisTemplate = redisTemplate;
+        this.statUpdateCoalescer = statUpdateCoalescer;
+        this.dashboardSnapshot = dashboardSnapshot;
+        this.statKeyLifecycle = statKeyLifecycle;
+        this.statFlushExecutor = statFlushExecutor;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @param scope "hour", "day", "month"
+     */
+    public void add(String scope, String key, String field, long delta) {
+        counters.computeIfAbsent(new Bucket(scope, key, field), b -> new LongAdder()).add(delta);
+        if (pending.incrementAndGet() == maxPending) {
+            // 주기를 기다리지 않고 바로 반영 (실행 중인 반영이 있으면 대기열 1건만 유지)
+            statFlushExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stat.flush.interval-ms:1000}")
+    public synchronized void flush() {
+        pending.set(0);
+        Map<Bucket, Long> deltas = new LinkedHashMap<>();
+        List<Map.Entry<Bucket, LongAdder>> idle = new ArrayList<>();
+        for (Map.Entry<Bucket, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            } else {
+                idle.add(entry);
+            }
+        }
+        for (Map.Entry<Bucket, LongAdder> entry : retired) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        // 이번 주기에 증가가 없던 버킷(지난 시간대 등)은 맵에서 뺀다
+        retired = new ArrayList<>();
+        for (Map.Entry<Bucket, LongAdder> entry : idle) {
+            if (counters.remove(entry.getKey(), entry.getValue())) {
+                retired.add(entry);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // 키별로 묶어 스크립트 한 번 (필드 증가 + 만료 + 키 인덱스, stat_incr.lua)
+        Map<String, List<Bucket>> byKey = new LinkedHashMap<>();
+        deltas.keySet().forEach(bucket -> byKey.computeIfAbsent(bucket.key(), k -> new ArrayList<>()).add(bucket));
+        List<Object> replies;
+        try {
+            if (!scriptLoaded) {
+                redisTemplate.execute((RedisCallback<String>) connection ->
+                        connection.scriptingCommands().scriptLoad(SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+                scriptLoaded = true;
+            }
+            replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                byKey.forEach((key, keyBuckets) -> {
+                    String scope = keyBuckets.get(0).scope();
+                    List<String> args = new ArrayList<>(4 + keyBuckets.size() * 2);
+                    args.add(key);
+                    args.add(RedisStatService.familyOf(scope).indexKey(null));
+                    args.add(String.valueOf(statKeyLifecycle.expireAt(scope, key)));
+                    args.add(String.valueOf(statKeyLifecycle.indexScore(scope, key)));
+                    for (Bucket bucket : keyBuckets) {
+                        args.add(bucket.field());
+                        args.add(String.valueOf(deltas.get(bucket)));
+                    }
+                    conn.evalSha(SCRIPT.getSha1(), ReturnType.MULTI, 2, args.toArray(String[]::new));
+                });
+                return null;
+            });
+        } catch (RedisPipelineException e) {
+            // 일부 키만 실패: 실패한 응답의 키만 다음 반영 때 다시 시도 (성공한 키까지 되돌리면 두 번 더해짐)
+            // (Redis 재시작으로 스크립트 캐시가 비었을 수 있으므로 다시 올림)
+            scriptLoaded = false;
+            replies = e.getResults();
+            log.error("Stat counter flush partially failed: {}", e.getMessage(), e);
+        } catch (DataAccessException e) {
+            // 파이프라인을 보내기 전에 실패했으므로 전부 다음 반영 때 다시 시도
+            scriptLoaded = false;
+            deltas.forEach(this::retry);
+            log.error("Stat counter flush failed, {} buckets kept for retry: {}", deltas.size(), e.getMessage(), e);
+            return;
+        }
+
+        List<Bucket> buckets = new ArrayList<>(deltas.size());
+        List<Object> values = new ArrayList<>(deltas.size());
+        int index = 0;
+        int failed = 0;
+        for (List<Bucket> keyBuckets : byKey.values()) {
+            Object result = index < replies.size() ? replies.get(index) : null;
+            index++;
+            if (result == null || result instanceof Throwable) {
+                // 응답이 없거나 오류인 키는 스크립트가 실행되지 않았으므로 증가분을 되돌린다
+                keyBuckets.forEach(bucket -> retry(bucket, deltas.get(bucket)));
+                failed += keyBuckets.size();
+                continue;
+            }
+            List<?> reply = result instanceof List<?> list ? list : List.of();
+            for (int i = 0; i < keyBuckets.size(); i++) {
+                buckets.add(keyBuckets.get(i));
+                values.add(i < reply.size() ? reply.get(i) : null);
+            }
+        }
+
+        List<StatUpdateDto> updates = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (values.get(i) instanceof Number value) {
+                StatUpdateDto update = StatUpdateDto.builder()
+                        .scope(bucket.scope())
+                        .key(bucket.key())
+                        .field(bucket.field())
+                        .newValue(value.longValue())
+                        .build();
+                statUpdateCoalescer.offer(update, false);
+                updates.add(update);
+            }
+        }
+        dashboardSnapshot.apply(updates);
+        if (failed > 0) {
+            log.warn("Stat counter flush: {} buckets kept for retry", failed);
+        }
+        log.debug("Stat counters flushed: buckets={}", buckets.size());
+    }
+
+    private void retry(Bucket bucket, long delta) {
+        counters.computeIfAbsent(bucket, b -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 남은 증가분을 반영한 뒤, 다음 반영이 끼어들지 않는 상태에서 action 을 실행한다. (통계 재생성 시 현재 구간 덮어쓰기)
+     */
+    public synchronized void flushAndRun(Runnable action) {
+        flush();
+        action.run();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * 남은 증가분 반영 (적재 파이프라인이 큐를 비운 뒤)
+     */
+    @Override
+    public void stop() {
+        flush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private record Bucket(String scope, String key, String field) {
+    }
+}
@@ -1,109 +1,293 @@
 package kr.kro.smartcap.smartcap_back.stats.service;
 
-import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
-import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
-import lombok.RequiredArgsConstructor;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.service.DashboardSnapshot;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBucketRow;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatRebuildStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Redis 통계(summary:hour/day/month) 재생성
+ * 단위별로 집계 테이블(집계 전 날짜는 원본 테이블의 date_trunc 집계)을 한 번씩 읽고, 결과를 키 단위 DEL + HSET 파이프라인으로 쓴다. (SSE 전송 없음)
+ *
+ * DB 에 모두 들어온 오늘 0시 이전 구간만 다시 만든다. 오늘의 시간/일 통계는 적재 시 증가분이 기준이며
+ * (오늘 알람은 자정 적재 전까지 Redis 에만 있음), 이번 달 통계는 DB 집계 + 오늘 일 통계로 만든다.
+ *
+ * - FULL: 단위별 보관 기간(StatKeyLifecycle, 기본 시간 4일, 일 120일, 월 전체) 전체
+ * - INCREMENTAL: 마지막 재생성 기준 시각(watermark) 이후 구간만. watermark 가 없으면 FULL
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class StatInitializer {
 
-    private final AlarmHistoryRepository alarmHistoryRepository;
-    private final AccidentHistoryRepository accidentHistoryRepository;
-    private final RedisStatService redisStatService;
+    public enum Mode { FULL, INCREMENTAL }
 
-    public void initializeAllStats() {
-        log.info("🚀 [초기 통계 생성] 시작");
-        redisStatService.clearAllStats();
+    static final String WATERMARK_KEY = "stat:rebuild:watermark";
 
-        LocalDate today = LocalDate.now();
+    private static final int PIPELINE_KEYS = 500;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
 
-        // ===============================
-        // 1. 시간별: 최근 5일
-        // ===============================
-        LocalDateTime hourStart = today.minusDays(5).atStartOfDay();
-        LocalDateTime hourEnd = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    private final StatRollupService statRollupService;
+    private final RedisStatService redisStatService;
+    private final StatCounterBuffer statCounterBuffer;
+    private final StatKeyLifecycle statKeyLifecycle;
+    private final DashboardSnapshot dashboardSnapshot;
+    private final RedisKeyIndex redisKeyIndex;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ThreadPoolTaskExecutor statRebuildExecutor;
+    private final String startupMode;
 
-        log.info("🕐 시간별 통계: {} ~ {}", hourStart, hourEnd);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong keysWritten = new AtomicLong();
+    private volatile String state = "IDLE";
+    private volatile Mode mode;
+    private volatile String phase;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
 
-        while (hourStart.isBefore(hourEnd)) {
-            LocalDateTime next = hourStart.plusHours(1);
-            writeStats(hourStart, next);
-            hourStart = next;
+    public StatInitializer(StatRollupService statRollupService,
+                           RedisStatService redisStatService,
+                           StatCounterBuffer statCounterBuffer,
+                           StatKeyLifecycle statKeyLifecycle,
+                           DashboardSnapshot dashboardSnapshot,
+                           RedisKeyIndex redisKeyIndex,
+                           RedisTemplate<String, String> redisTemplate,
+                           @Qualifier("statRebuildExecutor") ThreadPoolTaskExecutor statRebuildExecutor,
+                           @Value("${stat.rebuild.on-startup:none}") String startupMode) {
+        this.statRollupService = statRollupService;
+        this.redisStatService = redisStatService;
+        this.statCounterBuffer = statCounterBuffer;
+        this.statKeyLifecycle = statKeyLifecycle;
+        this.dashboardSnapshot = dashboardSnapshot;
+        this.redisKeyIndex = redisKeyIndex;
+        this.redisTemplate = redisTemplate;
+        this.statRebuildExecutor = statRebuildExecutor;
+        this.startupMode = startupMode;
+    }
+
+    /**
+     * 기동 시 재생성 (stat.rebuild.on-startup = none, incremental, full)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!"none".equalsIgnoreCase(startupMode)) {
+            start(Mode.valueOf(startupMode.toUpperCase()));
         }
+    }
 
-        // ===============================
-        // 2. 일별: 최근 5개월
-        // ===============================
-        LocalDate dayStart = today.minusMonths(5);
-        LocalDate dayEnd = today;
+    public void initializeAllStats() {
+        rebuild(Mode.FULL);
+    }
 
-        log.info("📅 일별 통계: {} ~ {}", dayStart, dayEnd);
+    /**
+     * 백그라운드로 재생성을 시작한다.
+     *
+     * @return 이미 실행 중이면 false
+     */
+    public boolean start(Mode requested) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        markStarted(requested);
+        statRebuildExecutor.execute(() -> {
+            try {
+                run(requested);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
 
-        while (!dayStart.isAfter(dayEnd)) {
-            LocalDateTime start = dayStart.atStartOfDay();
-            LocalDateTime end = start.plusDays(1);
-            writeStats(start, end);
-            dayStart = dayStart.plusDays(1);
+    /**
+     * 현재 스레드에서 재생성 (이미 실행 중이면 아무것도 하지 않음)
+     */
+    public void rebuild(Mode requested) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Stat rebuild already running, skipped: mode={}", requested);
+            return;
         }
+        try {
+            markStarted(requested);
+            run(requested);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public StatRebuildStatus getStatus() {
+        return StatRebuildStatus.builder()
+                .state(state)
+                .mode(mode != null ? mode.name() : null)
+                .phase(phase)
+                .keysWritten(keysWritten.get())
+                .watermark(readWatermark())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+
+    private void markStarted(Mode requested) {
+        state = "RUNNING";
+        mode = requested;
+        phase = null;
+        error = null;
+        keysWritten.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+    }
 
-        // ===============================
-        // 3. 월별: 전체 범위
-        // ===============================
-        LocalDate earliest = getEarliestDate();
-        LocalDate monthStart = LocalDate.of(earliest.getYear(), earliest.getMonth(), 1);
-        LocalDate thisMonth = LocalDate.of(today.getYear(), today.getMonth(), 1);
+    private void run(Mode requested) {
+        try {
+            LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+            LocalDateTime watermark = requested == Mode.INCREMENTAL ? readWatermark() : null;
+            if (requested == Mode.INCREMENTAL && watermark == null) {
+                log.info("Stat rebuild: no watermark, running full rebuild");
+                mode = Mode.FULL;
+            }
+            log.info("Stat rebuild started: mode={}, watermark={}, cutoff={}", mode, watermark, cutoff);
 
-        log.info("📆 월별 통계: {} ~ {}", monthStart, thisMonth);
+            rebuildScope("hour", ChronoUnit.HOURS, retentionStart("hour", cutoff), watermark, cutoff);
+            rebuildScope("day", ChronoUnit.DAYS, retentionStart("day", cutoff), watermark, cutoff);
+            rebuildScope("month", ChronoUnit.MONTHS, retentionStart("month", cutoff), watermark, cutoff);
 
-        while (!monthStart.isAfter(thisMonth)) {
-            LocalDateTime start = monthStart.atStartOfDay();
-            LocalDateTime end = start.plusMonths(1);
-            writeStats(start, end);
-            monthStart = monthStart.plusMonths(1);
+            redisTemplate.opsForValue().set(WATERMARK_KEY, cutoff.toString());
+            dashboardSnapshot.rebuild();
+            state = "DONE";
+            log.info("Stat rebuild finished: mode={}, keys={}", mode, keysWritten.get());
+        } catch (RuntimeException e) {
+            state = "FAILED";
+            error = e.getMessage();
+            log.error("Stat rebuild failed: phase={}, error={}", phase, e.getMessage(), e);
+        } finally {
+            phase = null;
+            finishedAt = LocalDateTime.now();
         }
-
-        log.info("✅ [초기 통계 생성] 완료");
     }
 
-    private void writeStats(LocalDateTime start, LocalDateTime end) {
-        // 알람
-        List<Object[]> alarmStats = alarmHistoryRepository.countAlarmsGroupedByType(start, end);
-        for (Object[] row : alarmStats) {
-            String recognizedType = (String) row[0];
-            String alarmType = (String) row[1];
-            Long count = (Long) row[2];
+    /**
+     * 한 단위(hour, day, month)의 [since, cutoff) 구간을 다시 쓴다.
+     */
+    private void rebuildScope(String scope, ChronoUnit unit, LocalDateTime retention, LocalDateTime watermark,
+                              LocalDateTime cutoff) {
+        phase = scope;
+        LocalDateTime since = truncate(watermark != null && watermark.isAfter(retention) ? watermark : retention, unit);
 
-            redisStatService.setStats(start, recognizedType, alarmType, count);
+        // 키별 필드 값
+        Map<String, Map<String, String>> values = new HashMap<>();
+        for (StatBucketRow row : statRollupService.aggregate(scope, since, cutoff, cutoff, null)) {
+            String key = redisStatService.keyOf(scope, row.getBucket().toLocalDateTime());
+            String field = redisStatService.formatField(row.getRecognizedType(), row.getAlarmType());
+            values.computeIfAbsent(key, k -> new HashMap<>()).merge(field, String.valueOf(row.getCnt()),
+                    (a, b) -> String.valueOf(Long.parseLong(a) + Long.parseLong(b)));
         }
 
-        // 사고 → alarmType = "3"으로 통일해서 알람처럼 처리
-        List<Object[]> accidentStats = accidentHistoryRepository.countAccidentsGroupedByType(start, end);
-        for (Object[] row : accidentStats) {
-            String accidentType = (String) row[0];  // ex: "추락", "충돌"
-            Long count = (Long) row[1];
+        // 구간 안에 있지만 DB 에 건수가 없는 기존 키는 삭제 (키 이름은 시간 순서대로 정렬됨)
+        String from = redisStatService.keyOf(scope, since);
+        String to = redisStatService.keyOf(scope, cutoff);
+        List<String> stale = new ArrayList<>();
+        for (String key : redisKeyIndex.keys(RedisStatService.familyOf(scope), null)) {
+            if (key.compareTo(from) >= 0 && key.compareTo(to) < 0 && !values.containsKey(key)) {
+                stale.add(key);
+            }
+        }
+
+        // 이번 달은 오늘 적재분(일 통계)을 더해야 하므로 아래에서 따로 쓴다
+        String currentMonth = "month".equals(scope) ? redisStatService.monthKey(cutoff) : null;
+        Map<String, String> currentMonthValues = currentMonth != null ? values.remove(currentMonth) : null;
 
-            redisStatService.setStats(start, accidentType, "3", count);
+        List<String> keys = new ArrayList<>(values.keySet());
+        for (int i = 0; i < keys.size(); i += PIPELINE_KEYS) {
+            writeKeys(scope, keys.subList(i, Math.min(i + PIPELINE_KEYS, keys.size())), values);
+        }
+        if (!stale.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                String indexKey = RedisStatService.familyOf(scope).indexKey(null);
+                for (String key : stale) {
+                    conn.del(key);
+                    conn.zRem(indexKey, key);
+                }
+                return null;
+            });
         }
+
+        if (currentMonth != null) {
+            // 통계 버퍼 반영과 겹치지 않도록 (오늘 일 통계를 읽고 이번 달 키를 덮어쓰는 사이에 증가분이 들어오면 누락)
+            Map<String, String> base = currentMonthValues != null ? currentMonthValues : Map.of();
+            statCounterBuffer.flushAndRun(() -> {
+                Map<String, String> merged = new HashMap<>(base);
+                Map<Object, Object> today = redisTemplate.opsForHash().entries(redisStatService.dayKey(cutoff));
+                today.forEach((field, count) -> merged.merge(String.valueOf(field), String.valueOf(count),
+                        (a, b) -> String.valueOf(Long.parseLong(a) + Long.parseLong(b))));
+                writeKeys(scope, List.of(currentMonth), Map.of(currentMonth, merged));
+            });
+        }
+        log.info("Stat rebuild scope done: scope={}, since={}, keys={}, stale={}", scope, since, keys.size(), stale.size());
+    }
+
+    private void writeKeys(String scope, List<String> keys, Map<String, Map<String, String>> values) {
+        String indexKey = RedisStatService.familyOf(scope).indexKey(null);
+        long now = Instant.now().getEpochSecond();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (String key : keys) {
+                conn.del(key);
+                Map<String, String> fields = values.get(key);
+                long expireAt = statKeyLifecycle.expireAt(scope, key);
+                if (fields.isEmpty() || (expireAt > 0 && expireAt <= now)) {
+                    conn.zRem(indexKey, key);
+                    continue;  // 보관 기간이 지난 구간
+                }
+                // 중간에 실패해 만료 없이 남은 키는 StatKeyLifecycle.sweep 이 정리
+                conn.hMSet(key, fields);
+                if (expireAt > 0) {
+                    conn.expireAt(key, expireAt);
+                }
+                conn.zAdd(indexKey, statKeyLifecycle.indexScore(scope, key), key);
+            }
+            return null;
+        });
+        keysWritten.addAndGet(keys.size());
     }
 
-    private LocalDate getEarliestDate() {
-        LocalDate alarmMin = alarmHistoryRepository.findEarliestCreatedAt()
-                .map(LocalDateTime::toLocalDate)
-                .orElse(LocalDate.now());
+    // 보관 기간이 없으면 전체
+    private LocalDateTime retentionStart(String scope, LocalDateTime cutoff) {
+        Duration retention = statKeyLifecycle.retention(scope);
+        return retention != null ? cutoff.minus(retention) : EPOCH;
+    }
 
-        LocalDate accidentMin = accidentHistoryRepository.findEarliestCreatedAt()
-                .map(LocalDateTime::toLocalDate)
-                .orElse(LocalDate.now());
+    private LocalDateTime readWatermark() {
+        String value = redisTemplate.opsForValue().get(WATERMARK_KEY);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
 
-        return alarmMin.isBefore(accidentMin) ? alarmMin : accidentMin;
+    private static LocalDateTime truncate(LocalDateTime value, ChronoUnit unit) {
+        return unit == ChronoUnit.MONTHS
+                ? value.toLocalDate().withDayOfMonth(1).atStartOfDay()
+                : value.truncatedTo(unit);
     }
 }
@@ -0,0 +1,223 @@
+package kr.kro.smartcap.smartcap_back.stats.service;
+
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.stats.dto.KeyFamilyMetricsDto;
+import kr.kro.smartcap.smartcap_back.stats.dto.RedisMemoryMetricsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 통계 키(summary:hour/day/month) 보관 기간 관리
+ * 키마다 만료 시각을 구간 끝 + 단위별 보관 기간(stat.retention.*)으로 정해, 증가(stat_incr.lua)와 같은 스크립트 안에서 건다.
+ * 만료가 빠진 키(이전 버전에서 만든 키 등)는 주기적으로(stat.retention.sweep-interval-ms) 만료를 다시 걸거나 지운다.
+ *
+ * 키 종류별 개수/메모리 사용량은 metrics() 로 조회한다. (/api/admin/stats/memory)
+ */
+@Slf4j
+@Component
+public class StatKeyLifecycle {
+
+    private static final DateTimeFormatter HOUR_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd:HH");
+    private static final DateTimeFormatter DAY_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisKeyIndex redisKeyIndex;
+    private final Duration hourRetention;
+    private final Duration dayRetention;
+    private final Duration monthRetention;
+    private final int metricsSampleSize;
+
+    public StatKeyLifecycle(RedisTemplate<String, String> redisTemplate,
+                            RedisKeyIndex redisKeyIndex,
+                            @Value("${stat.retention.hour:4d}") Duration hourRetention,
+                            @Value("${stat.retention.day:120d}") Duration dayRetention,
+                            @Value("${stat.retention.month:0}") Duration monthRetention,
+                            @Value("${stat.metrics.sample-size:1000}") int metricsSampleSize) {
+        this.redisTemplate = redisTemplate;
+        this.redisKeyIndex = redisKeyIndex;
+        this.hourRetention = hourRetention;
+        this.dayRetention = dayRetention;
+        this.monthRetention = monthRetention;
+        this.metricsSampleSize = metricsSampleSize;
+    }
+
+    /**
+     * 단위별 보관 기간 (null = 만료 없음)
+     */
+    public Duration retention(String scope) {
+        Duration retention = switch (scope) {
+            case "hour" -> hourRetention;
+            case "day" -> dayRetention;
+            default -> monthRetention;
+        };
+        return retention.isZero() || retention.isNegative() ? null : retention;
+    }
+
+    /**
+     * 통계 키의 만료 시각 epoch 초 (구간 끝 + 보관 기간, 0 = 만료 없음 또는 키 형식을 모름)
+     */
+    public long expireAt(String scope, String key) {
+        Duration retention = retention(scope);
+        LocalDateTime end = bucketEnd(scope, key);
+        if (retention == null || end == null) {
+            return 0L;
+        }
+        return end.plus(retention).atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * 키 인덱스 score (만료 시각, 만료 없음은 RedisKeyIndex.NO_EXPIRY)
+     */
+    public long indexScore(String scope, String key) {
+        long expireAt = expireAt(scope, key);
+        return expireAt > 0 ? expireAt : RedisKeyIndex.NO_EXPIRY;
+    }
+
+    /**
+     * 인덱스의 통계 키 전체에 만료 시각을 다시 건다. 이미 지났으면 지운다. (반복 실행해도 같은 결과)
+     * 보관 기간이 없는 단위만 만료를 없애고, 형식을 모르는 키는 건드리지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${stat.retention.sweep-interval-ms:3600000}", initialDelayString = "${stat.retention.sweep-initial-delay-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis() / 1000;
+        for (String scope : List.of("hour", "day", "month")) {
+            KeyFamily family = RedisStatService.familyOf(scope);
+            List<String> keys;
+            try {
+                keys = new ArrayList<>(redisKeyIndex.keys(family, null));
+            } catch (DataAccessException e) {
+                log.error("Stat key sweep failed: family={}, error={}", family, e.getMessage(), e);
+                continue;
+            }
+            if (keys.isEmpty()) {
+                continue;
+            }
+
+            boolean keepForever = retention(scope) == null;
+            int[] expired = {0};
+            int[] skipped = {0};
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                String indexKey = family.indexKey(null);
+                for (String key : keys) {
+                    if (keepForever) {
+                        conn.persist(key);
+                        conn.zAdd(indexKey, RedisKeyIndex.NO_EXPIRY, key);
+                        continue;
+                    }
+                    long expireAt = expireAt(scope, key);
+                    if (expireAt == 0) {
+                        // 형식을 모르는 키는 만료를 정할 수 없으므로 그대로 둔다 (PERSIST 하면 영구 키가 됨)
+                        skipped[0]++;
+                    } else if (expireAt <= now) {
+                        conn.del(key);
+                        conn.zRem(indexKey, key);
+                        expired[0]++;
+                    } else {
+                        conn.expireAt(key, expireAt);
+                        conn.zAdd(indexKey, expireAt, key);
+                    }
+                }
+                return null;
+            });
+            if (skipped[0] > 0) {
+                log.warn("Stat key sweep: family={}, {} keys with unknown format left untouched", family, skipped[0]);
+            }
+            log.info("Stat key sweep: family={}, keys={}, deleted={}", family, keys.size(), expired[0]);
+        }
+    }
+
+    /**
+     * 키 종류별 개수, 메모리 사용량
+     * 키가 stat.metrics.sample-size 보다 많으면 앞쪽 표본만 MEMORY USAGE 로 재고 키 수 비율로 추정한다.
+     */
+    public RedisMemoryMetricsDto metrics() {
+        List<KeyFamilyMetricsDto> families = new ArrayList<>();
+        for (KeyFamily family : KeyFamily.values()) {
+            // 날짜별 종류는 날짜마다 인덱스가 있으므로 SCAN
+            List<String> keys = new ArrayList<>(family.isDated()
+                    ? redisKeyIndex.scan(family.pattern("*"))
+                    : redisKeyIndex.keys(family, null));
+            List<String> sample = keys.size() > metricsSampleSize ? keys.subList(0, metricsSampleSize) : keys;
+
+            List<Object> replies = sample.isEmpty() ? List.of() : redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : sample) {
+                    byte[] raw = key.getBytes(StandardCharsets.UTF_8);
+                    connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), raw);
+                    connection.keyCommands().ttl(raw);
+                }
+                return null;
+            });
+
+            long sampledBytes = 0;
+            long sampledPersistent = 0;
+            for (int i = 0; i + 1 < replies.size(); i += 2) {
+                sampledBytes += replies.get(i) instanceof Number n ? n.longValue() : 0L;
+                if (replies.get(i + 1) instanceof Number ttl && ttl.longValue() == -1L) {
+                    sampledPersistent++;
+                }
+            }
+            double scale = sample.isEmpty() ? 0 : (double) keys.size() / sample.size();
+            families.add(KeyFamilyMetricsDto.builder()
+                    .family(family.name())
+                    .keys(keys.size())
+                    .bytes(Math.round(sampledBytes * scale))
+                    .sampledKeys(sample.size())
+                    .persistentKeys(Math.round(sampledPersistent * scale))
+                    .build());
+        }
+
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("memory"));
+        return RedisMemoryMetricsDto.builder()
+                .usedMemory(parseLong(info, "used_memory"))
+                .maxMemory(parseLong(info, "maxmemory"))
+                .families(families)
+                .build();
+    }
+
+    private static LocalDateTime bucketEnd(String scope, String key) {
+        String prefix = "summary:" + scope + ":";
+        if (!key.startsWith(prefix)) {
+            return null;
+        }
+        String suffix = key.substring(prefix.length());
+        try {
+            return switch (scope) {
+                case "hour" -> LocalDateTime.parse(suffix, HOUR_KEY).plusHours(1);
+                case "day" -> LocalDate.parse(suffix, DAY_KEY).plusDays(1).atStartOfDay();
+                default -> YearMonth.parse(suffix).plusMonths(1).atDay(1).atStartOfDay();
+            };
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static long parseLong(Properties info, String name) {
+        String value = info != null ? info.getProperty(name) : null;
+        try {
+            return value != null ? Long.parseLong(value.trim()) : 0L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
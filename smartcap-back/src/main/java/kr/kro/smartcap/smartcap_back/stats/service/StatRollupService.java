@@ -0,0 +1,294 @@
+package kr.kro.smartcap.smartcap_back.stats.service;
+
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBucketRow;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatRollupStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 통계 집계 테이블 (stat_rollup_hour, stat_rollup_day)
+ * 자정 적재(AlarmRedisScheduler, AccidentRedisScheduler)가 끝나면 전날분을 원본 테이블에서 시간 단위로 집계해 upsert 하고,
+ * 일 단위는 시간 단위 집계에서 만든다. 집계한 날짜는 stat_rollup_log 에 남긴다.
+ *
+ * 통계 조회(aggregate)는 집계가 끝난 날짜는 집계 테이블에서, 나머지 날짜(오늘, 백필 전)는 원본 테이블에서 읽어 합친다.
+ * 기존 이력은 백필(startBackfill)로 한 번 집계한다.
+ */
+@Slf4j
+@Service
+public class StatRollupService {
+
+    private static final String ROLLUP_HOUR_SQL = """
+            INSERT INTO stat_rollup_hour (construction_sites_id, bucket, recognized_type, alarm_type, cnt)
+            SELECT site, bucket, recognized_type, alarm_type, SUM(cnt)
+            FROM (
+                SELECT COALESCE(a.construction_sites_id, -1) AS site, date_trunc('hour', a.created_at) AS bucket,
+                       COALESCE(a.recognized_type, '') AS recognized_type, COALESCE(a.alarm_type, '') AS alarm_type,
+                       COUNT(*) AS cnt
+                FROM alarm_history a
+                WHERE a.created_at >= ? AND a.created_at < ?
+                GROUP BY 1, 2, 3, 4
+                UNION ALL
+                SELECT COALESCE(a.construction_sites_id, -1), date_trunc('hour', a.created_at),
+                       COALESCE(a.accident_type, ''), '3', COUNT(*)
+                FROM accident_history a
+                WHERE a.created_at >= ? AND a.created_at < ?
+                GROUP BY 1, 2, 3, 4
+            ) t
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (construction_sites_id, bucket, recognized_type, alarm_type)
+            DO UPDATE SET cnt = EXCLUDED.cnt
+            """;
+
+    private static final String ROLLUP_DAY_SQL = """
+            INSERT INTO stat_rollup_day (construction_sites_id, bucket, recognized_type, alarm_type, cnt)
+            SELECT construction_sites_id, date_trunc('day', bucket), recognized_type, alarm_type, SUM(cnt)
+            FROM stat_rollup_hour
+            WHERE bucket >= ? AND bucket < ?
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (construction_sites_id, bucket, recognized_type, alarm_type)
+            DO UPDATE SET cnt = EXCLUDED.cnt
+            """;
+
+    private static final String MARK_DAY_SQL = """
+            INSERT INTO stat_rollup_log (day, rolled_at) VALUES (?, ?)
+            ON CONFLICT (day) DO UPDATE SET rolled_at = EXCLUDED.rolled_at
+            """;
+
+    // %s: 테이블, %s: 현장 조건
+    private static final String READ_SQL = """
+            SELECT date_trunc(?, r.bucket) AS bucket, NULLIF(r.recognized_type, '') AS recognized_type,
+                   NULLIF(r.alarm_type, '') AS alarm_type, SUM(r.cnt) AS cnt
+            FROM %s r
+            WHERE r.bucket >= ? AND r.bucket < ?%s
+            GROUP BY 1, 2, 3
+            """;
+
+    private final AlarmHistoryRepository alarmHistoryRepository;
+    private final AccidentHistoryRepository accidentHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor statRebuildExecutor;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+    private final AtomicLong daysDone = new AtomicLong();
+    private volatile String state = "IDLE";
+    private volatile LocalDate backfillFrom;
+    private volatile LocalDate backfillTo;
+    private volatile LocalDate currentDay;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public StatRollupService(AlarmHistoryRepository alarmHistoryRepository,
+                             AccidentHistoryRepository accidentHistoryRepository,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("statRebuildExecutor") ThreadPoolTaskExecutor statRebuildExecutor) {
+        this.alarmHistoryRepository = alarmHistoryRepository;
+        this.accidentHistoryRepository = accidentHistoryRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statRebuildExecutor = statRebuildExecutor;
+    }
+
+    /**
+     * 하루치를 다시 집계한다. (반복 실행해도 같은 결과)
+     * 알람/사고 자정 적재가 각각 부르므로 순서대로 실행해, 나중에 끝난 쪽이 더 많이 적재된 상태를 반영하도록 한다.
+     */
+    public synchronized void rollupDay(LocalDate day) {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(ROLLUP_HOUR_SQL, from, to, from, to);
+            jdbcTemplate.update(ROLLUP_DAY_SQL, from, to);
+            jdbcTemplate.update(MARK_DAY_SQL, Date.valueOf(day), Timestamp.valueOf(LocalDateTime.now()));
+        });
+        log.info("Stat rollup done: day={}", day);
+    }
+
+    /**
+     * 자정 적재 후 호출 (실패해도 적재 후 작업은 계속하도록 예외를 남기지 않음, 원본 테이블 집계로 대신함)
+     */
+    public void rollupFlushedDay(LocalDate day) {
+        try {
+            rollupDay(day);
+        } catch (RuntimeException e) {
+            log.error("Stat rollup failed: day={}, error={}", day, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * [since, until) 를 unit(minute, hour, day, month) 단위로 자른 구간별, 종류별 건수
+     * 집계가 끝난 날짜는 집계 테이블(hour 는 시간, day/month 는 일 집계), 나머지는 원본 테이블에서 읽는다.
+     * 같은 구간/필드가 여러 행으로 나올 수 있으므로 호출하는 쪽에서 더한다.
+     *
+     * @param alarmsUntil 원본 알람은 이 시각 이전까지만 (오늘 알람은 Redis 에서 따로 세는 경우)
+     * @param siteId      현장 ID (null = 전체)
+     */
+    public List<StatBucketRow> aggregate(String unit, LocalDateTime since, LocalDateTime until,
+                                         LocalDateTime alarmsUntil, Long siteId) {
+        List<StatBucketRow> rows = new ArrayList<>();
+        List<LocalDateTime[]> raw = new ArrayList<>();
+
+        if ("minute".equals(unit)) {
+            raw.add(new LocalDateTime[]{since, until});
+        } else {
+            String table = "hour".equals(unit) ? "stat_rollup_hour" : "stat_rollup_day";
+            String sql = READ_SQL.formatted(table, siteId != null ? " AND r.construction_sites_id = ?" : "");
+            Object[] args = siteId != null
+                    ? new Object[]{unit, Timestamp.valueOf(since), Timestamp.valueOf(until), siteId}
+                    : new Object[]{unit, Timestamp.valueOf(since), Timestamp.valueOf(until)};
+            rows.addAll(jdbcTemplate.query(sql, (rs, i) -> new BucketRow(rs.getTimestamp("bucket"),
+                    rs.getString("recognized_type"), rs.getString("alarm_type"), rs.getLong("cnt")), args));
+            raw.addAll(uncoveredRanges(since, until));
+        }
+
+        for (LocalDateTime[] range : raw) {
+            Timestamp from = Timestamp.valueOf(range[0]);
+            Timestamp to = Timestamp.valueOf(range[1]);
+            Timestamp alarmTo = Timestamp.valueOf(range[1].isAfter(alarmsUntil) ? alarmsUntil : range[1]);
+            rows.addAll(siteId == null
+                    ? accidentHistoryRepository.aggregateStatBuckets(unit, from, to)
+                    : accidentHistoryRepository.aggregateSiteStatBuckets(unit, from, to, siteId));
+            if (from.before(alarmTo)) {
+                rows.addAll(siteId == null
+                        ? alarmHistoryRepository.aggregateStatBuckets(unit, from, alarmTo)
+                        : alarmHistoryRepository.aggregateSiteStatBuckets(unit, from, alarmTo, siteId));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 기존 이력 백필 (statRebuildExecutor, 하루씩). from/to 가 없으면 가장 오래된 이력 ~ 어제
+     *
+     * @return 이미 실행 중이면 false
+     */
+    public boolean startBackfill(LocalDate from, LocalDate to) {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        state = "RUNNING";
+        error = null;
+        currentDay = null;
+        daysDone.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        backfillFrom = from;
+        // 오늘은 아직 적재 전이므로 어제까지만
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        backfillTo = to != null && to.isBefore(yesterday) ? to : yesterday;
+
+        statRebuildExecutor.execute(() -> {
+            try {
+                if (backfillFrom == null) {
+                    Timestamp oldest = jdbcTemplate.queryForObject(
+                            "SELECT LEAST((SELECT MIN(created_at) FROM alarm_history), "
+                                    + "(SELECT MIN(created_at) FROM accident_history))", Timestamp.class);
+                    backfillFrom = oldest != null ? oldest.toLocalDateTime().toLocalDate() : backfillTo.plusDays(1);
+                }
+                log.info("Stat rollup backfill started: {} ~ {}", backfillFrom, backfillTo);
+                for (LocalDate day = backfillFrom; !day.isAfter(backfillTo); day = day.plusDays(1)) {
+                    currentDay = day;
+                    rollupDay(day);
+                    daysDone.incrementAndGet();
+                }
+                state = "DONE";
+                log.info("Stat rollup backfill finished: days={}", daysDone.get());
+            } catch (RuntimeException e) {
+                state = "FAILED";
+                error = e.getMessage();
+                log.error("Stat rollup backfill failed: day={}, error={}", currentDay, e.getMessage(), e);
+            } finally {
+                currentDay = null;
+                finishedAt = LocalDateTime.now();
+                backfillRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    public StatRollupStatus getBackfillStatus() {
+        return StatRollupStatus.builder()
+                .state(state)
+                .from(backfillFrom)
+                .to(backfillTo)
+                .currentDay(currentDay)
+                .daysDone(daysDone.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * [since, until) 중 집계가 끝나지 않은 날짜 구간 (연속된 날짜는 하나로)
+     */
+    private List<LocalDateTime[]> uncoveredRanges(LocalDateTime since, LocalDateTime until) {
+        LocalDate first = since.toLocalDate();
+        LocalDate last = until.minusNanos(1).toLocalDate();
+        Set<LocalDate> covered = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT day FROM stat_rollup_log WHERE day >= ? AND day <= ?", LocalDate.class,
+                Date.valueOf(first), Date.valueOf(last)));
+
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        LocalDateTime start = null;
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            if (!covered.contains(day)) {
+                if (start == null) {
+                    start = day.atStartOfDay().isBefore(since) ? since : day.atStartOfDay();
+                }
+            } else if (start != null) {
+                ranges.add(new LocalDateTime[]{start, day.atStartOfDay()});
+                start = null;
+            }
+        }
+        if (start != null) {
+            ranges.add(new LocalDateTime[]{start, until});
+        }
+        return ranges;
+    }
+
+    private record BucketRow(Timestamp bucket, String recognizedType, String alarmType, Long cnt)
+            implements StatBucketRow {
+
+        @Override
+        public Timestamp getBucket() {
+            return bucket;
+        }
+
+        @Override
+        public String getRecognizedType() {
+            return recognizedType;
+        }
+
+        @Override
+        public String getAlarmType() {
+            return alarmType;
+        }
+
+        @Override
+        public Long getCnt() {
+            return cnt;
+        }
+    }
+}
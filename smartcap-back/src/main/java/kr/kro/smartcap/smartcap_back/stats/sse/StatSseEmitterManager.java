@@ -55,8 +55,12 @@ public class StatSseEmitterManager {
         return emitter;
     }
 
+    public boolean hasSubscribers() {
+        return !emitters.isEmpty();
+    }
+
     public <T> void broadcast(String eventName, T data) {
-        log.info("Broadcasting event '{}' to {} emitters with data: {}",
+        log.debug("Broadcasting event '{}' to {} emitters with data: {}",
                 eventName, emitters.size(), data);
 
         for (SseEmitter emitter : emitters) {
@@ -72,6 +76,6 @@ public class StatSseEmitterManager {
             }
         }
 
-        log.info("Broadcast of event '{}' completed.", eventName);
+        log.debug("Broadcast of event '{}' completed.", eventName);
     }
 }
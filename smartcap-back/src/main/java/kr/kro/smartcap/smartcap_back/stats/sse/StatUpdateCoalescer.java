@@ -0,0 +1,56 @@
+package kr.kro.smartcap.smartcap_back.stats.sse;
+
+import kr.kro.smartcap.smartcap_back.stats.dto.StatBatchDto;
+import kr.kro.smartcap.smartcap_back.stats.dto.StatUpdateDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 통계 변경 SSE 묶음 전송
+ * 적재 스레드는 변경을 메모리에 모으기만 하고, 주기(stat.broadcast.interval-ms)마다 스케줄러 스레드에서
+ * (키, 필드)별 최신 값만 stat_batch 이벤트 하나로 보낸다. 알람이 몰려도 구독자당 전송 수는 주기당 1건이다.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatUpdateCoalescer {
+
+    private final StatSseEmitterManager statSseEmitterManager;
+
+    private final Map<String, StatUpdateDto> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param replace true 면 값을 덮어쓴다 (통계 재설정). false 면 큰 값을 남긴다
+     *                (증가 결과는 스레드 간 도착 순서가 바뀔 수 있지만 카운터는 줄지 않으므로)
+     */
+    public void offer(StatUpdateDto update, boolean replace) {
+        String id = update.getKey() + "|" + update.getField();
+        if (replace) {
+            pending.put(id, update);
+        } else {
+            pending.merge(id, update, (old, next) -> next.getNewValue() >= old.getNewValue() ? next : old);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stat.broadcast.interval-ms:250}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<StatUpdateDto> updates = new ArrayList<>(pending.size());
+        for (String id : pending.keySet()) {
+            StatUpdateDto update = pending.remove(id);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        if (!updates.isEmpty() && statSseEmitterManager.hasSubscribers()) {
+            statSseEmitterManager.broadcast("stat_batch", new StatBatchDto(updates));
+        }
+    }
+}
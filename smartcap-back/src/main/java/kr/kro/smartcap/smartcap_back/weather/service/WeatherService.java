@@ -1,5 +1,7 @@
 package kr.kro.smartcap.smartcap_back.weather.service;
 
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +9,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -18,6 +21,7 @@ public class WeatherService {
 
     private final RestTemplate restTemplate;
     private final StringRedisTemplate stringRedisTemplate; // StringRedisTemplate 사용
+    private final RedisKeyIndex redisKeyIndex;
 
     @Value("${weather.api.key}")
     private String apiKey;
@@ -59,6 +63,7 @@ public class WeatherService {
 
         // 레디스에 날씨 상태만 캐싱
         stringRedisTemplate.opsForValue().set(locationKey, weatherStatus, redisTtl, TimeUnit.SECONDS);
+        redisKeyIndex.register(KeyFamily.WEATHER_STATUS, locationKey, Duration.ofSeconds(redisTtl));
         log.info("Weather status cached for location {} with TTL {} seconds", locationKey, redisTtl);
 
         return weatherStatus;
@@ -90,9 +95,9 @@ public class WeatherService {
      */
     public void updateAllCachedWeatherLocations() {
         log.info("Updating all cached weather locations");
-        // 모든 weather:status: 패턴의 키 조회
-        var keys = stringRedisTemplate.keys("weather:status:*");
-        if (keys == null || keys.isEmpty()) {
+        // 캐싱된 weather:status: 키 조회 (키 인덱스)
+        var keys = redisKeyIndex.keys(KeyFamily.WEATHER_STATUS, null);
+        if (keys.isEmpty()) {
             log.info("No cached weather locations to update");
             return;
         }
@@ -0,0 +1,78 @@
+-- 애플리케이션 기동 시 실행되는 스키마 보완 스크립트 (spring.sql.init.mode=always)
+-- 기존 테이블(alarm_history, accident_history, accident_videos 등)은 덤프로 관리하므로
+-- 여기에는 반복 실행해도 안전한 CREATE ... IF NOT EXISTS 문과 멱등한 ALTER 문만 둔다.
+
+-- 알람/사고 ID 는 적재 시 EventIdAllocator 가 발급해 넣는다. (DB 에서 생성하지 않음)
+-- 덤프가 만든 IDENTITY 는 GENERATED ALWAYS 면 ID 를 넣는 INSERT 를 거부하고,
+-- serial 기본값(nextval)은 발급 ID 보다 뒤처져 기본값에 기대는 INSERT 가 충돌하므로 둘 다 제거한다.
+-- (기본값이 없으므로 ID 없이 INSERT 하면 NOT NULL 위반으로 바로 드러남)
+ALTER TABLE alarm_history ALTER COLUMN alarm_id DROP IDENTITY IF EXISTS;
+ALTER TABLE alarm_history ALTER COLUMN alarm_id DROP DEFAULT;
+ALTER TABLE accident_history ALTER COLUMN accident_id DROP IDENTITY IF EXISTS;
+ALTER TABLE accident_history ALTER COLUMN accident_id DROP DEFAULT;
+
+-- 사고 영상 생성 작업
+CREATE TABLE IF NOT EXISTS accident_video_jobs (
+    job_id          BIGSERIAL PRIMARY KEY,
+    accident_id     BIGINT       NOT NULL,
+    device_id       INTEGER      NOT NULL,
+    redis_key       VARCHAR(255),
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    last_error      VARCHAR(500),
+    next_attempt_at TIMESTAMP    NOT NULL,
+    created_at      TIMESTAMP    NOT NULL,
+    updated_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_accident_video_jobs_status_next
+    ON accident_video_jobs (status, next_attempt_at);
+
+-- 지도 이력 조회 (기간 + 최신순 키셋 페이지)
+CREATE INDEX IF NOT EXISTS idx_accident_history_created_at
+    ON accident_history (created_at DESC, accident_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_alarm_history_created_at
+    ON alarm_history (created_at DESC, alarm_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_accident_videos_accident_id
+    ON accident_videos (accident_id);
+
+-- 지도 영역(bbox) 조회: gps && ST_MakeEnvelope(...)
+CREATE INDEX IF NOT EXISTS idx_accident_history_gps
+    ON accident_history USING GIST (gps);
+
+CREATE INDEX IF NOT EXISTS idx_alarm_history_gps
+    ON alarm_history USING GIST (gps);
+
+-- 통계 집계 테이블 (자정 적재 시 전날분을 upsert, StatRollupService)
+-- 현장 없음은 -1, 종류 없음은 '' 로 저장 (기본 키에 null 을 둘 수 없음)
+CREATE TABLE IF NOT EXISTS stat_rollup_hour (
+    construction_sites_id BIGINT       NOT NULL,
+    bucket                TIMESTAMP    NOT NULL,
+    recognized_type       VARCHAR(255) NOT NULL,
+    alarm_type            VARCHAR(255) NOT NULL,
+    cnt                   BIGINT       NOT NULL,
+    PRIMARY KEY (construction_sites_id, bucket, recognized_type, alarm_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stat_rollup_hour_bucket
+    ON stat_rollup_hour (bucket);
+
+CREATE TABLE IF NOT EXISTS stat_rollup_day (
+    construction_sites_id BIGINT       NOT NULL,
+    bucket                TIMESTAMP    NOT NULL,
+    recognized_type       VARCHAR(255) NOT NULL,
+    alarm_type            VARCHAR(255) NOT NULL,
+    cnt                   BIGINT       NOT NULL,
+    PRIMARY KEY (construction_sites_id, bucket, recognized_type, alarm_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stat_rollup_day_bucket
+    ON stat_rollup_day (bucket);
+
+-- 집계가 끝난 날짜 (없는 날짜는 원본 테이블에서 집계)
+CREATE TABLE IF NOT EXISTS stat_rollup_log (
+    day       DATE      PRIMARY KEY,
+    rolled_at TIMESTAMP NOT NULL
+);
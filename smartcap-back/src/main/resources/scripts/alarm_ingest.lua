@@ -0,0 +1,61 @@
+-- 알람 1건 적재 스크립트
+-- GPS/날씨 보강, 일자별 알람 리스트 추가를 한 번의 왕복으로 처리한다.
+-- (시간/일/월 통계는 StatCounterBuffer 가 모아서 따로 반영)
+--
+-- KEYS[1] : GPS 해시 키 ("gps {deviceId}")
+-- KEYS[2] : 현재 날씨 키 ("current:weather")
+-- KEYS[3] : 알람 리스트 키 ("alarm:{siteId}:{yyyy-MM-dd}")
+-- KEYS[4] : 알람 리스트 키 인덱스 ("index:alarm:{yyyy-MM-dd}")
+-- KEYS[5] : 적재한 이벤트 ID 해시 ("ingested:alarm:{yyyy-MM-dd}", field: 이벤트 ID, value: 반환값 JSON)
+--
+-- ARGV[1] : 알람 리스트 TTL(초)
+-- ARGV[2] : 현장 ID, ARGV[3] : 알람 타입, ARGV[4] : 인식 타입
+-- ARGV[5] : 생성 시각(epoch millis), ARGV[6] : 기본 날씨, ARGV[7] : 이벤트 ID (EventIdAllocator)
+-- ARGV[8] : 리스트 키 인덱스 score (만료 시각 epoch 초)
+--
+-- 반환: { weather, lat, lng, gpsFound(1/0), listLength }
+--
+-- 같은 이벤트 ID 로 다시 실행하면(응답 시간 초과 후 재시도 등) 리스트에 추가하지 않고 처음 실행의 반환값을 돌려준다.
+
+local alarmId = tonumber(ARGV[7])
+if alarmId then
+    local stored = redis.call('HGET', KEYS[5], ARGV[7])
+    if stored then
+        return cjson.decode(stored)
+    end
+end
+
+local lat = tonumber(redis.call('HGET', KEYS[1], 'lat'))
+local lng = tonumber(redis.call('HGET', KEYS[1], 'lng'))
+local gpsFound = 1
+if lat == nil or lng == nil or lat ~= lat or lng ~= lng
+        or math.abs(lat) == math.huge or math.abs(lng) == math.huge then
+    lat, lng, gpsFound = 0, 0, 0
+end
+
+local weather = redis.call('GET', KEYS[2])
+if not weather or weather == '' then
+    weather = ARGV[6]
+end
+
+-- RedisEventCodec 버전 1, 알람 형식 (리틀 엔디언, 문자열은 i32 길이 + 바이트, 정수 -1 = null)
+local function packString(value)
+    return struct.pack('<i4', #value) .. value
+end
+local latText = string.format('%.17g', lat)
+local lngText = string.format('%.17g', lng)
+local payload = struct.pack('<BBi8i8i8dd', 1, 1,
+        tonumber(ARGV[7]) or -1, tonumber(ARGV[2]) or -1, tonumber(ARGV[5]), lat, lng)
+        .. packString(ARGV[3]) .. packString(ARGV[4]) .. packString(weather)
+
+local listLength = redis.call('RPUSH', KEYS[3], payload)
+redis.call('EXPIRE', KEYS[3], ARGV[1])
+redis.call('ZADD', KEYS[4], ARGV[8], KEYS[3])
+redis.call('EXPIRE', KEYS[4], ARGV[1])
+
+local reply = { weather, latText, lngText, gpsFound, listLength }
+if alarmId then
+    redis.call('HSET', KEYS[5], ARGV[7], cjson.encode(reply))
+    redis.call('EXPIRE', KEYS[5], ARGV[1])
+end
+return reply
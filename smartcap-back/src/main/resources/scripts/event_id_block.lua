@@ -0,0 +1,13 @@
+-- 이벤트 ID 블록 할당
+-- 카운터 키가 없으면(최초 기동, Redis 초기화) 시작값으로 만든 뒤 블록 크기만큼 증가시킨다.
+--
+-- KEYS[1] : ID 카운터 키 ("id:event")
+-- ARGV[1] : 카운터가 없을 때의 시작값 (DB 최대 ID 와 이 프로세스가 받은 마지막 ID 중 큰 값)
+-- ARGV[2] : 블록 크기
+--
+-- 반환: 블록의 마지막 ID (블록 = [반환값 - 블록 크기 + 1, 반환값])
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    redis.call('SET', KEYS[1], ARGV[1])
+end
+return redis.call('INCRBY', KEYS[1], ARGV[2])
@@ -0,0 +1,23 @@
+-- 통계 키 하나의 필드 증가, 만료, 키 인덱스 등록을 한 번에 처리한다.
+-- (HINCRBY 로 만들어진 키가 만료 없이 남지 않도록 만들 때 바로 만료 시각을 건다)
+--
+-- KEYS[1] : 통계 키 ("summary:hour:{yyyy-MM-dd}:{HH}" 등)
+-- KEYS[2] : 키 인덱스 ("index:summary:hour" 등)
+--
+-- ARGV[1] : 만료 시각 epoch 초 (0 = 만료 없음, StatKeyLifecycle.expireAt)
+-- ARGV[2] : 키 인덱스 score
+-- ARGV[3..] : 필드, 증가분, 필드, 증가분 ...
+--
+-- 반환: 필드별 증가 후 값 (ARGV 순서)
+
+local values = {}
+for i = 3, #ARGV, 2 do
+    values[#values + 1] = redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+end
+
+if ARGV[1] ~= '0' then
+    redis.call('EXPIREAT', KEYS[1], ARGV[1])
+end
+redis.call('ZADD', KEYS[2], ARGV[2], KEYS[1])
+
+return values
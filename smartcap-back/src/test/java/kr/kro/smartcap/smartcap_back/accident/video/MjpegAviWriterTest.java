@@ -0,0 +1,118 @@
+package kr.kro.smartcap.smartcap_back.accident.video;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MjpegAviWriterTest {
+
+    private static final int FPS = 8;
+
+    @Test
+    void writesRiffHeaderMoviAndIndex() throws IOException {
+        byte[] first = jpeg(32, 16);
+        byte[] second = jpeg(32, 16);
+        // 홀수 길이 프레임의 패딩 확인용
+        byte[] odd = (first.length & 1) == 1 ? first : append(first, (byte) 0);
+
+        ClipBuffer out = new ClipBuffer();
+        MjpegAviWriter writer = new MjpegAviWriter(out, FPS);
+        assertTrue(writer.writeFrame(odd));
+        assertTrue(writer.writeFrame(second));
+        writer.finish();
+        writer.close();
+
+        ByteBuffer avi = out.contents().order(ByteOrder.LITTLE_ENDIAN);
+        int fileSize = avi.remaining();
+
+        assertEquals("RIFF", fourcc(avi, 0));
+        assertEquals(fileSize - 8, avi.getInt(4));
+        assertEquals("AVI ", fourcc(avi, 8));
+        assertEquals("LIST", fourcc(avi, 12));
+        assertEquals("hdrl", fourcc(avi, 20));
+
+        // avih
+        assertEquals("avih", fourcc(avi, 24));
+        assertEquals(1_000_000 / FPS, avi.getInt(32));
+        assertEquals(2, avi.getInt(48));        // dwTotalFrames
+        assertEquals(32, avi.getInt(64));       // dwWidth
+        assertEquals(16, avi.getInt(68));       // dwHeight
+
+        // movi 리스트는 헤더 바로 뒤에 오고, 첫 청크가 이어진다
+        int hdrlEnd = 20 + avi.getInt(16);
+        assertEquals("LIST", fourcc(avi, hdrlEnd));
+        assertEquals("movi", fourcc(avi, hdrlEnd + 8));
+        int moviFourcc = hdrlEnd + 8;
+        int moviEnd = moviFourcc + avi.getInt(hdrlEnd + 4);
+
+        assertEquals("idx1", fourcc(avi, moviEnd));
+        int indexSize = avi.getInt(moviEnd + 4);
+        assertEquals(2 * 16, indexSize);
+        assertEquals(fileSize, moviEnd + 8 + indexSize);
+
+        byte[][] frames = {odd, second};
+        for (int i = 0; i < frames.length; i++) {
+            int entry = moviEnd + 8 + i * 16;
+            assertEquals("00dc", fourcc(avi, entry));
+            int chunk = moviFourcc + avi.getInt(entry + 8);
+            assertEquals(frames[i].length, avi.getInt(entry + 12));
+            assertEquals("00dc", fourcc(avi, chunk));
+            assertEquals(frames[i].length, avi.getInt(chunk + 4));
+            assertArrayEquals(frames[i], slice(avi, chunk + 8, frames[i].length));
+        }
+
+        // 홀수 길이 청크 뒤에는 패딩 1바이트
+        int secondChunk = moviFourcc + avi.getInt(moviEnd + 8 + 16 + 8);
+        assertEquals(moviFourcc + 4 + 8 + odd.length + 1, secondChunk);
+    }
+
+    @Test
+    void rejectsNonJpegFrames() throws IOException {
+        MjpegAviWriter writer = new MjpegAviWriter(new ClipBuffer(), FPS);
+        assertFalse(writer.writeFrame(new byte[]{1, 2, 3, 4, 5}));
+        assertEquals(0, writer.getFrameCount());
+    }
+
+    @Test
+    void readsJpegSizeFromSofMarker() throws IOException {
+        assertArrayEquals(new int[]{40, 24}, MjpegAviWriter.readJpegSize(jpeg(40, 24)));
+        assertNull(MjpegAviWriter.readJpegSize(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9}));
+        assertNull(MjpegAviWriter.readJpegSize(new byte[]{0x00, 0x01}));
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] append(byte[] bytes, byte value) {
+        byte[] result = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        result[bytes.length] = value;
+        return result;
+    }
+
+    private static String fourcc(ByteBuffer buffer, int offset) {
+        return new String(slice(buffer, offset, 4), StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] slice(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+}
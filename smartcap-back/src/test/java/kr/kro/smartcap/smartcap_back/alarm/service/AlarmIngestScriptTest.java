@@ -0,0 +1,145 @@
+package kr.kro.smartcap.smartcap_back.alarm.service;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.common.codec.RedisEventCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * scripts/alarm_ingest.lua 가 쓴 리스트 원소를 RedisEventCodec 으로 읽어 두 쪽의 바이트 배치가 맞는지 확인한다.
+ * 같은 이벤트 ID 로 다시 실행했을 때 리스트에 중복 추가되지 않는지도 확인한다.
+ * 실제 Redis 가 필요하므로 SMARTCAP_TEST_REDIS_URL (예: redis://localhost:6379/15) 이 있을 때만 실행한다.
+ */
+@EnabledIfEnvironmentVariable(named = "SMARTCAP_TEST_REDIS_URL", matches = ".+")
+class AlarmIngestScriptTest {
+
+    private static final long CREATED_AT = 1760659200123L;
+
+    private RedisClient client;
+    private StatefulRedisConnection<byte[], byte[]> connection;
+    private RedisCommands<byte[], byte[]> redis;
+    private String prefix;
+
+    @BeforeEach
+    void connect() {
+        client = RedisClient.create(System.getenv("SMARTCAP_TEST_REDIS_URL"));
+        connection = client.connect(ByteArrayCodec.INSTANCE);
+        redis = connection.sync();
+        prefix = "test:" + UUID.randomUUID() + ":";
+    }
+
+    @AfterEach
+    void cleanUp() {
+        redis.del(key("gps"), key("weather"), key("alarm"), key("index"), key("ingested"));
+        connection.close();
+        client.shutdown();
+    }
+
+    @Test
+    void scriptOutputDecodesWithCodec() throws IOException {
+        redis.hset(key("gps"), bytes("lat"), bytes("37.5665"));
+        redis.hset(key("gps"), bytes("lng"), bytes("126.978"));
+        redis.set(key("weather"), bytes("흐림"));
+
+        run("7", "2", "낙상", "1234567890123");
+
+        AlarmHistoryRedisDto alarm = onlyElement();
+        assertEquals(1234567890123L, alarm.getAlarmId());
+        assertEquals(7L, alarm.getConstructionSitesId());
+        assertEquals(CREATED_AT, alarm.getCreatedAt().getTime());
+        assertEquals(37.5665, alarm.getLat());
+        assertEquals(126.978, alarm.getLng());
+        assertEquals("2", alarm.getAlarmType());
+        assertEquals("낙상", alarm.getRecognizedType());
+        assertEquals("흐림", alarm.getWeather());
+    }
+
+    @Test
+    void missingValuesUseSentinels() throws IOException {
+        // GPS/날씨 없음, 현장/이벤트 ID 가 숫자가 아님 (AlarmIngestScript 는 null 을 "null" 로 넘김)
+        run("null", "1", "차량", "null");
+
+        AlarmHistoryRedisDto alarm = onlyElement();
+        assertNull(alarm.getAlarmId());
+        assertNull(alarm.getConstructionSitesId());
+        assertEquals(0.0, alarm.getLat());
+        assertEquals(0.0, alarm.getLng());
+        assertEquals("맑음", alarm.getWeather());
+    }
+
+    @Test
+    void rerunWithSameAlarmIdDoesNotAppendAgain() throws IOException {
+        redis.hset(key("gps"), bytes("lat"), bytes("37.5665"));
+        redis.hset(key("gps"), bytes("lng"), bytes("126.978"));
+
+        List<Object> first = run("7", "2", "낙상", "42");
+        // 재시도 사이에 GPS 가 바뀌어도 처음 적재한 값을 돌려준다
+        redis.hset(key("gps"), bytes("lat"), bytes("35.1"));
+        List<Object> second = run("7", "2", "낙상", "42");
+
+        assertEquals(1, redis.llen(key("alarm")));
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(text(first.get(i)), text(second.get(i)));
+        }
+
+        run("7", "2", "낙상", "43");
+        assertEquals(2, redis.llen(key("alarm")));
+    }
+
+    @Test
+    void alarmsWithoutIdAreNotDeduplicated() throws IOException {
+        run("7", "2", "낙상", "null");
+        run("7", "2", "낙상", "null");
+
+        assertEquals(2, redis.llen(key("alarm")));
+    }
+
+    private List<Object> run(String siteId, String alarmType, String recognizedType, String alarmId) throws IOException {
+        byte[][] keys = {key("gps"), key("weather"), key("alarm"), key("index"), key("ingested")};
+        return redis.eval(script(), ScriptOutputType.MULTI, keys,
+                bytes("60"), bytes(siteId), bytes(alarmType), bytes(recognizedType),
+                bytes(String.valueOf(CREATED_AT)), bytes("맑음"), bytes(alarmId), bytes("0"));
+    }
+
+    private static String text(Object value) {
+        return value instanceof byte[] raw ? new String(raw, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    private AlarmHistoryRedisDto onlyElement() {
+        List<byte[]> list = redis.lrange(key("alarm"), 0, -1);
+        assertEquals(1, list.size());
+        return (AlarmHistoryRedisDto) RedisEventCodec.decode(list.get(0));
+    }
+
+    private static String script() throws IOException {
+        try (InputStream in = new ClassPathResource("scripts/alarm_ingest.lua").getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] key(String name) {
+        return bytes(prefix + name);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import kr.kro.smartcap.smartcap_back.common.codec.ColumnarEncoder.MapField;
+import kr.kro.smartcap.smartcap_back.event.dto.AccidentDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.AlarmDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.GpsDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapClusterDTO;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatEntryDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatGroupDto;
+import kr.kro.smartcap.smartcap_back.event.dto.stat.StatResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ColumnarEncoder 클래스 주석에 적힌 배치대로 읽어 보는 테스트 (클라이언트 디코더가 따르는 형식)
+ */
+class ColumnarEncoderTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 10, 17, 9, 30, 15);
+
+    @Test
+    void fieldMaskFromQuery() {
+        assertEquals(ColumnarEncoder.ALL_FIELDS, ColumnarEncoder.fieldMask(null));
+        assertEquals(ColumnarEncoder.ALL_FIELDS, ColumnarEncoder.fieldMask(" "));
+        assertEquals(ColumnarEncoder.ALL_FIELDS, ColumnarEncoder.fieldMask("unknown"));
+        assertEquals(MapField.LNG.bit() | MapField.LAT.bit(), ColumnarEncoder.fieldMask("LNG, lat,unknown"));
+    }
+
+    @Test
+    void mapResponseFollowsDocumentedLayout() {
+        AlarmDTO alarm = new AlarmDTO();
+        alarm.setAlarm_id(11L);
+        alarm.setConstruction_sites_id(1L);
+        alarm.setAlarm_type("2");
+        alarm.setRecognized_type("낙상");
+        alarm.setWeather("맑음");
+        alarm.setCreated_at(CREATED_AT);
+
+        AccidentDTO accident = new AccidentDTO();
+        accident.setAlarm_id(12L);
+        accident.setAccident_id(12L);
+        accident.setGps(gps(127.0276, 37.4979));
+        accident.setWeather("맑음");
+        accident.setAccident_video_id(5L);
+        accident.setVideo_url("/files/clip.mp4");
+
+        Map<String, Long> alarmTypes = new LinkedHashMap<>();
+        alarmTypes.put("3", 4L);
+        MapClusterDTO cluster = new MapClusterDTO(gps(126.9, 37.5), 4, alarmTypes, Map.of());
+
+        MapDataResponse response = new MapDataResponse();
+        response.setRecentAlarms(List.of(alarm));
+        response.setFallingAccidents(List.of(accident));
+        response.setClusters(List.of(cluster));
+        response.setNextCursor("next");
+        response.setDelta(true);
+
+        int mask = ColumnarEncoder.fieldMask("lng,lat,time,weather,video");
+        Reader in = new Reader(ColumnarEncoder.encode(response, mask));
+
+        assertEquals("SCMP", in.ascii(4));
+        assertEquals(1, in.u8());
+        assertEquals(mask, in.i32());
+        List<String> dict = in.dictionary();
+
+        assertEquals("next", in.string());
+        assertNull(in.string());
+        assertEquals(1, in.u8());
+
+        // recentAlarms: lng, lat, time, weather, video(id[], url[]) 순서
+        assertEquals(1, in.i32());
+        assertTrue(Double.isNaN(in.f64()));
+        assertTrue(Double.isNaN(in.f64()));
+        assertEquals(CREATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), in.i64());
+        assertEquals("맑음", dict.get(in.i32()));
+        assertEquals(-1L, in.i64());
+        assertEquals(-1, in.i32());
+
+        // fallingAccidents
+        assertEquals(1, in.i32());
+        assertEquals(127.0276, in.f64());
+        assertEquals(37.4979, in.f64());
+        assertEquals(-1L, in.i64());
+        assertEquals("맑음", dict.get(in.i32()));
+        assertEquals(5L, in.i64());
+        assertEquals("/files/clip.mp4", dict.get(in.i32()));
+
+        // clusters
+        assertEquals(1, in.i32());
+        assertEquals(126.9, in.f64());
+        assertEquals(37.5, in.f64());
+        assertEquals(4L, in.i64());
+        assertEquals(1, in.i32());
+        assertEquals("3", dict.get(in.i32()));
+        assertEquals(4L, in.i64());
+        assertEquals(0, in.i32());
+
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void statResponseFollowsDocumentedLayout() {
+        StatGroupDto hour = StatGroupDto.builder()
+                .key("2025-10-17:09")
+                .scope("hour")
+                .stats(List.of(
+                        StatEntryDto.builder().field("낙상:2").count(3).build(),
+                        StatEntryDto.builder().field("차량:1").count(1).build()))
+                .build();
+        StatResponseDto response = new StatResponseDto(List.of(hour), List.of(), null);
+
+        Reader in = new Reader(ColumnarEncoder.encode(response));
+
+        assertEquals("SCST", in.ascii(4));
+        assertEquals(1, in.u8());
+        List<String> dict = in.dictionary();
+
+        assertEquals(1, in.i32());
+        assertEquals("2025-10-17:09", dict.get(in.i32()));
+        assertEquals("hour", dict.get(in.i32()));
+        assertEquals(2, in.i32());
+        assertEquals("낙상:2", dict.get(in.i32()));
+        assertEquals("차량:1", dict.get(in.i32()));
+        assertEquals(3L, in.i64());
+        assertEquals(1L, in.i64());
+
+        // daily (빈 목록), monthly (null 도 빈 목록)
+        assertEquals(0, in.i32());
+        assertEquals(0, in.i32());
+        assertFalse(in.hasRemaining());
+    }
+
+    private static GpsDTO gps(double lng, double lat) {
+        return new GpsDTO("Point", new double[]{lng, lat});
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] bytes) {
+            buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int u8() {
+            return buffer.get() & 0xFF;
+        }
+
+        int i32() {
+            return buffer.getInt();
+        }
+
+        long i64() {
+            return buffer.getLong();
+        }
+
+        double f64() {
+            return buffer.getDouble();
+        }
+
+        String ascii(int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        String string() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        List<String> dictionary() {
+            int count = buffer.getInt();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(string());
+            }
+            return values;
+        }
+
+        boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package kr.kro.smartcap.smartcap_back.common.codec;
+
+import kr.kro.smartcap.smartcap_back.accident.dto.AccidentHistoryRedisDto;
+import kr.kro.smartcap.smartcap_back.alarm.dto.AlarmHistoryRedisDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 고정 바이트는 scripts/alarm_ingest.lua 의 struct.pack('<BBi8i8i8dd', ...) .. packString(...) 출력과 같은 배치로
+ * Java 쪽 코드를 거치지 않고 만든 것이다. 스크립트를 바꾸면 이 값도 함께 바꾼다. (실제 스크립트 실행은 AlarmIngestScriptTest)
+ */
+class RedisEventCodecTest {
+
+    private static final long CREATED_AT = 1760659200123L;
+
+    // alarmId 1234567890123, site 7, lat 37.5665, lng 126.978, "2", "낙상", "맑음"
+    private static final String ALARM = "0101cb04fb711f01000007000000000000007b5877ef990100008d976e1283c84240"
+            + "3bdf4f8d97be5f40010000003206000000eb8299ec838106000000eba791ec9d8c";
+
+    // alarmId -1, site -1 (ARGV 가 숫자가 아니면 스크립트가 -1 을 씀), GPS 없음(0, 0), "1", "차량", 빈 날씨
+    private static final String ALARM_WITHOUT_IDS = "0101ffffffffffffffffffffffffffffffff7b5877ef99010000"
+            + "00000000000000000000000000000000010000003106000000ecb0a8eb9f8900000000";
+
+    // accidentId 42, site 3, lat 37.5, lng 127.0, "낙상", weather null (길이 -1)
+    private static final String ACCIDENT = "01022a0000000000000003000000000000007b5877ef990100000000000000c04240"
+            + "0000000000c05f4006000000eb8299ec8381ffffffff";
+
+    @Test
+    void decodesAlarmWrittenByIngestScript() {
+        Object decoded = RedisEventCodec.decode(hex(ALARM));
+
+        assertTrue(decoded instanceof AlarmHistoryRedisDto);
+        AlarmHistoryRedisDto alarm = (AlarmHistoryRedisDto) decoded;
+        assertEquals(1234567890123L, alarm.getAlarmId());
+        assertEquals(7L, alarm.getConstructionSitesId());
+        assertEquals(CREATED_AT, alarm.getCreatedAt().getTime());
+        assertEquals(37.5665, alarm.getLat());
+        assertEquals(126.978, alarm.getLng());
+        assertEquals("2", alarm.getAlarmType());
+        assertEquals("낙상", alarm.getRecognizedType());
+        assertEquals("맑음", alarm.getWeather());
+    }
+
+    @Test
+    void decodesMinusOneAsNullAndKeepsEmptyStrings() {
+        AlarmHistoryRedisDto alarm = (AlarmHistoryRedisDto) RedisEventCodec.decode(hex(ALARM_WITHOUT_IDS));
+
+        assertNull(alarm.getAlarmId());
+        assertNull(alarm.getConstructionSitesId());
+        assertEquals(CREATED_AT, alarm.getCreatedAt().getTime());
+        assertEquals(0.0, alarm.getLat());
+        assertEquals(0.0, alarm.getLng());
+        assertEquals("차량", alarm.getRecognizedType());
+        assertEquals("", alarm.getWeather());
+    }
+
+    @Test
+    void decodesAccidentWithNullString() {
+        AccidentHistoryRedisDto accident = (AccidentHistoryRedisDto) RedisEventCodec.decode(hex(ACCIDENT));
+
+        assertEquals(42L, accident.getAccidentId());
+        assertEquals(3L, accident.getConstructionSitesId());
+        assertEquals(CREATED_AT, accident.getCreatedAt().getTime());
+        assertEquals(37.5, accident.getLat());
+        assertEquals(127.0, accident.getLng());
+        assertEquals("낙상", accident.getAccidentType());
+        assertNull(accident.getWeather());
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        byte[] alarm = hex(ALARM);
+        assertThrows(IllegalArgumentException.class,
+                () -> RedisEventCodec.decode(Arrays.copyOf(alarm, alarm.length - 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RedisEventCodec.decode(Arrays.copyOf(alarm, 20)));
+    }
+
+    @Test
+    void rejectsUnknownVersionAndType() {
+        byte[] version = hex(ALARM);
+        version[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> RedisEventCodec.decode(version));
+
+        byte[] type = hex(ALARM);
+        type[1] = 9;
+        assertThrows(IllegalArgumentException.class, () -> RedisEventCodec.decode(type));
+
+        assertThrows(IllegalArgumentException.class, () -> RedisEventCodec.decode(new byte[0]));
+    }
+
+    private static byte[] hex(String value) {
+        return HexFormat.of().parseHex(value);
+    }
+}
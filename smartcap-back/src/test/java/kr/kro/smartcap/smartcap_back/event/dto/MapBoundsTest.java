@@ -0,0 +1,36 @@
+package kr.kro.smartcap.smartcap_back.event.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapBoundsTest {
+
+    @Test
+    void parsesBboxInLngLatOrder() {
+        MapBounds bounds = MapBounds.parse("126.9, 37.4,127.1,37.6");
+
+        assertEquals(126.9, bounds.getMinLng());
+        assertEquals(37.4, bounds.getMinLat());
+        assertEquals(127.1, bounds.getMaxLng());
+        assertEquals(37.6, bounds.getMaxLat());
+        assertTrue(bounds.contains(127.0, 37.5));
+        assertTrue(bounds.contains(126.9, 37.6));
+        assertFalse(bounds.contains(37.5, 127.0));
+    }
+
+    @Test
+    void rejectsMalformedOrOutOfRangeBbox() {
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("126.9,37.4,127.1"));
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("a,37.4,127.1,37.6"));
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("NaN,37.4,127.1,37.6"));
+        // min > max (날짜변경선을 넘는 영역 포함)
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("179,37.4,-179,37.6"));
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("126.9,37.6,127.1,37.4"));
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("-181,0,0,10"));
+        assertThrows(IllegalArgumentException.class, () -> MapBounds.parse("0,-91,10,10"));
+    }
+}
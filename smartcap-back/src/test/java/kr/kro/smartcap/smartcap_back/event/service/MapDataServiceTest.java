@@ -0,0 +1,100 @@
+package kr.kro.smartcap.smartcap_back.event.service;
+
+import kr.kro.smartcap.smartcap_back.accident.repository.AccidentHistoryRepository;
+import kr.kro.smartcap.smartcap_back.alarm.repository.AlarmHistoryRepository;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import kr.kro.smartcap.smartcap_back.event.dto.MapDataResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MapDataServiceTest {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private final AccidentHistoryRepository accidentHistoryRepository = mock(AccidentHistoryRepository.class);
+    private final AlarmHistoryRepository alarmHistoryRepository = mock(AlarmHistoryRepository.class);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void slowSourceIsInterruptedAndReportedAsPartial() throws InterruptedException {
+        executor = executor(3, 8);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(accidentHistoryRepository.findMaxAccidentId()).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return 0L;
+        });
+
+        MapDataResponse response = getMapData();
+
+        assertEquals(List.of(MapDataService.SOURCE_ACCIDENTS), response.getPartialSources());
+        // 제한 시간이 지난 조회는 작업 스레드를 인터럽트해 멈춘다
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectedSourceIsReportedAsPartialInsteadOfRunningOnCaller() throws InterruptedException {
+        // 스레드 1개, 대기열 없음: 첫 출처(Redis)가 스레드를 잡고 있는 동안 나머지는 거절
+        executor = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        RedisKeyIndex redisKeyIndex = mock(RedisKeyIndex.class);
+        when(redisKeyIndex.keys(any(), any())).thenAnswer(invocation -> {
+            release.await(1, TimeUnit.SECONDS);
+            return Set.of();
+        });
+
+        MapDataResponse response = service(redisKeyIndex).getMapData(null, MapDataService.DEFAULT_LIMIT,
+                MapDataService.DEFAULT_DAYS, null, null, null, null, null);
+        release.countDown();
+
+        // 요청 스레드에서 대신 실행했다면 DB 출처는 성공했을 것
+        assertTrue(response.getPartialSources().contains(MapDataService.SOURCE_ACCIDENTS));
+        assertTrue(response.getPartialSources().contains(MapDataService.SOURCE_ALARMS));
+    }
+
+    private MapDataResponse getMapData() {
+        return service(mock(RedisKeyIndex.class)).getMapData(null, MapDataService.DEFAULT_LIMIT,
+                MapDataService.DEFAULT_DAYS, null, null, null, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MapDataService service(RedisKeyIndex redisKeyIndex) {
+        return new MapDataService(mock(RedisTemplate.class), redisKeyIndex,
+                accidentHistoryRepository, alarmHistoryRepository, mock(MapClusterService.class),
+                executor, mock(PlatformTransactionManager.class), TIMEOUT_MS);
+    }
+
+    private static ThreadPoolTaskExecutor executor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,167 @@
+package kr.kro.smartcap.smartcap_back.ingest.pipeline;
+
+import kr.kro.smartcap.smartcap_back.ingest.dto.DeadLetterDto;
+import kr.kro.smartcap.smartcap_back.ingest.dto.StageMetricsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestPipelineTest {
+
+    private IngestPipeline pipeline;
+
+    @AfterEach
+    void stop() {
+        if (pipeline != null && pipeline.isRunning()) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void failedStageIsRetriedUntilItSucceeds() throws InterruptedException {
+        pipeline = start(3);
+        TestEvent event = new TestEvent(2);
+
+        assertTrue(pipeline.submit(event));
+
+        assertTrue(event.done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, event.persistCalls.get());
+        assertEquals(1, event.enrichCalls.get());
+        assertEquals(2, metrics(IngestStage.PERSIST).getRetried());
+        assertTrue(pipeline.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void eventIsDeadLetteredAfterMaxAttempts() throws InterruptedException {
+        pipeline = start(2);
+        TestEvent event = new TestEvent(Integer.MAX_VALUE);
+
+        assertTrue(pipeline.submit(event));
+
+        List<DeadLetterDto> deadLetters = awaitDeadLetters(1);
+        assertEquals("persist", deadLetters.get(0).getStage());
+        assertEquals(2, deadLetters.get(0).getAttempts());
+        assertEquals(2, event.persistCalls.get());
+        assertEquals(0, event.statsCalls.get());
+        assertEquals(1, metrics(IngestStage.PERSIST).getDeadLettered());
+    }
+
+    @Test
+    void replayResumesAtTheFailedStage() throws InterruptedException {
+        pipeline = start(1);
+        TestEvent event = new TestEvent(1);
+        assertTrue(pipeline.submit(event));
+        awaitDeadLetters(1);
+
+        assertEquals(1, pipeline.replayDeadLetters());
+
+        assertTrue(event.done.await(5, TimeUnit.SECONDS));
+        // 실패한 persist 부터 다시 실행 (enrich 는 한 번만)
+        assertEquals(1, event.enrichCalls.get());
+        assertEquals(2, event.persistCalls.get());
+        assertTrue(pipeline.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void stopDrainsQueuedEventsBeforeReturning() {
+        pipeline = start(1);
+        List<TestEvent> events = List.of(new SlowEvent(), new SlowEvent(), new SlowEvent(), new SlowEvent());
+        events.forEach(event -> assertTrue(pipeline.submit(event)));
+
+        pipeline.stop();
+
+        // stop() 이 반환되면 등록된 이벤트는 모두 마지막 단계까지 처리되어 있다
+        events.forEach(event -> assertEquals(0, event.done.getCount()));
+        assertFalse(pipeline.isRunning());
+        assertFalse(pipeline.submit(new TestEvent(0)));
+    }
+
+    private static IngestPipeline start(int maxAttempts) {
+        IngestPipeline pipeline = new IngestPipeline(16, 1, maxAttempts, 1, 10);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private StageMetricsDto metrics(IngestStage stage) {
+        return pipeline.getMetrics().stream()
+                .filter(metrics -> metrics.getStage().equals(stage.getLabel()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<DeadLetterDto> awaitDeadLetters(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            List<DeadLetterDto> deadLetters = pipeline.getDeadLetters();
+            if (deadLetters.size() >= count) {
+                return deadLetters;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("expected " + count + " dead letters");
+    }
+
+    private static class TestEvent implements IngestEvent {
+
+        private final AtomicInteger enrichCalls = new AtomicInteger();
+        private final AtomicInteger persistCalls = new AtomicInteger();
+        private final AtomicInteger statsCalls = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final int persistFailures;
+
+        private TestEvent(int persistFailures) {
+            this.persistFailures = persistFailures;
+        }
+
+        @Override
+        public void validate() {
+        }
+
+        @Override
+        public void enrich() {
+            enrichCalls.incrementAndGet();
+        }
+
+        @Override
+        public void persist() {
+            if (persistCalls.incrementAndGet() <= persistFailures) {
+                throw new IllegalStateException("persist failed");
+            }
+        }
+
+        @Override
+        public void updateStats() {
+            statsCalls.incrementAndGet();
+        }
+
+        @Override
+        public void fanOut() {
+            done.countDown();
+        }
+    }
+
+    private static class SlowEvent extends TestEvent {
+
+        private SlowEvent() {
+            super(0);
+        }
+
+        @Override
+        public void updateStats() {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.updateStats();
+        }
+    }
+}
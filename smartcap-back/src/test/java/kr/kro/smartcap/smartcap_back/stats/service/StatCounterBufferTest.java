@@ -0,0 +1,130 @@
+package kr.kro.smartcap.smartcap_back.stats.service;
+
+import kr.kro.smartcap.smartcap_back.event.service.DashboardSnapshot;
+import kr.kro.smartcap.smartcap_back.ingest.pipeline.IngestPipeline;
+import kr.kro.smartcap.smartcap_back.stats.sse.StatUpdateCoalescer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatCounterBufferTest {
+
+    private static final String KEY_A = "summary:hour:2026-10-17:10";
+    private static final String KEY_B = "summary:hour:2026-10-17:11";
+
+    private RedisTemplate<String, String> redisTemplate;
+    private StatCounterBuffer buffer;
+
+    // 파이프라인마다 보낸 스크립트 인자 (KEYS + ARGV)
+    private final List<List<String[]>> pipelines = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        buffer = new StatCounterBuffer(redisTemplate,
+                mock(StatUpdateCoalescer.class),
+                mock(DashboardSnapshot.class),
+                mock(StatKeyLifecycle.class),
+                mock(ThreadPoolTaskExecutor.class),
+                Long.MAX_VALUE);
+    }
+
+    @Test
+    void partialPipelineFailureRetriesOnlyFailedKeys() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    // 두 번째 키의 스크립트만 실패
+                    send(invocation.getArgument(0));
+                    throw new RedisPipelineException("partial failure",
+                            List.of(List.of(3L), new RedisSystemException("NOSCRIPT", null)));
+                })
+                .thenAnswer(invocation -> {
+                    send(invocation.getArgument(0));
+                    return List.of(List.of(7L));
+                });
+
+        buffer.add("hour", KEY_A, "alarm", 3);
+        buffer.add("hour", KEY_B, "alarm", 2);
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(2, pipelines.size());
+        assertEquals(2, pipelines.get(0).size());
+        String[] failed = pipelines.get(0).get(1);
+
+        // 성공한 키는 다시 보내지 않고, 실패한 키만 같은 증가분으로 다시 보낸다
+        assertEquals(1, pipelines.get(1).size());
+        assertArrayEquals(failed, pipelines.get(1).get(0));
+    }
+
+    @Test
+    void failureBeforePipelineRetriesEveryKey() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenAnswer(invocation -> {
+                    send(invocation.getArgument(0));
+                    return List.of(List.of(3L), List.of(2L));
+                });
+
+        buffer.add("hour", KEY_A, "alarm", 3);
+        buffer.add("hour", KEY_B, "alarm", 2);
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(1, pipelines.size());
+        assertEquals(2, pipelines.get(0).size());
+    }
+
+    @Test
+    void stopFlushesPendingCounters() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            send(invocation.getArgument(0));
+            return List.of(List.of(3L));
+        });
+
+        buffer.start();
+        buffer.add("hour", KEY_A, "alarm", 3);
+        buffer.stop();
+
+        assertEquals(1, pipelines.size());
+        assertFalse(buffer.isRunning());
+    }
+
+    @Test
+    void stopsAfterIngestPipelineAndBeforeRedisConnectionFactory() {
+        // phase 가 높은 빈부터 멈춘다: 파이프라인이 큐를 비운 뒤 버퍼를 반영하고, 그 뒤에 연결이 닫혀야 한다
+        assertTrue(new IngestPipeline(1, 1, 1, 0, 1).getPhase() > buffer.getPhase());
+        assertTrue(buffer.getPhase() > new LettuceConnectionFactory().getPhase());
+    }
+
+    private void send(RedisCallback<?> callback) {
+        List<String[]> sent = new ArrayList<>();
+        StringRedisConnection connection = mock(StringRedisConnection.class, invocation -> {
+            if (invocation.getMethod().getName().equals("evalSha")) {
+                sent.add((String[]) invocation.getRawArguments()[3]);
+            }
+            return null;
+        });
+        callback.doInRedis(connection);
+        pipelines.add(sent);
+    }
+}
@@ -0,0 +1,91 @@
+package kr.kro.smartcap.smartcap_back.stats.service;
+
+import kr.kro.smartcap.smartcap_back.common.redis.KeyFamily;
+import kr.kro.smartcap.smartcap_back.common.redis.RedisKeyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatKeyLifecycleTest {
+
+    private static final String MALFORMED = "summary:hour:not-a-date";
+
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisKeyIndex redisKeyIndex;
+    private StatKeyLifecycle lifecycle;
+
+    // 스윕 파이프라인에서 호출된 명령 ("persist [summary:month:2026-10]" 형태)
+    private final List<String> commands = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        redisKeyIndex = mock(RedisKeyIndex.class);
+        // month 는 보관 기간 0 = 만료 없음
+        lifecycle = new StatKeyLifecycle(redisTemplate, redisKeyIndex,
+                Duration.ofDays(4), Duration.ofDays(120), Duration.ZERO, 1000);
+
+        when(redisKeyIndex.keys(any(KeyFamily.class), isNull())).thenReturn(Set.of());
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            StringRedisConnection connection = mock(StringRedisConnection.class, call -> {
+                commands.add(call.getMethod().getName() + " " + Arrays.asList(call.getArguments()));
+                return null;
+            });
+            ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+            return List.of();
+        });
+    }
+
+    @Test
+    void sweepLeavesMalformedKeysUntouched() {
+        String current = "summary:hour:" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd:HH"));
+        String old = "summary:hour:2000-01-01:00";
+        when(redisKeyIndex.keys(RedisStatService.familyOf("hour"), null)).thenReturn(Set.of(current, old, MALFORMED));
+
+        lifecycle.sweep();
+
+        assertTrue(called("expireAt", current), commands.toString());
+        assertTrue(called("del", old), commands.toString());
+        assertTrue(commands.stream().noneMatch(command -> command.contains(MALFORMED)), commands.toString());
+    }
+
+    @Test
+    void sweepPersistsOnlyScopesWithoutRetention() {
+        String month = "summary:month:2026-10";
+        when(redisKeyIndex.keys(RedisStatService.familyOf("month"), null)).thenReturn(Set.of(month));
+
+        lifecycle.sweep();
+
+        assertTrue(called("persist", month), commands.toString());
+        assertEquals(1, commands.stream().filter(command -> command.startsWith("persist ")).count());
+    }
+
+    @Test
+    void expireAtIsZeroForMalformedKeys() {
+        assertEquals(0L, lifecycle.expireAt("hour", MALFORMED));
+        assertEquals(0L, lifecycle.expireAt("month", "summary:month:2026-10"));
+        assertTrue(lifecycle.expireAt("hour", "summary:hour:2026-10-17:10") > 0);
+    }
+
+    private boolean called(String command, String key) {
+        return commands.stream().anyMatch(c -> c.startsWith(command + " ") && c.contains(key));
+    }
+}
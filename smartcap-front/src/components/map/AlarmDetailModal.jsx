@@ -161,10 +161,17 @@ const AlarmDetailModal = ({ showModal, selectedAlarm, accidentVideo, closeModal,
         {accidentVideo && (
           <div className="incident-video">
             <h3>사고 영상</h3>
-            <video controls autoPlay>
-              <source src={accidentVideo.video_url} type="video/mp4" />
-              브라우저가 비디오 태그를 지원하지 않습니다.
-            </video>
+            {/* MJPEG(.avi) 영상은 브라우저에서 재생되지 않으므로 다운로드만 제공 */}
+            {accidentVideo.video_url?.toLowerCase().endsWith('.avi') ? (
+              <a href={accidentVideo.video_url} download>
+                사고 영상 다운로드 (MJPEG AVI, 브라우저 재생 불가)
+              </a>
+            ) : (
+              <video controls autoPlay>
+                <source src={accidentVideo.video_url} type="video/mp4" />
+                브라우저가 비디오 태그를 지원하지 않습니다.
+              </video>
+            )}
             {selectedAlarm.accident_id && (
               <p className="accident-id">사고 ID: {selectedAlarm.accident_id}</p>
             )}
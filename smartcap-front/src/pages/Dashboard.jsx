@@ -105,11 +105,12 @@ const Dashboard = () => {
       console.log("✅ SSE 연결 성공");
     };
   
-    eventSource.addEventListener('stat_update', (event) => {
-      console.log("📦 stat_update 이벤트 수신:", event.data);
+    // 서버가 주기마다 변경분을 묶어서 보냄 (키/필드별 최신 값)
+    eventSource.addEventListener('stat_batch', (event) => {
+      console.log("📦 stat_batch 이벤트 수신:", event.data);
       try {
-        const update = JSON.parse(event.data);
-        updateStat(update);
+        const batch = JSON.parse(event.data);
+        batch.updates.forEach(updateStat);
   
         const newState = useStatsStore.getState();
         console.log("🆕 업데이트된 상태:", newState);